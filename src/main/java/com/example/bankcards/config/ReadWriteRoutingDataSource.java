@@ -0,0 +1,65 @@
+package com.example.bankcards.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Маршрутизация соединений между основной БД и репликой.
+ *
+ * <p>Читающие транзакции ({@code @Transactional(readOnly = true)}) получают
+ * соединение с реплики, все остальные — с основной БД. Чтение остаётся
+ * на основной БД, если реплика отстаёт или недоступна
+ * ({@link ReplicaLagMonitor}) либо текущий пользователь недавно
+ * что-то изменил ({@link ReadYourWritesTracker}).</p>
+ *
+ * <p>Решение принимается при получении физического соединения, поэтому
+ * источник должен быть обёрнут в
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * к этому моменту признак read-only транзакции уже установлен.</p>
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor lagMonitor, ReadYourWritesTracker readYourWrites) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected Target determineCurrentLookupKey() {
+        String username = currentUsername();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (username != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        readYourWrites.markWrite(username);
+                    }
+                });
+            }
+            return Target.PRIMARY;
+        }
+
+        if (username != null && readYourWrites.hasRecentWrite(username)) {
+            return Target.PRIMARY;
+        }
+
+        return lagMonitor.isUsable() ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    private String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
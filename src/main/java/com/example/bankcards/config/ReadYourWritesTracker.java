@@ -0,0 +1,33 @@
+package com.example.bankcards.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Пользователи, недавно изменившие данные на основной БД.
+ *
+ * <p>В течение {@code app.datasource.replica.read-your-writes-window} после
+ * фиксации записи чтения такого пользователя направляются на основную БД,
+ * чтобы он видел собственные изменения независимо от отставания реплики.</p>
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(long window, long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(window))
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    public void markWrite(String username) {
+        recentWriters.put(username, Boolean.TRUE);
+    }
+
+    public boolean hasRecentWrite(String username) {
+        return recentWriters.getIfPresent(username) != null;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.bankcards.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Периодическая проверка отставания реплики.
+ *
+ * <p>Отставание измеряется на самой реплике как время с последней
+ * применённой транзакции; если все полученные WAL-записи уже применены,
+ * отставание считается нулевым. Пока оно превышает
+ * {@code app.datasource.replica.max-lag} или реплика недоступна,
+ * читающие транзакции выполняются на основной БД.</p>
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    static final String LAG_QUERY = """
+            select case
+                     when not pg_is_in_recovery() then 0
+                     when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                     else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   end
+            """;
+
+    private final DataSource replica;
+    private final long maxLag;
+
+    private volatile long lag;
+    private volatile boolean available;
+
+    public ReplicaLagMonitor(DataSource replica, long maxLag, MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.maxLag = maxLag;
+
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.available ? monitor.lag : Double.NaN)
+                .description("Replication lag of the read replica, ms")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval}")
+    public void check() {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+            rs.next();
+            lag = rs.getLong(1);
+            available = true;
+        } catch (SQLException ex) {
+            if (available) {
+                log.warn("Read replica is unavailable, reads are routed to the primary", ex);
+            }
+            available = false;
+        }
+    }
+
+    public boolean isUsable() {
+        return available && lag <= maxLag;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Включает выполнение фоновых задач по расписанию ({@code @Scheduled}).
+ *
+ * <p>Вынесено в отдельную конфигурацию, чтобы фоновые задачи
+ * не запускались в срезовых тестах контроллеров.</p>
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,10 +1,15 @@
 package com.example.bankcards.config;
 
+import com.example.bankcards.security.BoundedPasswordEncoder;
 import com.example.bankcards.security.JwtAuthenticationFilter;
+import com.example.bankcards.security.RateLimitFilter;
+import com.example.bankcards.security.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -18,6 +23,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import tools.jackson.databind.ObjectMapper;
 
 import java.util.List;
 
@@ -29,11 +35,13 @@ import java.util.List;
  *   <li>JWT-аутентификацию без использования HTTP-сессий (stateless)</li>
  *   <li>Spring Security Filter Chain</li>
  *   <li>CORS-политику для взаимодействия с фронтендом</li>
- *   <li>Хэширование паролей с использованием BCrypt</li>
+ *   <li>Хэширование паролей с использованием BCrypt в отдельном ограниченном пуле потоков</li>
+ *   <li>Ограничение частоты запросов ко входу и переводам</li>
  * </ul>
  *
  * <p>Все запросы, кроме публичных эндпоинтов аутентификации и документации,
- * требуют валидного JWT-токена.</p>
+ * требуют валидного JWT-токена. Эндпоинты мониторинга ({@code /actuator/**})
+ * доступны только администраторам.</p>
  */
 @Configuration
 @EnableMethodSecurity
@@ -46,15 +54,18 @@ public class SecurityConfig {
      * Конфигурирует цепочку фильтров Spring Security.
      *
      * <p>Отключает CSRF (т.к. используется stateless JWT),
-     * включает CORS, настраивает правила доступа и
-     * регистрирует JWT-фильтр перед стандартной аутентификацией.</p>
+     * включает CORS, настраивает правила доступа,
+     * регистрирует JWT-фильтр перед стандартной аутентификацией
+     * и фильтр ограничения частоты запросов сразу после него.</p>
      *
      * @param http объект {@link HttpSecurity}
+     * @param rateLimiter лимиты запросов
+     * @param objectMapper для тела ответа 429
      * @return сконфигурированная {@link SecurityFilterChain}
      * @throws Exception в случае ошибок конфигурации
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, RateLimiter rateLimiter, ObjectMapper objectMapper) throws Exception {
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> {})
@@ -65,10 +76,13 @@ public class SecurityConfig {
                         auth
                                 .requestMatchers("/api/auth/**", "/swagger-ui/**", "/v3/api-docs/**", "/docs/**")
                                 .permitAll()
+                                .requestMatchers("/actuator/**")
+                                .hasRole("ADMIN")
                                 .anyRequest()
                                 .authenticated()
                 )
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(new RateLimitFilter(rateLimiter, objectMapper), JwtAuthenticationFilter.class)
                 .build();
     }
 
@@ -85,9 +99,44 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * BCrypt с проверкой паролей в ограниченном пуле потоков,
+     * см. {@link BoundedPasswordEncoder}.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${app.password-hashing.threads}") int threads,
+            @Value("${app.password-hashing.queue-capacity}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, queueCapacity, meterRegistry);
+    }
+
+    /**
+     * Лимиты запросов: вход считается по IP-адресу клиента,
+     * переводы — по пользователю. См. {@link RateLimiter}.
+     */
+    @Bean
+    public RateLimiter rateLimiter(
+            @Value("${app.rate-limit.enabled}") boolean enabled,
+            @Value("${app.rate-limit.max-keys}") long maxKeys,
+            @Value("${app.rate-limit.idle-timeout}") long idleTimeout,
+            @Value("${app.rate-limit.login.capacity}") long loginCapacity,
+            @Value("${app.rate-limit.login.refill-per-minute}") long loginRefillPerMinute,
+            @Value("${app.rate-limit.transfers.capacity}") long transfersCapacity,
+            @Value("${app.rate-limit.transfers.refill-per-minute}") long transfersRefillPerMinute,
+            MeterRegistry meterRegistry
+    ) {
+        List<RateLimiter.Route> routes = enabled
+                ? List.of(
+                        new RateLimiter.Route("login", HttpMethod.POST, "/api/auth/login",
+                                false, loginCapacity, loginRefillPerMinute),
+                        new RateLimiter.Route("transfers", HttpMethod.POST, "/api/user/transfers/**",
+                                true, transfersCapacity, transfersRefillPerMinute)
+                )
+                : List.of();
+
+        return new RateLimiter(routes, maxKeys, idleTimeout, meterRegistry);
     }
 
     /**
@@ -105,8 +154,8 @@ public class SecurityConfig {
 
         config.setAllowedOrigins(allowedOrigins);
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
-        config.setAllowedHeaders(List.of("Authorization", "Content-Type"));
-        config.setExposedHeaders(List.of("Authorization"));
+        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "Idempotency-Key"));
+        config.setExposedHeaders(List.of("Authorization", "Retry-After"));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,62 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.enums.BalanceUpdateMode;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.BalanceUpdateStrategy;
+import com.example.bankcards.service.ConditionalBalanceUpdateStrategy;
+import com.example.bankcards.service.LedgerBalanceUpdateStrategy;
+import com.example.bankcards.service.LedgerService;
+import com.example.bankcards.service.OptimisticBalanceUpdateStrategy;
+import com.example.bankcards.service.PessimisticBalanceUpdateStrategy;
+import com.example.bankcards.service.TransferHistoryService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Конфигурация выполнения переводов между картами.
+ *
+ * <p>Выбирает стратегию изменения балансов в зависимости от параметра
+ * {@code app.transfer.balance-update-mode}:</p>
+ * <ul>
+ *   <li>{@code PESSIMISTIC} — блокировки строк в порядке возрастания id карты;</li>
+ *   <li>{@code OPTIMISTIC} — версионирование карт с ограниченным числом повторов
+ *   ({@code app.transfer.optimistic-max-attempts});</li>
+ *   <li>{@code CONDITIONAL_UPDATE} — условный {@code UPDATE} без загрузки сущностей;</li>
+ *   <li>{@code LEDGER} — только добавление проводок в журнал без изменения строк карт.</li>
+ * </ul>
+ */
+@Configuration
+public class TransferConfig {
+
+    @Bean
+    public BalanceUpdateStrategy balanceUpdateStrategy(
+            @Value("${app.transfer.balance-update-mode}") BalanceUpdateMode mode,
+            @Value("${app.transfer.optimistic-max-attempts}") int optimisticMaxAttempts,
+            CardRepository cardRepository,
+            TransferRepository transferRepository,
+            LedgerService ledgerService,
+            TransferHistoryService transferHistoryService,
+            PlatformTransactionManager transactionManager
+    ) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        return switch (mode) {
+            case PESSIMISTIC -> new PessimisticBalanceUpdateStrategy(
+                    cardRepository, transferRepository, ledgerService, transferHistoryService, transactionTemplate
+            );
+            case OPTIMISTIC -> new OptimisticBalanceUpdateStrategy(
+                    cardRepository, transferRepository, ledgerService, transferHistoryService, transactionTemplate, optimisticMaxAttempts
+            );
+            case CONDITIONAL_UPDATE -> new ConditionalBalanceUpdateStrategy(
+                    cardRepository, transferRepository, ledgerService, transferHistoryService, transactionTemplate
+            );
+            case LEDGER -> new LedgerBalanceUpdateStrategy(
+                    cardRepository, transferRepository, ledgerService, transferHistoryService, transactionTemplate
+            );
+        };
+    }
+}
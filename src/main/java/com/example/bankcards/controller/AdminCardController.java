@@ -1,15 +1,26 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.AdminCardFilterDto;
+import com.example.bankcards.dto.BulkCardIssueResponseDto;
 import com.example.bankcards.dto.CardResponseDto;
 import com.example.bankcards.dto.CreateCardRequestDto;
+import com.example.bankcards.dto.CursorPageDto;
+import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.enums.ImportFormat;
 import com.example.bankcards.service.AdminCardService;
+import com.example.bankcards.service.BulkCardIssueService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.time.LocalDate;
+
 /**
  * REST-контроллер для административного управления банковскими картами.
  *
@@ -18,13 +29,16 @@ import org.springframework.web.bind.annotation.*;
  * <p>Предоставляет API для:</p>
  * <ul>
  *   <li>создания карт</li>
+ *   <li>массового выпуска карт из CSV или NDJSON ({@code POST /bulk})</li>
  *   <li>блокировки и активации карт</li>
  *   <li>удаления карт</li>
  *   <li>просмотра списка карт с пагинацией</li>
+ *   <li>просмотра списка карт по курсору без подсчёта общего числа
+ *   ({@code GET /scroll}) с фильтрами по статусу, владельцу и сроку действия</li>
  * </ul>
  *
  * <p>Контроллер не содержит бизнес-логики и делегирует все операции
- * сервисному слою {@link AdminCardService}.</p>
+ * сервисному слою {@link AdminCardService} и {@link BulkCardIssueService}.</p>
  */
 @RestController
 @RequestMapping("/api/admin/cards")
@@ -33,12 +47,23 @@ import org.springframework.web.bind.annotation.*;
 public class AdminCardController {
 
     private final AdminCardService adminCardService;
+    private final BulkCardIssueService bulkCardIssueService;
 
     @PostMapping
     public CardResponseDto create(@RequestBody @Valid CreateCardRequestDto dto) {
         return adminCardService.create(dto);
     }
 
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public BulkCardIssueResponseDto createBulkCsv(InputStream body) {
+        return bulkCardIssueService.issue(body, ImportFormat.CSV);
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BulkCardIssueResponseDto createBulkNdjson(InputStream body) {
+        return bulkCardIssueService.issue(body, ImportFormat.NDJSON);
+    }
+
     @PatchMapping("/{id}/block")
     public void block(@PathVariable Long id) {
         adminCardService.block(id);
@@ -58,4 +83,20 @@ public class AdminCardController {
     public Page<CardResponseDto> getAll(Pageable pageable) {
         return adminCardService.getAll(pageable);
     }
+
+    @GetMapping("/scroll")
+    public CursorPageDto<CardResponseDto> scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) CardStatusCode status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate expiresTo
+    ) {
+        return adminCardService.scroll(
+                new AdminCardFilterDto(status, userId, expiresFrom, expiresTo),
+                cursor,
+                size
+        );
+    }
 }
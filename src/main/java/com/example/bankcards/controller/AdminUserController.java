@@ -1,5 +1,7 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.AdminUserFilterDto;
+import com.example.bankcards.dto.CursorPageDto;
 import com.example.bankcards.dto.UserResponseDto;
 import com.example.bankcards.service.AdminUserService;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +19,8 @@ import org.springframework.web.bind.annotation.*;
  * <p>Предоставляет API для:</p>
  * <ul>
  *   <li>получения списка пользователей с пагинацией</li>
+ *   <li>получения списка пользователей по курсору без подсчёта общего
+ *   числа ({@code GET /scroll}) с фильтрами по активности и роли</li>
  *   <li>блокировки пользователей</li>
  *   <li>разблокировки пользователей</li>
  * </ul>
@@ -40,6 +44,16 @@ public class AdminUserController {
         return adminUserService.getAll(pageable);
     }
 
+    @GetMapping("/scroll")
+    public CursorPageDto<UserResponseDto> scroll(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) String role
+    ) {
+        return adminUserService.scroll(new AdminUserFilterDto(enabled, role), cursor, size);
+    }
+
     @PostMapping("/{id}/block")
     public void block(@PathVariable Long id, Authentication authentication) {
         adminUserService.block(id, authentication);
@@ -2,19 +2,23 @@ package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.JwtResponseDto;
 import com.example.bankcards.dto.LoginRequestDto;
+import com.example.bankcards.dto.RefreshTokenRequestDto;
 import com.example.bankcards.service.AuthService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
  * REST-контроллер аутентификации пользователей.
  *
- * <p>Предоставляет API для входа пользователя в систему
- * и получения JWT-токена.</p>
+ * <p>Предоставляет API для входа пользователя в систему,
+ * получения JWT-токена, его продления по refresh-токену
+ * и отзыва при выходе.</p>
  *
  * <p>Контроллер не требует аутентификации и используется
  * для первичного входа в систему.</p>
@@ -33,4 +37,17 @@ public class AuthController {
     public JwtResponseDto login(@RequestBody @Valid LoginRequestDto request) {
         return authService.login(request);
     }
+
+    @PostMapping("/refresh")
+    public JwtResponseDto refresh(@RequestBody @Valid RefreshTokenRequestDto request) {
+        return authService.refresh(request);
+    }
+
+    @PostMapping("/logout")
+    public void logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            @RequestBody(required = false) @Valid RefreshTokenRequestDto request
+    ) {
+        authService.logout(authorization, request);
+    }
 }
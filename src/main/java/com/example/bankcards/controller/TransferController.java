@@ -1,15 +1,31 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.AsyncTransferResponseDto;
+import com.example.bankcards.dto.BatchTransferRequestDto;
+import com.example.bankcards.dto.BatchTransferResponseDto;
+import com.example.bankcards.dto.CursorPageDto;
+import com.example.bankcards.dto.TransferHistoryFilterDto;
 import com.example.bankcards.dto.TransferRequestDto;
 import com.example.bankcards.dto.TransferResponseDto;
+import com.example.bankcards.enums.ExportFormat;
+import com.example.bankcards.enums.TransferDirection;
+import com.example.bankcards.service.AsyncTransferService;
+import com.example.bankcards.service.TransferExportService;
 import com.example.bankcards.service.TransferService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
 
 /**
  * REST-контроллер для управления переводами между банковскими картами.
@@ -17,13 +33,32 @@ import java.util.List;
  * <p>Позволяет авторизованному пользователю:</p>
  * <ul>
  *     <li>совершать переводы на карту;</li>
- *     <li>просматривать историю выполненных переводов.</li>
+ *     <li>ставить перевод в очередь и отслеживать его статус;</li>
+ *     <li>выполнять пакет переводов за один запрос;</li>
+ *     <li>просматривать историю выполненных переводов постранично;</li>
+ *     <li>выгружать полную историю переводов в NDJSON или CSV.</li>
  * </ul>
  *
+ * <p>Повторная отправка перевода с тем же заголовком {@code Idempotency-Key}
+ * возвращает результат исходного перевода и не изменяет балансы карт.</p>
+ *
  * <p>Доступ разрешён только пользователям с ролью {@code USER}.
  * Аутентифицированный пользователь определяется через {@link Authentication}.</p>
  *
- * <p>Вся бизнес-логика переводов инкапсулирована в {@link TransferService}.</p>
+ * <p>История переводов отдаётся страницами по ключу {@code (createdAt, id)}:
+ * ответ содержит {@code nextCursor}, который передаётся в параметре
+ * {@code cursor} для получения следующей страницы. Поддерживаются фильтры
+ * по периоду ({@code from} включительно, {@code to} исключительно)
+ * и направлению перевода.</p>
+ *
+ * <p>Выгрузка ({@code GET /export}) передаётся потоком по мере чтения
+ * из БД и не накапливается в памяти.</p>
+ *
+ * <p>Асинхронный перевод возвращает {@code 202 Accepted} с идентификатором,
+ * по которому статус запрашивается через {@code GET /{id}/status}.</p>
+ *
+ * <p>Вся бизнес-логика переводов инкапсулирована в {@link TransferService}
+ * и {@link AsyncTransferService}.</p>
  */
 @RestController
 @RequestMapping("/api/user/transfers")
@@ -32,17 +67,79 @@ import java.util.List;
 public class TransferController {
 
     private final TransferService transferService;
+    private final AsyncTransferService asyncTransferService;
+    private final TransferExportService transferExportService;
 
     @PostMapping
     public TransferResponseDto transfer(
             @RequestBody @Valid TransferRequestDto request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             Authentication authentication
     ) {
-        return transferService.transfer(request, authentication);
+        return transferService.transfer(request, idempotencyKey, authentication);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) TransferDirection direction,
+            Authentication authentication
+    ) {
+        String username = authentication.getName();
+        TransferHistoryFilterDto filter = new TransferHistoryFilterDto(from, to, direction);
+
+        StreamingResponseBody body = out -> transferExportService.export(username, filter, format, out);
+
+        return ResponseEntity.ok()
+                .contentType(format == ExportFormat.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transfers." + format.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
+    @PostMapping("/async")
+    public ResponseEntity<AsyncTransferResponseDto> transferAsync(
+            @RequestBody @Valid TransferRequestDto request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            Authentication authentication
+    ) {
+        return ResponseEntity.accepted()
+                .body(asyncTransferService.submit(request, idempotencyKey, authentication));
+    }
+
+    @GetMapping("/{id}/status")
+    public AsyncTransferResponseDto status(
+            @PathVariable UUID id,
+            Authentication authentication
+    ) {
+        return asyncTransferService.getStatus(id, authentication);
+    }
+
+    @PostMapping("/batch")
+    public BatchTransferResponseDto transferBatch(
+            @RequestBody @Valid BatchTransferRequestDto request,
+            Authentication authentication
+    ) {
+        return transferService.transferBatch(request, authentication);
     }
 
     @GetMapping
-    public List<TransferResponseDto> history(Authentication authentication) {
-        return transferService.getUserTransfers(authentication);
+    public CursorPageDto<TransferResponseDto> history(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) TransferDirection direction,
+            Authentication authentication
+    ) {
+        return transferService.getUserTransfers(
+                authentication,
+                new TransferHistoryFilterDto(from, to, direction),
+                cursor,
+                size
+        );
     }
 }
@@ -0,0 +1,12 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.enums.CardStatusCode;
+
+import java.time.LocalDate;
+
+public record AdminCardFilterDto(
+        CardStatusCode status,
+        Long userId,
+        LocalDate expiresFrom,
+        LocalDate expiresTo
+) {}
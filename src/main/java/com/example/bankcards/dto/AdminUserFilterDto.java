@@ -0,0 +1,6 @@
+package com.example.bankcards.dto;
+
+public record AdminUserFilterDto(
+        Boolean enabled,
+        String role
+) {}
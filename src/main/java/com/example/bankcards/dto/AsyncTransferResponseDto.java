@@ -0,0 +1,12 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.enums.AsyncTransferStatus;
+
+import java.util.UUID;
+
+public record AsyncTransferResponseDto(
+        UUID id,
+        AsyncTransferStatus status,
+        TransferResponseDto transfer,
+        String error
+) {}
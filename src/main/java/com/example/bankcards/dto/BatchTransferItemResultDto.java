@@ -0,0 +1,8 @@
+package com.example.bankcards.dto;
+
+public record BatchTransferItemResultDto(
+        int index,
+        boolean success,
+        TransferResponseDto transfer,
+        String error
+) {}
@@ -0,0 +1,20 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.enums.BatchTransferMode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchTransferRequestDto(
+
+        @NotNull
+        BatchTransferMode mode,
+
+        @NotEmpty
+        @Size(max = 1000, message = "Batch must contain at most 1000 transfers")
+        List<@NotNull @Valid TransferRequestDto> transfers
+) {
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+public record BatchTransferResponseDto(
+        int succeeded,
+        int failed,
+        List<BatchTransferItemResultDto> results
+) {}
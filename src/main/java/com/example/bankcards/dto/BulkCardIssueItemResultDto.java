@@ -0,0 +1,8 @@
+package com.example.bankcards.dto;
+
+public record BulkCardIssueItemResultDto(
+        int line,
+        boolean success,
+        Long cardId,
+        String error
+) {}
@@ -0,0 +1,9 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+public record BulkCardIssueResponseDto(
+        int succeeded,
+        int failed,
+        List<BulkCardIssueItemResultDto> results
+) {}
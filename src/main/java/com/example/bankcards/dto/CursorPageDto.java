@@ -0,0 +1,8 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+public record CursorPageDto<T>(
+        List<T> items,
+        String nextCursor
+) {}
@@ -1,5 +1,6 @@
 package com.example.bankcards.dto;
 
 public record JwtResponseDto(
-        String token
+        String token,
+        String refreshToken
 ) {}
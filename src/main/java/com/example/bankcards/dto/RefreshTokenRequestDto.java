@@ -0,0 +1,7 @@
+package com.example.bankcards.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenRequestDto(
+        @NotBlank String refreshToken
+) {}
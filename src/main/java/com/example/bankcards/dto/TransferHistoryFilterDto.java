@@ -0,0 +1,11 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.enums.TransferDirection;
+
+import java.time.Instant;
+
+public record TransferHistoryFilterDto(
+        Instant from,
+        Instant to,
+        TransferDirection direction
+) {}
@@ -0,0 +1,27 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Entity
+@Table(name = "card_balance_snapshots")
+@Getter
+@Setter
+public class CardBalanceSnapshot {
+
+    @Id
+    private Long cardId;
+
+    @Column(nullable = false)
+    private BigDecimal balance;
+
+    @Column(nullable = false)
+    private Long lastEntryId;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
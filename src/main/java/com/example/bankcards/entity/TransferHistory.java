@@ -0,0 +1,42 @@
+package com.example.bankcards.entity;
+
+import com.example.bankcards.enums.TransferDirection;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Entity
+@Table(name = "transfer_history")
+@Getter
+@Setter
+public class TransferHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long transferId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransferDirection direction;
+
+    @Column(nullable = false)
+    private Long fromCardId;
+
+    @Column(nullable = false)
+    private Long toCardId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
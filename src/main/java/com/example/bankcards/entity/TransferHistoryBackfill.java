@@ -0,0 +1,31 @@
+package com.example.bankcards.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Прогресс переноса старых переводов в {@code transfer_history}.
+ * Таблица содержит единственную строку с id {@link #ID}.
+ */
+@Entity
+@Table(name = "transfer_history_backfill")
+@Getter
+@Setter
+public class TransferHistoryBackfill {
+
+    public static final Integer ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long backfilledUpTo;
+
+    private Long targetId;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
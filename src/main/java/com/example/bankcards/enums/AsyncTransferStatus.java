@@ -0,0 +1,8 @@
+package com.example.bankcards.enums;
+
+public enum AsyncTransferStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
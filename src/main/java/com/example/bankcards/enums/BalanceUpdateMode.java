@@ -0,0 +1,8 @@
+package com.example.bankcards.enums;
+
+public enum BalanceUpdateMode {
+    PESSIMISTIC,
+    OPTIMISTIC,
+    CONDITIONAL_UPDATE,
+    LEDGER
+}
@@ -0,0 +1,6 @@
+package com.example.bankcards.enums;
+
+public enum BatchTransferMode {
+    ALL_OR_NOTHING,
+    PER_ITEM
+}
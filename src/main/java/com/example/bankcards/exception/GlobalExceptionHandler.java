@@ -2,6 +2,7 @@ package com.example.bankcards.exception;
 
 import com.example.bankcards.dto.ErrorResponseDto;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -22,7 +23,7 @@ import java.util.stream.Collectors;
  *
  * <p>Обрабатывает:</p>
  * <ul>
- *     <li>бизнес-исключения (400, 403, 404, 409);</li>
+ *     <li>бизнес-исключения (400, 403, 404, 409, 503);</li>
  *     <li>ошибки валидации входных данных;</li>
  *     <li>непредвиденные ошибки сервера (500).</li>
  * </ul>
@@ -57,6 +58,18 @@ public class GlobalExceptionHandler {
     }
 
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponseDto> handleServiceUnavailable(
+            ServiceUnavailableException ex,
+            HttpServletRequest request
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        if (ex.getRetryAfterSeconds() != null) {
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        }
+        return build(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request, headers);
+    }
+
     @ExceptionHandler(ForbiddenException.class)
     public ResponseEntity<ErrorResponseDto> handleForbidden(
             ForbiddenException ex,
@@ -122,7 +135,16 @@ public class GlobalExceptionHandler {
             String message,
             HttpServletRequest request
     ) {
-        return ResponseEntity.status(status).body(
+        return build(status, message, request, HttpHeaders.EMPTY);
+    }
+
+    private ResponseEntity<ErrorResponseDto> build(
+            HttpStatus status,
+            String message,
+            HttpServletRequest request,
+            HttpHeaders headers
+    ) {
+        return ResponseEntity.status(status).headers(headers).body(
                 new ErrorResponseDto(
                         Instant.now(),
                         status.value(),
@@ -0,0 +1,20 @@
+package com.example.bankcards.exception;
+
+public class ServiceUnavailableException extends ApiException {
+
+    // секунд до повтора для заголовка Retry-After; null — без заголовка
+    private final Long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message) {
+        this(message, null);
+    }
+
+    public ServiceUnavailableException(String message, Long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CardBalanceSnapshotRepository extends JpaRepository<CardBalanceSnapshot, Long> {
+
+    @Query("select coalesce(max(s.lastEntryId), 0) from CardBalanceSnapshot s")
+    Long findWatermark();
+
+    @Modifying
+    @Query(value = """
+    insert into card_balance_snapshots (card_id, balance, last_entry_id, updated_at)
+    select e.card_id, sum(e.amount), :toEntryId, now()
+      from ledger_entries e
+     where e.id > :fromEntryId
+       and e.id <= :toEntryId
+     group by e.card_id
+    on conflict (card_id) do update
+       set balance = card_balance_snapshots.balance + excluded.balance,
+           last_entry_id = excluded.last_entry_id,
+           updated_at = excluded.updated_at
+     where card_balance_snapshots.last_entry_id <= :fromEntryId
+    """, nativeQuery = true)
+    int foldEntries(@Param("fromEntryId") Long fromEntryId, @Param("toEntryId") Long toEntryId);
+
+    @Modifying
+    @Query(value = """
+    update cards c
+       set balance = s.balance
+      from card_balance_snapshots s
+     where s.card_id = c.id
+       and s.last_entry_id > :fromEntryId
+       and c.balance <> s.balance
+    """, nativeQuery = true)
+    int copyBalancesToCards(@Param("fromEntryId") Long fromEntryId);
+}
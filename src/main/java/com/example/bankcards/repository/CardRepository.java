@@ -2,34 +2,98 @@ package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.enums.CardStatusCode;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CardRepository extends JpaRepository<Card, Long> {
+public interface CardRepository extends JpaRepository<Card, Long>, JpaSpecificationExecutor<Card> {
 
+    @Override
+    @EntityGraph(attributePaths = "status")
+    Page<Card> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = "status")
     Page<Card> findAllByUserUsername(
             String username,
             Pageable pageable
     );
 
-    Page<Card> findAllByUser_UsernameAndStatus_StatusCodeNot(
+    // compares cards.status_id itself, so that the partial index idx_cards_user_id_open
+    // (status_id <> CLOSED) matches the query; a condition on the status code would not
+    @EntityGraph(attributePaths = "status")
+    Page<Card> findAllByUser_UsernameAndStatus_IdNot(
             String username,
-            CardStatusCode status,
+            Long statusId,
             Pageable pageable
     );
 
+    @EntityGraph(attributePaths = "status")
     Page<Card> findAllByUser_UsernameAndStatus_StatusCode(
             String username,
             CardStatusCode status,
             Pageable pageable
     );
 
+    @EntityGraph(attributePaths = "status")
     Optional<Card> findByIdAndUserUsername(Long id, String username);
 
+    @EntityGraph(attributePaths = "status")
     Optional<Card> findByIdAndUser_UsernameAndStatus_StatusCodeNot(Long id, String username, CardStatusCode status);
+
+    @Query("select c.encryptedNumber from Card c where c.encryptedNumber in :numbers")
+    List<String> findExistingEncryptedNumbers(@Param("numbers") Collection<String> numbers);
+
+    // Locking queries do not fetch associations: FOR UPDATE over a join would also lock
+    // the shared card_statuses / users rows. Statuses are resolved from the persistence context.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Card> findWithLockByIdAndUserUsername(Long id, String username);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Card c where c.id in :ids and c.user.username = :username order by c.id")
+    List<Card> findAllForUpdate(@Param("ids") Collection<Long> ids, @Param("username") String username);
+
+    @Modifying
+    @Query(value = """
+    update cards
+       set balance = balance - :amount,
+           version = version + 1
+     where id = :id
+       and balance >= :amount
+       and user_id = (select u.id from users u where u.username = :username)
+       and status_id = (select s.id from card_statuses s where s.status_code = 'ACTIVE')
+    """, nativeQuery = true)
+    int debitIfSufficient(
+            @Param("id") Long id,
+            @Param("username") String username,
+            @Param("amount") BigDecimal amount
+    );
+
+    @Modifying
+    @Query(value = """
+    update cards
+       set balance = balance + :amount,
+           version = version + 1
+     where id = :id
+       and user_id = (select u.id from users u where u.username = :username)
+       and status_id = (select s.id from card_statuses s where s.status_code = 'ACTIVE')
+    """, nativeQuery = true)
+    int credit(
+            @Param("id") Long id,
+            @Param("username") String username,
+            @Param("amount") BigDecimal amount
+    );
 }
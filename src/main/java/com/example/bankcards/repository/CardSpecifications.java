@@ -0,0 +1,38 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Условия выборки карт для административного списка.
+ *
+ * <p>Статус и владелец сравниваются по внешним ключам
+ * ({@code status_id}, {@code user_id}) без join-ов.</p>
+ */
+@UtilityClass
+public class CardSpecifications {
+
+    public Specification<Card> idAfter(Long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    public Specification<Card> hasStatus(CardStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public Specification<Card> ownedBy(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public Specification<Card> expiresOnOrAfter(LocalDate date) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("expirationDate"), date);
+    }
+
+    public Specification<Card> expiresOnOrBefore(LocalDate date) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("expirationDate"), date);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.LedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    @Query("""
+    select coalesce(sum(e.amount), 0) from LedgerEntry e
+    where e.cardId = :cardId
+      and e.id > :afterEntryId
+    """)
+    BigDecimal sumAfter(@Param("cardId") Long cardId, @Param("afterEntryId") Long afterEntryId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+    insert into ledger_entries (card_id, amount, created_at)
+    select c.id, c.balance, :createdAt
+      from cards c
+     where c.id in (:cardIds)
+    """, nativeQuery = true)
+    int insertOpeningBalances(@Param("cardIds") Collection<Long> cardIds, @Param("createdAt") Instant createdAt);
+}
@@ -0,0 +1,16 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.TransferHistoryBackfill;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TransferHistoryBackfillRepository extends JpaRepository<TransferHistoryBackfill, Integer> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<TransferHistoryBackfill> findWithLockById(Integer id);
+}
@@ -0,0 +1,138 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.TransferHistory;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface TransferHistoryRepository extends JpaRepository<TransferHistory, Long> {
+
+    /**
+     * Добавляет строки истории для переданных переводов: исходящую для владельца
+     * карты-источника и входящую для владельца карты-получателя, если он другой.
+     *
+     * <p>{@code [fromCreatedAt, toCreatedAt]} — границы {@code created_at} этих
+     * переводов: по ним PostgreSQL отбрасывает лишние помесячные секции
+     * {@code transfers}, и поиск по id идёт только в секции текущего месяца.</p>
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+    insert into transfer_history (user_id, transfer_id, direction, from_card_id, to_card_id, amount, created_at)
+    select fc.user_id, t.id, 'OUTGOING', t.from_card_id, t.to_card_id, t.amount, t.created_at
+      from transfers t
+      join cards fc on fc.id = t.from_card_id
+     where t.id in (:transferIds)
+       and t.created_at between :fromCreatedAt and :toCreatedAt
+    union all
+    select tc.user_id, t.id, 'INCOMING', t.from_card_id, t.to_card_id, t.amount, t.created_at
+      from transfers t
+      join cards fc on fc.id = t.from_card_id
+      join cards tc on tc.id = t.to_card_id
+     where t.id in (:transferIds)
+       and t.created_at between :fromCreatedAt and :toCreatedAt
+       and tc.user_id <> fc.user_id
+    on conflict (transfer_id, user_id) do nothing
+    """, nativeQuery = true)
+    int appendForTransfers(
+            @Param("transferIds") Collection<Long> transferIds,
+            @Param("fromCreatedAt") Instant fromCreatedAt,
+            @Param("toCreatedAt") Instant toCreatedAt
+    );
+
+    /**
+     * То же, что {@link #appendForTransfers}, для диапазона id переводов
+     * {@code (afterId, toId]}. Уже существующие строки пропускаются.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+    insert into transfer_history (user_id, transfer_id, direction, from_card_id, to_card_id, amount, created_at)
+    select fc.user_id, t.id, 'OUTGOING', t.from_card_id, t.to_card_id, t.amount, t.created_at
+      from transfers t
+      join cards fc on fc.id = t.from_card_id
+     where t.id > :afterId
+       and t.id <= :toId
+    union all
+    select tc.user_id, t.id, 'INCOMING', t.from_card_id, t.to_card_id, t.amount, t.created_at
+      from transfers t
+      join cards fc on fc.id = t.from_card_id
+      join cards tc on tc.id = t.to_card_id
+     where t.id > :afterId
+       and t.id <= :toId
+       and tc.user_id <> fc.user_id
+    on conflict (transfer_id, user_id) do nothing
+    """, nativeQuery = true)
+    int backfillRange(@Param("afterId") Long afterId, @Param("toId") Long toId);
+
+    /**
+     * Страница истории переводов пользователя, упорядоченная по
+     * {@code (created_at, transfer_id)} по убыванию, строго до переданной позиции.
+     * Выполняется одним диапазонным просмотром индекса
+     * {@code (user_id, created_at, transfer_id)}.
+     */
+    @Query(value = """
+    select h.transfer_id as "id", h.from_card_id as "fromCardId", h.to_card_id as "toCardId",
+           h.amount as "amount", h.created_at as "createdAt", h.direction as "direction"
+      from transfer_history h
+     where h.user_id = (select u.id from users u where u.username = :username)
+       and h.created_at >= :fromDate
+       and (h.created_at, h.transfer_id) < (:beforeCreatedAt, :beforeId)
+       and (:outgoing or h.direction <> 'OUTGOING')
+       and (:incoming or h.direction <> 'INCOMING')
+     order by h.created_at desc, h.transfer_id desc
+     limit :limit
+    """, nativeQuery = true)
+    List<TransferView> findPageByUser(
+            @Param("username") String username,
+            @Param("fromDate") Instant fromDate,
+            @Param("beforeCreatedAt") Instant beforeCreatedAt,
+            @Param("beforeId") Long beforeId,
+            @Param("outgoing") boolean outgoing,
+            @Param("incoming") boolean incoming,
+            @Param("limit") int limit
+    );
+
+    /**
+     * Вся история переводов пользователя за период в хронологическом порядке.
+     *
+     * <p>Результат читается курсором порциями по {@code fetch size} строк,
+     * поэтому метод должен вызываться внутри транзакции, а поток — закрываться
+     * после использования.</p>
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = """
+    select h.transfer_id as "id", h.from_card_id as "fromCardId", h.to_card_id as "toCardId",
+           h.amount as "amount", h.created_at as "createdAt", h.direction as "direction"
+      from transfer_history h
+     where h.user_id = (select u.id from users u where u.username = :username)
+       and h.created_at >= :fromDate
+       and h.created_at < :toDate
+       and (:outgoing or h.direction <> 'OUTGOING')
+       and (:incoming or h.direction <> 'INCOMING')
+     order by h.created_at, h.transfer_id
+    """, nativeQuery = true)
+    Stream<TransferView> streamByUser(
+            @Param("username") String username,
+            @Param("fromDate") Instant fromDate,
+            @Param("toDate") Instant toDate,
+            @Param("outgoing") boolean outgoing,
+            @Param("incoming") boolean incoming
+    );
+}
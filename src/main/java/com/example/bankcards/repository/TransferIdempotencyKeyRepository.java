@@ -0,0 +1,44 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.TransferIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface TransferIdempotencyKeyRepository extends JpaRepository<TransferIdempotencyKey, Long> {
+
+    Optional<TransferIdempotencyKey> findByUsernameAndIdempotencyKey(String username, String idempotencyKey);
+
+    @Modifying
+    @Query(value = """
+    delete from transfer_idempotency_keys
+     where username = :username
+       and idempotency_key = :idempotencyKey
+       and created_at < :cutoff
+    """, nativeQuery = true)
+    int deleteExpired(
+            @Param("username") String username,
+            @Param("idempotencyKey") String idempotencyKey,
+            @Param("cutoff") Instant cutoff
+    );
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+    delete from transfer_idempotency_keys
+     where id in (
+           select id from transfer_idempotency_keys
+            where created_at < :cutoff
+            order by id
+            limit :limit
+     )
+    """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
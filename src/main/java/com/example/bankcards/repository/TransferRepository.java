@@ -3,18 +3,11 @@ package com.example.bankcards.repository;
 import com.example.bankcards.entity.Transfer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-
 @Repository
 public interface TransferRepository extends JpaRepository<Transfer, Long> {
 
-    @Query("""
-    select t from Transfer t
-    where t.from.user.username = :username
-       or t.to.user.username = :username
-    """)
-    List<Transfer> findAllByUser(@Param("username") String username);
-}
\ No newline at end of file
+    @Query("select coalesce(max(t.id), 0) from Transfer t")
+    Long findMaxId();
+}
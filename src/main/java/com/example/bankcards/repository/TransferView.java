@@ -0,0 +1,24 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.enums.TransferDirection;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Строка истории переводов пользователя с уже вычисленным направлением.
+ */
+public interface TransferView {
+
+    Long getId();
+
+    Long getFromCardId();
+
+    Long getToCardId();
+
+    BigDecimal getAmount();
+
+    Instant getCreatedAt();
+
+    TransferDirection getDirection();
+}
@@ -2,11 +2,23 @@ package com.example.bankcards.repository;
 
 import com.example.bankcards.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
+
     Optional<User> findByUsername(String username);
+
+    List<UserTokenVersionView> findByTokenVersionGreaterThan(int tokenVersion);
+
+    List<UserTokenVersionView> findByTokenVersionUpdatedAtGreaterThanEqual(Instant since);
+
+    @Query("select u.id from User u where u.enabled = false")
+    List<Long> findDisabledUserIds();
 }
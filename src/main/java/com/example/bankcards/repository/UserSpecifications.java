@@ -0,0 +1,24 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.User;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Условия выборки пользователей для административного списка.
+ */
+@UtilityClass
+public class UserSpecifications {
+
+    public Specification<User> idAfter(Long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    public Specification<User> enabled(boolean enabled) {
+        return (root, query, cb) -> cb.equal(root.get("enabled"), enabled);
+    }
+
+    public Specification<User> hasRole(String role) {
+        return (root, query, cb) -> cb.equal(root.get("role").get("title"), role);
+    }
+}
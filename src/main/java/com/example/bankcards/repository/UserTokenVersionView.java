@@ -0,0 +1,11 @@
+package com.example.bankcards.repository;
+
+/**
+ * Текущая версия токенов пользователя.
+ */
+public interface UserTokenVersionView {
+
+    Long getId();
+
+    int getTokenVersion();
+}
@@ -0,0 +1,121 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.exception.ServiceUnavailableException;
+import com.example.bankcards.util.RetryAfterUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link PasswordEncoder}, выполняющий хэширование и проверку паролей
+ * в отдельном ограниченном пуле потоков.
+ *
+ * <p>BCrypt нагружает процессор, поэтому при массовом входе (например,
+ * после сбоя) проверка паролей на потоках Tomcat вытесняла бы остальные
+ * запросы. Пул содержит {@code app.password-hashing.threads} потоков
+ * (по умолчанию — число ядер) и очередь на
+ * {@code app.password-hashing.queue-capacity} задач; когда очередь
+ * заполнена, запрос сразу отклоняется с кодом 503 и заголовком
+ * {@code Retry-After} — оценкой времени, за которое пул разберёт очередь.
+ * В тот же пул попадает и {@link #encode}, поэтому сообщение об ошибке
+ * не упоминает вход: при перегрузке отказ получит и создание пользователя.</p>
+ *
+ * <p>Глубина очереди, время хэширования и число отклонённых запросов
+ * публикуются как метрики {@code auth.password.*}.</p>
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final int poolSize;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        this.delegate = delegate;
+        this.poolSize = poolSize;
+        this.executor = new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hash-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.hashTimer = Timer.builder("auth.password.hash")
+                .description("Time spent hashing or verifying a password")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.rejected")
+                .description("Password checks rejected because the hashing queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.queue.size", executor.getQueue(), BlockingQueue::size)
+                .description("Password checks waiting for a hashing thread")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Supplier<T> task) {
+        Future<T> future;
+
+        try {
+            future = executor.submit(() -> hashTimer.record(task));
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Password hashing is overloaded, please retry later", retryAfterSeconds());
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password check", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password check failed", ex.getCause());
+        }
+    }
+
+    // время, за которое пул разберёт текущую очередь при среднем времени хэширования
+    private long retryAfterSeconds() {
+        double drainNanos = executor.getQueue().size() * hashTimer.mean(TimeUnit.NANOSECONDS) / poolSize;
+        return RetryAfterUtil.toSeconds((long) drainNanos);
+    }
+}
@@ -2,11 +2,21 @@ package com.example.bankcards.security;
 
 import com.example.bankcards.entity.User;
 import com.example.bankcards.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
 
 /**
  * Реализация {@link UserDetailsService} для интеграции с Spring Security.
@@ -20,23 +30,83 @@ import org.springframework.stereotype.Service;
  *     <li>флаг активности пользователя ({@code enabled});</li>
  *     <li>роль пользователя, используемая для авторизации.</li>
  * </ul>
+ *
+ * <p>Используется при входе по логину и паролю: запросы с JWT
+ * аутентифицируются по claims токена без обращения к этому сервису.</p>
+ *
+ * <p>Загруженные пользователи кэшируются (Caffeine, размер
+ * {@code app.user-cache.max-size}, время жизни {@code app.user-cache.ttl}),
+ * поэтому повторный вход обычно не обращается к БД. При изменении
+ * пользователя запись удаляется из кэша через {@link #evict(String)}.
+ * Статистика кэша публикуется как метрики {@code cache.*} с тегом
+ * {@code cache=users}.</p>
  */
 @Service
-@RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, SecurityUser> users;
+
+    public CustomUserDetailsService(
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.user-cache.max-size}") long maxSize,
+            @Value("${app.user-cache.ttl}") long ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .disabled(!user.isEnabled())
-                .roles(user.getRole().getTitle())
-                .build();
+        SecurityUser cached = users.get(username, this::load);
+
+        // AuthenticationManager стирает пароль у возвращённого объекта,
+        // поэтому наружу отдаётся копия, а не экземпляр из кэша
+        return new SecurityUser(cached);
+    }
+
+    /**
+     * Удаляет пользователя из кэша. Внутри транзакции запись удаляется
+     * повторно после её завершения, чтобы параллельный запрос
+     * не закэшировал состояние, прочитанное до фиксации изменений.
+     */
+    public void evict(String username) {
+        users.invalidate(username);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    users.invalidate(username);
+                }
+            });
+        }
+    }
+
+    private SecurityUser load(String username) {
+        return transactionTemplate.execute(status -> {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+
+            return new SecurityUser(
+                    user.getId(),
+                    user.getUsername(),
+                    user.getPassword(),
+                    user.isEnabled(),
+                    user.getRole().getTitle(),
+                    user.getTokenVersion()
+            );
+        });
     }
 }
@@ -1,5 +1,6 @@
 package com.example.bankcards.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,20 +8,30 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static com.example.bankcards.security.JwtTokenProvider.ROLE_CLAIM;
+import static com.example.bankcards.security.JwtTokenProvider.TOKEN_VERSION_CLAIM;
+import static com.example.bankcards.security.JwtTokenProvider.USER_ID_CLAIM;
 
 /**
  * JWT-фильтр аутентификации, обрабатывающий каждый HTTP-запрос.
  *
  * <p>Извлекает JWT-токен из заголовка {@code Authorization},
- * валидирует его и, при успешной проверке, устанавливает
+ * проверяет его один раз и, при успешной проверке, устанавливает
  * {@link org.springframework.security.core.Authentication}
  * в {@link SecurityContextHolder}.</p>
  *
+ * <p>Имя и роль пользователя берутся из claims токена, поэтому
+ * аутентификация не обращается к БД. Не принимаются токены с устаревшей
+ * версией ({@link TokenVersionRegistry}), отозванные токены и токены
+ * заблокированных пользователей ({@link RevocationRegistry}).</p>
+ *
  * <p>Фильтр не блокирует запросы без токена и передаёт
  * управление дальше по цепочке фильтров.</p>
  */
@@ -29,7 +40,8 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
-    private final CustomUserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final RevocationRegistry revocationRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -43,15 +55,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (header != null && header.startsWith("Bearer ")) {
             String token = header.substring(7);
 
-            if (tokenProvider.validateToken(token)) {
-                String username = tokenProvider.getUsername(token);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Optional<Claims> claims = tokenProvider.parse(token);
 
+            if (claims.isPresent() && isCurrent(claims.get())) {
                 UsernamePasswordAuthenticationToken auth =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails,
+                                claims.get().getSubject(),
                                 null,
-                                userDetails.getAuthorities()
+                                List.of(SecurityUser.authority(claims.get().get(ROLE_CLAIM, String.class)))
                         );
 
                 SecurityContextHolder.getContext().setAuthentication(auth);
@@ -60,4 +71,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    private boolean isCurrent(Claims claims) {
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+
+        return claims.get(ROLE_CLAIM, String.class) != null
+                && !revocationRegistry.isRevoked(userId, claims.getId())
+                && tokenVersionRegistry.isCurrent(userId, claims.get(TOKEN_VERSION_CLAIM, Integer.class));
+    }
 }
@@ -1,75 +1,137 @@
 package com.example.bankcards.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Компонент для генерации и валидации JWT-токенов.
  *
  * <p>Отвечает за:</p>
  * <ul>
- *     <li>создание JWT-токена на основе аутентифицированного пользователя;</li>
- *     <li>проверку валидности токена;</li>
- *     <li>извлечение имени пользователя из токена.</li>
+ *     <li>создание JWT-токена на основе аутентифицированного пользователя
+ *     (идентификатор токена, имя, id, роль и версия токенов пользователя);</li>
+ *     <li>проверку подписи и срока действия токена с возвратом его claims.</li>
  * </ul>
  *
  * <p>Токен подписывается симметричным ключом (HMAC),
- * секрет и время жизни токена задаются через конфигурацию приложения.</p>
+ * секрет и время жизни токена задаются через конфигурацию приложения.
+ * Время жизни короткое ({@code security.jwt.expiration}): токен проверяется
+ * без обращения к БД, а длительная сессия продлевается refresh-токеном
+ * ({@link com.example.bankcards.service.RefreshTokenService}).
+ * Ключ и парсер создаются один раз при старте.</p>
+ *
+ * <p>Claims недавно проверенных токенов кэшируются (не более
+ * {@code security.jwt.cache-size} записей, каждая живёт до истечения
+ * срока действия токена), поэтому повторные запросы с тем же токеном
+ * не пересчитывают HMAC. Статистика кэша публикуется как метрики
+ * {@code cache.*} с тегом {@code cache=jwt-claims}.</p>
  */
 @Component
-@RequiredArgsConstructor
 public class JwtTokenProvider {
 
-    @Value("${security.jwt.secret}")
-    private String secret;
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final long expiration;
+    private final Cache<String, Claims> verifiedTokens;
 
-    @Value("${security.jwt.expiration}")
-    private long expiration;
+    public JwtTokenProvider(
+            @Value("${security.jwt.secret}") String secret,
+            @Value("${security.jwt.expiration}") long expiration,
+            @Value("${security.jwt.cache-size}") long cacheSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+        this.expiration = expiration;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new ClaimsExpiry())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt-claims");
+    }
 
-    public String generateToken(Authentication authentication) {
+    public String generateToken(SecurityUser user) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
         return Jwts.builder()
-                .subject(authentication.getName())
+                .id(UUID.randomUUID().toString())
+                .subject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLE_CLAIM, user.getRole())
+                .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion())
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getKey())
+                .signWith(key)
                 .compact();
     }
 
-    public String getUsername(String token) {
-        return parseClaims(token).getSubject();
-    }
+    /**
+     * Проверяет подпись и срок действия токена.
+     *
+     * @return claims токена или пустой результат, если токен недействителен
+     */
+    public Optional<Claims> parse(String token) {
+        Claims claims = verifiedTokens.getIfPresent(token);
+
+        if (claims != null) {
+            return Optional.of(claims);
+        }
 
-    public boolean validateToken(String token) {
         try {
-            parseClaims(token);
-            return true;
+            claims = parser.parseSignedClaims(token).getPayload();
         } catch (JwtException | IllegalArgumentException ex) {
-            return false;
+            return Optional.empty();
         }
-    }
 
-    private Claims parseClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(token, claims);
+        }
+
+        return Optional.of(claims);
     }
 
-    private SecretKey getKey() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
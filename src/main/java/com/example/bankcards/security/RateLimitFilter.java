@@ -0,0 +1,66 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.dto.ErrorResponseDto;
+import com.example.bankcards.util.RetryAfterUtil;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Фильтр, отклоняющий запросы сверх лимитов {@link RateLimiter}.
+ *
+ * <p>Отклонённый запрос получает ответ {@code 429 Too Many Requests}
+ * с заголовком {@code Retry-After} (в секундах) и не доходит до
+ * контроллеров и БД.</p>
+ *
+ * <p>Регистрируется в {@link com.example.bankcards.config.SecurityConfig}
+ * сразу после {@link JwtAuthenticationFilter}, чтобы запросы с токеном
+ * учитывались по пользователю. Фильтр намеренно не объявлен бином:
+ * иначе Spring Boot зарегистрировал бы его ещё и сервлетным фильтром,
+ * срабатывающим до аутентификации.</p>
+ */
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+
+        long wait = rateLimiter.acquire(request);
+
+        if (wait == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(RetryAfterUtil.toSeconds(wait)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponseDto(
+                Instant.now(),
+                status.value(),
+                status.getReasonPhrase(),
+                "Too many requests, please retry later",
+                request.getRequestURI(),
+                null
+        ));
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.bankcards.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограничение частоты запросов к отдельным маршрутам.
+ *
+ * <p>Для каждого маршрута ({@link Route}) ведётся своё ведро токенов на
+ * пользователя (по имени из JWT) или на IP-адрес клиента. Ведро ёмкостью
+ * {@code capacity} пополняется на {@code refillPerMinute} токенов в минуту
+ * и реализовано по алгоритму GCRA: его состояние — одно {@link AtomicLong}
+ * с теоретическим временем прихода следующего запроса, которое обновляется
+ * через CAS без блокировок.</p>
+ *
+ * <p>Вёдра хранятся в кэше не более чем на {@code maxKeys} ключей; ведро,
+ * к которому не обращались {@code idleTimeout} мс, удаляется. Лимиты
+ * действуют в пределах одного экземпляра приложения.</p>
+ */
+public class RateLimiter {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final List<Limit> limits;
+    private final Cache<String, AtomicLong> buckets;
+
+    public RateLimiter(List<Route> routes, long maxKeys, long idleTimeout, MeterRegistry meterRegistry) {
+        this.limits = routes.stream()
+                .map(route -> new Limit(route, meterRegistry))
+                .toList();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Расходует токен из ведра маршрута, которому соответствует запрос.
+     *
+     * @return {@code 0}, если запрос можно выполнить, иначе через сколько
+     *         наносекунд появится свободный токен
+     */
+    public long acquire(HttpServletRequest request) {
+        return acquire(request, System.nanoTime());
+    }
+
+    long acquire(HttpServletRequest request, long now) {
+        PathContainer path = null;
+
+        for (Limit limit : limits) {
+            if (!limit.route.method().matches(request.getMethod())) {
+                continue;
+            }
+
+            if (path == null) {
+                path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+            }
+
+            if (limit.pattern.matches(path)) {
+                long wait = acquire(limit, limit.route.name() + ':' + clientKey(limit.route, request), now);
+                if (wait > 0) {
+                    limit.rejectedCounter.increment();
+                }
+                return wait;
+            }
+        }
+
+        return 0;
+    }
+
+    private long acquire(Limit limit, String key, long now) {
+        AtomicLong arrival = buckets.get(key, k -> new AtomicLong(now));
+
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now);
+
+            // next - now — сколько токенов уже израсходовано, в единицах интервала пополнения
+            if (next - now > limit.burst) {
+                return next - now - limit.burst;
+            }
+
+            if (arrival.compareAndSet(current, next + limit.interval)) {
+                return 0;
+            }
+        }
+    }
+
+    private static String clientKey(Route route, HttpServletRequest request) {
+        if (route.perUser()) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            if (auth != null && auth.isAuthenticated()) {
+                return "user:" + auth.getName();
+            }
+        }
+
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    /**
+     * Лимит для запросов {@code method} к {@code pattern}.
+     *
+     * @param perUser считать запросы по аутентифицированному пользователю,
+     *                а не по IP-адресу
+     */
+    public record Route(
+            String name,
+            HttpMethod method,
+            String pattern,
+            boolean perUser,
+            long capacity,
+            long refillPerMinute
+    ) {
+
+        public Route {
+            if (capacity < 1 || refillPerMinute < 1) {
+                throw new IllegalArgumentException("Rate limit for " + name + " must be positive");
+            }
+        }
+    }
+
+    private static final class Limit {
+
+        private final Route route;
+        private final PathPattern pattern;
+        private final long interval;
+        private final long burst;
+        private final Counter rejectedCounter;
+
+        private Limit(Route route, MeterRegistry meterRegistry) {
+            this.route = route;
+            this.pattern = PathPatternParser.defaultInstance.parse(route.pattern());
+            this.interval = NANOS_PER_MINUTE / route.refillPerMinute();
+            this.burst = (route.capacity() - 1) * interval;
+            this.rejectedCounter = Counter.builder("http.rate_limit.rejected")
+                    .description("Requests rejected by the rate limiter")
+                    .tag("route", route.name())
+                    .register(meterRegistry);
+        }
+    }
+}
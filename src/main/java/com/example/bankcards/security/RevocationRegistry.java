@@ -0,0 +1,190 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.RevokedToken;
+import com.example.bankcards.repository.RevokedTokenRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Заблокированные пользователи и отозванные JWT в памяти приложения.
+ *
+ * <p>Заблокированные пользователи хранятся битовой картой по id,
+ * отозванные токены — по {@code jti} до истечения срока действия
+ * токена, после чего запись удаляется. Обе проверки выполняются
+ * за O(1) без обращения к БД.</p>
+ *
+ * <p>Источник данных — флаг {@code users.enabled} и таблица
+ * {@code revoked_tokens}. При старте состояние загружается полностью,
+ * затем раз в {@code app.revocation.refresh-interval} перечитываются
+ * заблокированные пользователи и новые отозванные токены, поэтому
+ * изменения с других экземпляров приложения тоже применяются.</p>
+ *
+ * <p>Блокировка и разблокировка применяются после фиксации транзакции,
+ * которая их выполнила. Каждое такое изменение получает номер; изменения,
+ * сделанные после начала чтения из БД, накладываются на прочитанное
+ * состояние, чтобы обновление не затёрло их устаревшими данными.</p>
+ */
+@Component
+public class RevocationRegistry {
+
+    private final UserRepository userRepository;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long refreshInterval;
+    private final int cleanupBatchSize;
+    private final Cache<String, Instant> revokedTokens;
+    private final Object refreshLock = new Object();
+
+    // copy-on-write: блокировки редки, проверки выполняются на каждый запрос
+    private volatile BitSet blockedUsers = new BitSet();
+    private Instant lastRefresh = Instant.EPOCH;
+
+    // guarded by this: local changes since the start of the last refresh
+    private long changeSequence;
+    private final Map<Long, LocalChange> localChanges = new HashMap<>();
+
+    public RevocationRegistry(
+            UserRepository userRepository,
+            RevokedTokenRepository revokedTokenRepository,
+            @Value("${app.revocation.refresh-interval}") long refreshInterval,
+            @Value("${app.revocation.cleanup-batch-size}") int cleanupBatchSize
+    ) {
+        this.userRepository = userRepository;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.refreshInterval = refreshInterval;
+        this.cleanupBatchSize = cleanupBatchSize;
+        this.revokedTokens = Caffeine.newBuilder()
+                .expireAfter(new UntilTokenExpires())
+                .build();
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.revocation.refresh-interval}")
+    public void refresh() {
+        // the database is read without holding the registry lock, so block/unblock are not delayed by it
+        synchronized (refreshLock) {
+            Instant now = Instant.now();
+            long readFrom;
+
+            synchronized (this) {
+                readFrom = changeSequence;
+            }
+
+            BitSet blocked = new BitSet();
+            userRepository.findDisabledUserIds().forEach(id -> blocked.set(bitIndex(id)));
+
+            synchronized (this) {
+                // changes committed before the read started are in the database state, later ones go on top
+                localChanges.values().removeIf(change -> change.sequence() <= readFrom);
+                localChanges.forEach((userId, change) -> blocked.set(bitIndex(userId), change.blocked()));
+                blockedUsers = blocked;
+            }
+
+            // перекрытие на интервал обновления: строки, зафиксированные с задержкой, не теряются
+            revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(lastRefresh.minusMillis(refreshInterval), now)
+                    .forEach(token -> revokedTokens.put(token.getTokenId(), token.getExpiresAt()));
+            lastRefresh = now;
+        }
+    }
+
+    public boolean isRevoked(Long userId, String tokenId) {
+        return (userId != null && blockedUsers.get(bitIndex(userId)))
+                || (tokenId != null && revokedTokens.getIfPresent(tokenId) != null);
+    }
+
+    /**
+     * Отмечает пользователя заблокированным; внутри транзакции — после её фиксации.
+     */
+    public void blockUser(Long userId) {
+        afterCommit(() -> apply(userId, true));
+    }
+
+    /**
+     * Снимает блокировку пользователя; внутри транзакции — после её фиксации.
+     */
+    public void unblockUser(Long userId) {
+        afterCommit(() -> apply(userId, false));
+    }
+
+    public void revokeToken(String tokenId, Long userId, Instant expiresAt) {
+        RevokedToken token = new RevokedToken();
+        token.setTokenId(tokenId);
+        token.setUserId(userId);
+        token.setExpiresAt(expiresAt);
+        token.setRevokedAt(Instant.now());
+
+        revokedTokenRepository.save(token);
+        revokedTokens.put(tokenId, expiresAt);
+    }
+
+    @Scheduled(fixedDelayString = "${app.revocation.cleanup-interval}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now();
+        int deleted;
+
+        do {
+            deleted = revokedTokenRepository.deleteExpiredBatch(cutoff, cleanupBatchSize);
+        } while (deleted == cleanupBatchSize);
+    }
+
+    private synchronized void apply(Long userId, boolean blocked) {
+        localChanges.put(userId, new LocalChange(blocked, ++changeSequence));
+
+        BitSet copy = (BitSet) blockedUsers.clone();
+        copy.set(bitIndex(userId), blocked);
+        blockedUsers = copy;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+            return;
+        }
+
+        action.run();
+    }
+
+    // id пользователей выдаются последовательностью и умещаются в int
+    private static int bitIndex(Long userId) {
+        return Math.toIntExact(userId);
+    }
+
+    private record LocalChange(boolean blocked, long sequence) {}
+
+    private static class UntilTokenExpires implements Expiry<String, Instant> {
+
+        @Override
+        public long expireAfterCreate(String tokenId, Instant expiresAt, long currentTime) {
+            long remainingMillis = expiresAt.toEpochMilli() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String tokenId, Instant expiresAt, long currentTime, long currentDuration) {
+            return expireAfterCreate(tokenId, expiresAt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String tokenId, Instant expiresAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
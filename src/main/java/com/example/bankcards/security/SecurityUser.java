@@ -0,0 +1,47 @@
+package com.example.bankcards.security;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+
+/**
+ * Пользователь Spring Security с данными, которые записываются в JWT:
+ * идентификатор, роль и версия токенов.
+ */
+public class SecurityUser extends User {
+
+    private final Long id;
+    private final String role;
+    private final int tokenVersion;
+
+    public SecurityUser(Long id, String username, String password, boolean enabled, String role, int tokenVersion) {
+        super(username, password, enabled, true, true, true, List.of(authority(role)));
+        this.id = id;
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+    }
+
+    /**
+     * Копия, у которой можно стереть пароль, не затрагивая оригинал.
+     */
+    public SecurityUser(SecurityUser other) {
+        this(other.id, other.getUsername(), other.getPassword(), other.isEnabled(), other.role, other.tokenVersion);
+    }
+
+    public static SimpleGrantedAuthority authority(String role) {
+        return new SimpleGrantedAuthority("ROLE_" + role);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+}
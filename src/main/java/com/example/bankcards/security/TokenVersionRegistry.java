@@ -0,0 +1,89 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.UserTokenVersionView;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Актуальные версии JWT пользователей.
+ *
+ * <p>Версия хранится в {@code users.token_version} и записывается в токен
+ * при входе. Токен с версией ниже текущей отклоняется, поэтому увеличение
+ * версии (например, при блокировке) отзывает все выданные пользователю
+ * токены. В памяти хранятся только пользователи с ненулевой версией;
+ * список загружается при старте, затем раз в
+ * {@code app.token-versions.refresh-interval} перечитываются только
+ * пользователи, чья версия изменилась после предыдущего обновления
+ * ({@code users.token_version_updated_at}), чтобы изменения, сделанные
+ * на других экземплярах приложения, тоже применялись.</p>
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+    private final long refreshInterval;
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+
+    // guarded by this; null — полная загрузка ещё не выполнялась
+    private Instant lastRefresh;
+
+    public TokenVersionRegistry(
+            UserRepository userRepository,
+            @Value("${app.token-versions.refresh-interval}") long refreshInterval
+    ) {
+        this.userRepository = userRepository;
+        this.refreshInterval = refreshInterval;
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.token-versions.refresh-interval}")
+    public synchronized void refresh() {
+        Instant now = Instant.now();
+
+        // перекрытие на интервал обновления: строки, зафиксированные с задержкой, не теряются
+        List<UserTokenVersionView> changed = lastRefresh == null
+                ? userRepository.findByTokenVersionGreaterThan(0)
+                : userRepository.findByTokenVersionUpdatedAtGreaterThanEqual(lastRefresh.minusMillis(refreshInterval));
+
+        for (UserTokenVersionView user : changed) {
+            advance(user.getId(), user.getTokenVersion());
+        }
+        lastRefresh = now;
+    }
+
+    public boolean isCurrent(Long userId, Integer tokenVersion) {
+        return userId != null
+                && tokenVersion != null
+                && tokenVersion >= versions.getOrDefault(userId, 0);
+    }
+
+    /**
+     * Повышает версию токенов пользователя.
+     *
+     * <p>Внутри транзакции версия применяется только после её фиксации,
+     * чтобы при откате выданные пользователю токены оставались действительными.</p>
+     */
+    public void advance(Long userId, int tokenVersion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.merge(userId, tokenVersion, Math::max);
+                }
+            });
+            return;
+        }
+
+        versions.merge(userId, tokenVersion, Math::max);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.util.TransferValidationUtil;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Базовый класс стратегий изменения баланса.
+ *
+ * <p>Содержит общие для всех стратегий проверки карт,
+ * сохранение записи о переводе, его проводок в журнале и строк истории.</p>
+ */
+public abstract class AbstractBalanceUpdateStrategy implements BalanceUpdateStrategy {
+
+    protected final CardRepository cardRepository;
+    protected final TransferRepository transferRepository;
+    protected final LedgerService ledgerService;
+    protected final TransferHistoryService transferHistoryService;
+    protected final TransactionTemplate transactionTemplate;
+
+    protected AbstractBalanceUpdateStrategy(
+            CardRepository cardRepository,
+            TransferRepository transferRepository,
+            LedgerService ledgerService,
+            TransferHistoryService transferHistoryService,
+            TransactionTemplate transactionTemplate
+    ) {
+        this.cardRepository = cardRepository;
+        this.transferRepository = transferRepository;
+        this.ledgerService = ledgerService;
+        this.transferHistoryService = transferHistoryService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public Transfer transfer(TransferRequestDto request, String username, Consumer<Transfer> onApplied) {
+        return transactionTemplate.execute(status -> {
+            Transfer transfer = apply(request, username);
+            onApplied.accept(transfer);
+            return transfer;
+        });
+    }
+
+    protected void validateCards(Card from, Card to, BigDecimal amount) {
+        TransferValidationUtil.validateCards(from, to, amount);
+    }
+
+    protected Transfer record(Card from, Card to, BigDecimal amount) {
+        Transfer transfer = new Transfer();
+        transfer.setFrom(from);
+        transfer.setTo(to);
+        transfer.setAmount(amount);
+        transfer.setCreatedAt(Instant.now());
+
+        transferRepository.save(transfer);
+        ledgerService.recordTransfer(transfer);
+        transferHistoryService.recordTransfers(List.of(transfer));
+
+        return transfer;
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.AdminCardFilterDto;
 import com.example.bankcards.dto.CardResponseDto;
 import com.example.bankcards.dto.CreateCardRequestDto;
+import com.example.bankcards.dto.CursorPageDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -16,4 +18,6 @@ public interface AdminCardService {
     void delete(Long cardId);
 
     Page<CardResponseDto> getAll(Pageable pageable);
+
+    CursorPageDto<CardResponseDto> scroll(AdminCardFilterDto filter, String cursor, int size);
 }
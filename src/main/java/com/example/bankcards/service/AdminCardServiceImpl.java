@@ -1,30 +1,41 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.AdminCardFilterDto;
 import com.example.bankcards.dto.CardResponseDto;
 import com.example.bankcards.dto.CreateCardRequestDto;
+import com.example.bankcards.dto.CursorPageDto;
 import com.example.bankcards.entity.Card;
-import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.repository.CardRepository;
-import com.example.bankcards.repository.CardStatusRepository;
+import com.example.bankcards.repository.CardSpecifications;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.util.CardCryptoUtil;
 import com.example.bankcards.util.CardMaskUtil;
+import com.example.bankcards.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class AdminCardServiceImpl implements AdminCardService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final CardRepository cardRepository;
     private final UserRepository userRepository;
-    private final CardStatusRepository cardStatusRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final LedgerService ledgerService;
 
     @Override
     @Transactional
@@ -33,20 +44,17 @@ public class AdminCardServiceImpl implements AdminCardService {
         User user = userRepository.findById(dto.userId())
                 .orElseThrow(() -> new NotFoundException("User not found"));
 
-        CardStatus activeStatus = cardStatusRepository
-                .findByStatusCode(CardStatusCode.ACTIVE)
-                .orElseThrow();
-
         Card card = new Card();
         card.setUser(user);
         card.setOwnerName(dto.ownerName());
         card.setExpirationDate(dto.expirationDate());
         card.setBalance(dto.balance());
-        card.setStatus(activeStatus);
+        card.setStatus(referenceDataRegistry.cardStatus(CardStatusCode.ACTIVE));
         card.setEncryptedNumber(CardCryptoUtil.encrypt(dto.cardNumber()));
         card.setMaskedNumber(CardMaskUtil.mask(dto.cardNumber()));
 
         cardRepository.save(card);
+        ledgerService.recordOpeningBalance(card);
 
         return mapToDto(card);
     }
@@ -55,33 +63,21 @@ public class AdminCardServiceImpl implements AdminCardService {
     @Transactional
     public void block(Long cardId) {
         Card card = getCard(cardId);
-        CardStatus blockedStatus = cardStatusRepository
-                .findByStatusCode(CardStatusCode.BLOCKED)
-                .orElseThrow(() -> new IllegalStateException("BLOCKED status not found"));
-        card.setStatus(blockedStatus);
+        card.setStatus(referenceDataRegistry.cardStatus(CardStatusCode.BLOCKED));
     }
 
     @Override
     @Transactional
     public void activate(Long cardId) {
         Card card = getCard(cardId);
-        CardStatus activeStatus = cardStatusRepository
-                .findByStatusCode(CardStatusCode.ACTIVE)
-                .orElseThrow(() -> new IllegalStateException("ACTIVE status not found"));
-
-        card.setStatus(activeStatus);
+        card.setStatus(referenceDataRegistry.cardStatus(CardStatusCode.ACTIVE));
     }
 
     @Override
     @Transactional
     public void delete(Long cardId) {
         Card card = getCard(cardId);
-
-        CardStatus closedStatus = cardStatusRepository
-                .findByStatusCode(CardStatusCode.CLOSED)
-                .orElseThrow(() -> new IllegalStateException("CLOSED status not found"));
-
-        card.setStatus(closedStatus);
+        card.setStatus(referenceDataRegistry.cardStatus(CardStatusCode.CLOSED));
     }
 
     @Override
@@ -91,6 +87,45 @@ public class AdminCardServiceImpl implements AdminCardService {
                 .map(this::mapToDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<CardResponseDto> scroll(AdminCardFilterDto filter, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        List<Specification<Card>> conditions = new ArrayList<>();
+        conditions.add(CardSpecifications.idAfter(cursor != null ? CursorUtil.decodeId(cursor) : 0L));
+
+        if (filter.status() != null) {
+            conditions.add(CardSpecifications.hasStatus(referenceDataRegistry.cardStatus(filter.status())));
+        }
+        if (filter.userId() != null) {
+            conditions.add(CardSpecifications.ownedBy(filter.userId()));
+        }
+        if (filter.expiresFrom() != null) {
+            conditions.add(CardSpecifications.expiresOnOrAfter(filter.expiresFrom()));
+        }
+        if (filter.expiresTo() != null) {
+            conditions.add(CardSpecifications.expiresOnOrBefore(filter.expiresTo()));
+        }
+
+        // no count query: one extra row tells whether there is a next page
+        List<Card> rows = cardRepository.findBy(Specification.allOf(conditions), query -> query
+                .project("status")
+                .sortBy(Sort.by("id"))
+                .limit(size + 1)
+                .all());
+
+        boolean hasNext = rows.size() > size;
+        List<Card> page = hasNext ? rows.subList(0, size) : rows;
+
+        return new CursorPageDto<>(
+                page.stream().map(this::mapToDto).toList(),
+                hasNext ? CursorUtil.encodeId(page.getLast().getId()) : null
+        );
+    }
+
     private Card getCard(Long cardId) {
         return cardRepository
                 .findById(cardId)
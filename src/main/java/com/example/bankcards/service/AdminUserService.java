@@ -1,5 +1,7 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.AdminUserFilterDto;
+import com.example.bankcards.dto.CursorPageDto;
 import com.example.bankcards.dto.UserResponseDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -9,6 +11,8 @@ public interface AdminUserService {
 
     Page<UserResponseDto> getAll(Pageable pageable);
 
+    CursorPageDto<UserResponseDto> scroll(AdminUserFilterDto filter, String cursor, int size);
+
     void block(Long userId, Authentication authentication);
 
     void unblock(Long userId, Authentication authentication);
@@ -1,23 +1,42 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.AdminUserFilterDto;
+import com.example.bankcards.dto.CursorPageDto;
 import com.example.bankcards.dto.UserResponseDto;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.ConflictException;
 import com.example.bankcards.exception.ForbiddenException;
 import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.UserSpecifications;
+import com.example.bankcards.security.CustomUserDetailsService;
+import com.example.bankcards.security.RevocationRegistry;
+import com.example.bankcards.security.TokenVersionRegistry;
+import com.example.bankcards.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class AdminUserServiceImpl implements AdminUserService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
+    private final CustomUserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final RevocationRegistry revocationRegistry;
 
     @Override
     @Transactional(readOnly = true)
@@ -26,6 +45,38 @@ public class AdminUserServiceImpl implements AdminUserService {
                 .map(this::mapToDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<UserResponseDto> scroll(AdminUserFilterDto filter, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        List<Specification<User>> conditions = new ArrayList<>();
+        conditions.add(UserSpecifications.idAfter(cursor != null ? CursorUtil.decodeId(cursor) : 0L));
+
+        if (filter.enabled() != null) {
+            conditions.add(UserSpecifications.enabled(filter.enabled()));
+        }
+        if (filter.role() != null) {
+            conditions.add(UserSpecifications.hasRole(filter.role()));
+        }
+
+        // no count query: one extra row tells whether there is a next page
+        List<User> rows = userRepository.findBy(Specification.allOf(conditions), query -> query
+                .sortBy(Sort.by("id"))
+                .limit(size + 1)
+                .all());
+
+        boolean hasNext = rows.size() > size;
+        List<User> page = hasNext ? rows.subList(0, size) : rows;
+
+        return new CursorPageDto<>(
+                page.stream().map(this::mapToDto).toList(),
+                hasNext ? CursorUtil.encodeId(page.getLast().getId()) : null
+        );
+    }
+
     @Override
     @Transactional
     public void block(Long userId, Authentication authentication) {
@@ -48,6 +99,11 @@ public class AdminUserServiceImpl implements AdminUserService {
         }
 
         targetUser.setEnabled(false);
+        targetUser.setTokenVersion(targetUser.getTokenVersion() + 1);
+        targetUser.setTokenVersionUpdatedAt(Instant.now());
+        tokenVersionRegistry.advance(targetUser.getId(), targetUser.getTokenVersion());
+        revocationRegistry.blockUser(targetUser.getId());
+        userDetailsService.evict(targetUser.getUsername());
     }
 
     @Override
@@ -72,6 +128,8 @@ public class AdminUserServiceImpl implements AdminUserService {
         }
 
         targetUser.setEnabled(true);
+        revocationRegistry.unblockUser(targetUser.getId());
+        userDetailsService.evict(targetUser.getUsername());
     }
 
     private User getUser(Long id) {
@@ -0,0 +1,214 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.ReadYourWritesTracker;
+import com.example.bankcards.dto.AsyncTransferResponseDto;
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.dto.TransferResponseDto;
+import com.example.bankcards.enums.AsyncTransferStatus;
+import com.example.bankcards.exception.ApiException;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.exception.ServiceUnavailableException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Асинхронное выполнение переводов.
+ *
+ * <p>Запрос проверяется, помещается в ограниченную очередь и сразу получает
+ * идентификатор, а HTTP-поток освобождается без ожидания транзакции.
+ * Очередь разбирается фиксированным числом воркеров на виртуальных потоках,
+ * каждый из которых выполняет перевод через {@link TransferService}.
+ * Число воркеров ограничивает и число одновременно занятых соединений с БД.</p>
+ *
+ * <p>При переполнении очереди запрос отклоняется с кодом 503.
+ * Статусы последних переводов хранятся в памяти приложения
+ * ({@code app.transfer.async.status-cache-size}).</p>
+ *
+ * <p>Глубина очереди, время ожидания в очереди и время до завершения
+ * перевода публикуются как метрики {@code transfer.async.*}.</p>
+ *
+ * <p>Воркеры работают без контекста безопасности, поэтому после успешного
+ * перевода его автор явно отмечается в {@link ReadYourWritesTracker}
+ * (если чтение с реплики включено): статус {@code COMPLETED} и следующие
+ * чтения пользователя видят перевод.</p>
+ */
+@Slf4j
+@Service
+public class AsyncTransferService {
+
+    private final TransferService transferService;
+    private final TransferIdempotencyService idempotencyService;
+    private final ReadYourWritesTracker readYourWrites;
+    private final BlockingQueue<Job> queue;
+    private final Cache<UUID, Job> jobs;
+    private final int workerCount;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final Timer waitTimer;
+    private final Timer completedTimer;
+    private final Timer failedTimer;
+    private final Counter rejectedCounter;
+
+    public AsyncTransferService(
+            TransferService transferService,
+            TransferIdempotencyService idempotencyService,
+            ObjectProvider<ReadYourWritesTracker> readYourWrites,
+            @Value("${app.transfer.async.queue-capacity}") int queueCapacity,
+            @Value("${app.transfer.async.workers}") int workerCount,
+            @Value("${app.transfer.async.status-cache-size}") int statusCacheSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.transferService = transferService;
+        this.idempotencyService = idempotencyService;
+        this.readYourWrites = readYourWrites.getIfAvailable();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.jobs = Caffeine.newBuilder()
+                .maximumSize(statusCacheSize)
+                .build();
+        this.workerCount = workerCount;
+
+        this.waitTimer = Timer.builder("transfer.async.wait")
+                .description("Time async transfers spend in the queue")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.completedTimer = completionTimer(meterRegistry, "completed");
+        this.failedTimer = completionTimer(meterRegistry, "failed");
+        this.rejectedCounter = Counter.builder("transfer.async.rejected")
+                .description("Async transfers rejected because the queue was full")
+                .register(meterRegistry);
+        Gauge.builder("transfer.async.queue.size", queue, BlockingQueue::size)
+                .description("Async transfers waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(Thread.ofVirtual()
+                    .name("transfer-worker-" + i)
+                    .start(this::drain));
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.forEach(Thread::interrupt);
+        workers.clear();
+    }
+
+    public AsyncTransferResponseDto submit(
+            TransferRequestDto request,
+            String idempotencyKey,
+            Authentication authentication
+    ) {
+        if (idempotencyKey != null) {
+            idempotencyService.validateKey(idempotencyKey);
+        }
+
+        if (request.fromCardId().equals(request.toCardId())) {
+            throw new BadRequestException("Cannot transfer money to the same card");
+        }
+
+        Job job = new Job(UUID.randomUUID(), request, idempotencyKey, authentication);
+
+        jobs.put(job.id, job);
+        if (!queue.offer(job)) {
+            jobs.invalidate(job.id);
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException("Transfer queue is full, please retry later");
+        }
+
+        return job.state;
+    }
+
+    public AsyncTransferResponseDto getStatus(UUID id, Authentication authentication) {
+        Job job = jobs.getIfPresent(id);
+
+        if (job == null || !job.authentication.getName().equals(authentication.getName())) {
+            throw new NotFoundException("Transfer not found");
+        }
+
+        return job.state;
+    }
+
+    private void drain() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Job job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException ex) {
+                return;
+            }
+            process(job);
+        }
+    }
+
+    private void process(Job job) {
+        waitTimer.record(System.nanoTime() - job.submittedAt, TimeUnit.NANOSECONDS);
+        job.state = new AsyncTransferResponseDto(job.id, AsyncTransferStatus.PROCESSING, null, null);
+
+        try {
+            TransferResponseDto transfer = transferService.transfer(job.request, job.idempotencyKey, job.authentication);
+            if (readYourWrites != null) {
+                readYourWrites.markWrite(job.authentication.getName());
+            }
+            job.state = new AsyncTransferResponseDto(job.id, AsyncTransferStatus.COMPLETED, transfer, null);
+            completedTimer.record(System.nanoTime() - job.submittedAt, TimeUnit.NANOSECONDS);
+        } catch (ApiException ex) {
+            fail(job, ex.getMessage());
+        } catch (RuntimeException ex) {
+            log.error("Async transfer {} failed", job.id, ex);
+            fail(job, "Unexpected error");
+        }
+    }
+
+    private void fail(Job job, String error) {
+        job.state = new AsyncTransferResponseDto(job.id, AsyncTransferStatus.FAILED, null, error);
+        failedTimer.record(System.nanoTime() - job.submittedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer completionTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("transfer.async.latency")
+                .description("Time from async transfer submission to its completion")
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static final class Job {
+
+        private final UUID id;
+        private final TransferRequestDto request;
+        private final String idempotencyKey;
+        private final Authentication authentication;
+        private final long submittedAt = System.nanoTime();
+        private volatile AsyncTransferResponseDto state;
+
+        private Job(UUID id, TransferRequestDto request, String idempotencyKey, Authentication authentication) {
+            this.id = id;
+            this.request = request;
+            this.idempotencyKey = idempotencyKey;
+            this.authentication = authentication;
+            this.state = new AsyncTransferResponseDto(id, AsyncTransferStatus.QUEUED, null, null);
+        }
+    }
+}
@@ -2,9 +2,13 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.dto.JwtResponseDto;
 import com.example.bankcards.dto.LoginRequestDto;
+import com.example.bankcards.dto.RefreshTokenRequestDto;
 import com.example.bankcards.exception.ForbiddenException;
 import com.example.bankcards.exception.UnauthorizedException;
 import com.example.bankcards.security.JwtTokenProvider;
+import com.example.bankcards.security.RevocationRegistry;
+import com.example.bankcards.security.SecurityUser;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -13,12 +17,16 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final RevocationRegistry revocationRegistry;
+    private final RefreshTokenService refreshTokenService;
 
     public JwtResponseDto login(LoginRequestDto request) {
         try {
@@ -29,8 +37,12 @@ public class AuthService {
                     )
             );
 
-            String token = jwtTokenProvider.generateToken(authentication);
-            return new JwtResponseDto(token);
+            SecurityUser user = (SecurityUser) authentication.getPrincipal();
+
+            return new JwtResponseDto(
+                    jwtTokenProvider.generateToken(user),
+                    refreshTokenService.issue(user.getId())
+            );
 
         } catch (DisabledException ex) {
             throw new ForbiddenException("User has been blocked");
@@ -39,4 +51,37 @@ public class AuthService {
             throw new UnauthorizedException("Invalid username or password");
         }
     }
+
+    public JwtResponseDto refresh(RefreshTokenRequestDto request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.refreshToken());
+
+        return new JwtResponseDto(
+                jwtTokenProvider.generateToken(rotation.user()),
+                rotation.refreshToken()
+        );
+    }
+
+    /**
+     * Отзывает предъявленный access-токен и цепочку refresh-токенов.
+     * Refresh-токен можно отозвать и с уже истёкшим access-токеном.
+     */
+    public void logout(String authorizationHeader, RefreshTokenRequestDto request) {
+        Optional<Claims> claims = authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                ? jwtTokenProvider.parse(authorizationHeader.substring(7))
+                : Optional.empty();
+
+        if (claims.isEmpty() && request == null) {
+            throw new UnauthorizedException("Invalid token");
+        }
+
+        claims.ifPresent(token -> revocationRegistry.revokeToken(
+                token.getId(),
+                token.get(JwtTokenProvider.USER_ID_CLAIM, Long.class),
+                token.getExpiration().toInstant()
+        ));
+
+        if (request != null) {
+            refreshTokenService.revoke(request.refreshToken());
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.entity.Transfer;
+
+import java.util.function.Consumer;
+
+/**
+ * Стратегия изменения балансов карт при выполнении перевода.
+ *
+ * <p>Каждая реализация самостоятельно открывает транзакцию и гарантирует,
+ * что конкурентные переводы с одной и той же карты не приводят
+ * к потере обновлений баланса.</p>
+ *
+ * <p>Обработчик {@code onApplied} вызывается внутри той же транзакции
+ * после сохранения перевода, что позволяет атомарно записать
+ * связанные с переводом данные.</p>
+ *
+ * <p>Конкретная стратегия выбирается параметром
+ * {@code app.transfer.balance-update-mode}.</p>
+ */
+public interface BalanceUpdateStrategy {
+
+    Transfer transfer(TransferRequestDto request, String username, Consumer<Transfer> onApplied);
+
+    /**
+     * Выполняет перевод в уже открытой вызывающим кодом транзакции,
+     * без собственной транзакции и повторов.
+     */
+    Transfer apply(TransferRequestDto request, String username);
+
+    default Transfer transfer(TransferRequestDto request, String username) {
+        return transfer(request, username, transfer -> {});
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.BulkCardIssueItemResultDto;
+import com.example.bankcards.dto.BulkCardIssueResponseDto;
+import com.example.bankcards.dto.CreateCardRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.enums.ImportFormat;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.CardCryptoUtil;
+import com.example.bankcards.util.CardMaskUtil;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Массовый выпуск карт из загружаемого файла (CSV или NDJSON).
+ *
+ * <p>Файл читается потоком и обрабатывается порциями по
+ * {@code app.card-import.chunk-size} строк, поэтому в памяти
+ * одновременно находится только одна порция и отчёт по строкам.
+ * Разбор, валидация и шифрование номеров выполняются параллельно,
+ * пользователи и уже существующие номера карт проверяются одним
+ * запросом на порцию, а карты и проводки с начальным балансом
+ * вставляются пакетно в отдельной транзакции на порцию.</p>
+ *
+ * <p>Ошибка в строке не прерывает загрузку: для каждой строки
+ * возвращается результат с номером строки файла.</p>
+ */
+@Slf4j
+@Service
+public class BulkCardIssueService {
+
+    static final String CSV_HEADER = "userId,ownerName,cardNumber,expirationDate,balance";
+
+    private final CardRepository cardRepository;
+    private final UserRepository userRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final LedgerService ledgerService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public BulkCardIssueService(
+            CardRepository cardRepository,
+            UserRepository userRepository,
+            ReferenceDataRegistry referenceDataRegistry,
+            LedgerService ledgerService,
+            Validator validator,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.card-import.chunk-size}") int chunkSize
+    ) {
+        this.cardRepository = cardRepository;
+        this.userRepository = userRepository;
+        this.referenceDataRegistry = referenceDataRegistry;
+        this.ledgerService = ledgerService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public BulkCardIssueResponseDto issue(InputStream in, ImportFormat format) {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<BulkCardIssueItemResultDto> results = new ArrayList<>();
+        Set<String> seenNumbers = new HashSet<>();
+        List<Line> chunk = new ArrayList<>(chunkSize);
+
+        try {
+            String text;
+            int number = 0;
+            boolean skipHeader = format == ImportFormat.CSV;
+
+            while ((text = reader.readLine()) != null) {
+                number++;
+
+                if (text.isBlank()) {
+                    continue;
+                }
+
+                if (skipHeader) {
+                    skipHeader = false;
+                    if (text.strip().equalsIgnoreCase(CSV_HEADER)) {
+                        continue;
+                    }
+                }
+
+                chunk.add(new Line(number, text));
+
+                if (chunk.size() == chunkSize) {
+                    results.addAll(processChunk(chunk, format, seenNumbers));
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        if (!chunk.isEmpty()) {
+            results.addAll(processChunk(chunk, format, seenNumbers));
+        }
+
+        int succeeded = (int) results.stream()
+                .filter(BulkCardIssueItemResultDto::success)
+                .count();
+
+        return new BulkCardIssueResponseDto(succeeded, results.size() - succeeded, results);
+    }
+
+    private List<BulkCardIssueItemResultDto> processChunk(List<Line> chunk, ImportFormat format, Set<String> seenNumbers) {
+        List<PreparedRow> rows = chunk.parallelStream()
+                .map(line -> prepare(line, format))
+                .toList();
+
+        Map<Integer, BulkCardIssueItemResultDto> results = new HashMap<>();
+        List<PreparedRow> pending = new ArrayList<>();
+
+        for (PreparedRow row : rows) {
+            if (row.error() != null) {
+                results.put(row.line(), failure(row.line(), row.error()));
+            } else if (!seenNumbers.add(row.encryptedNumber())) {
+                results.put(row.line(), failure(row.line(), "Duplicate card number in upload"));
+            } else {
+                pending.add(row);
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(pending, results));
+            } catch (DataAccessException ex) {
+                log.warn("Bulk card issue chunk starting at line {} was rolled back", pending.getFirst().line(), ex);
+                pending.forEach(row -> results.put(row.line(), failure(row.line(), "Card could not be saved")));
+            }
+        }
+
+        return rows.stream()
+                .map(row -> results.get(row.line()))
+                .toList();
+    }
+
+    private void insert(List<PreparedRow> pending, Map<Integer, BulkCardIssueItemResultDto> results) {
+        Set<String> existingNumbers = new HashSet<>(cardRepository.findExistingEncryptedNumbers(
+                pending.stream().map(PreparedRow::encryptedNumber).toList()
+        ));
+
+        Map<Long, User> users = userRepository.findAllById(
+                pending.stream().map(row -> row.request().userId()).collect(Collectors.toSet())
+        ).stream().collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<PreparedRow> accepted = new ArrayList<>();
+        List<Card> cards = new ArrayList<>();
+
+        for (PreparedRow row : pending) {
+            User user = users.get(row.request().userId());
+
+            if (existingNumbers.contains(row.encryptedNumber())) {
+                results.put(row.line(), failure(row.line(), "Card number already exists"));
+            } else if (user == null) {
+                results.put(row.line(), failure(row.line(), "User not found"));
+            } else {
+                accepted.add(row);
+                cards.add(toCard(row, user));
+            }
+        }
+
+        cardRepository.saveAll(cards);
+        ledgerService.recordOpeningBalances(cards);
+
+        for (int i = 0; i < accepted.size(); i++) {
+            int line = accepted.get(i).line();
+            results.put(line, new BulkCardIssueItemResultDto(line, true, cards.get(i).getId(), null));
+        }
+    }
+
+    private PreparedRow prepare(Line line, ImportFormat format) {
+        CreateCardRequestDto request;
+
+        try {
+            request = format == ImportFormat.CSV
+                    ? parseCsv(line.text())
+                    : objectMapper.readValue(line.text(), CreateCardRequestDto.class);
+        } catch (IllegalArgumentException | DateTimeParseException | JacksonException ex) {
+            return PreparedRow.failed(line.number(), "Malformed row");
+        }
+
+        if (request == null) {
+            return PreparedRow.failed(line.number(), "Malformed row");
+        }
+
+        Set<ConstraintViolation<CreateCardRequestDto>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return PreparedRow.failed(line.number(), violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+
+        return new PreparedRow(
+                line.number(),
+                request,
+                CardCryptoUtil.encrypt(request.cardNumber()),
+                CardMaskUtil.mask(request.cardNumber()),
+                null
+        );
+    }
+
+    private CreateCardRequestDto parseCsv(String text) {
+        String[] fields = text.split(",", -1);
+
+        if (fields.length != 5) {
+            throw new IllegalArgumentException("Expected 5 fields");
+        }
+
+        return new CreateCardRequestDto(
+                Long.valueOf(fields[0].strip()),
+                fields[1].strip(),
+                fields[2].strip(),
+                LocalDate.parse(fields[3].strip()),
+                new BigDecimal(fields[4].strip())
+        );
+    }
+
+    private Card toCard(PreparedRow row, User user) {
+        Card card = new Card();
+        card.setUser(user);
+        card.setOwnerName(row.request().ownerName());
+        card.setExpirationDate(row.request().expirationDate());
+        card.setBalance(row.request().balance());
+        card.setStatus(referenceDataRegistry.cardStatus(CardStatusCode.ACTIVE));
+        card.setEncryptedNumber(row.encryptedNumber());
+        card.setMaskedNumber(row.maskedNumber());
+        return card;
+    }
+
+    private static BulkCardIssueItemResultDto failure(int line, String error) {
+        return new BulkCardIssueItemResultDto(line, false, null, error);
+    }
+
+    private record Line(int number, String text) {}
+
+    private record PreparedRow(
+            int line,
+            CreateCardRequestDto request,
+            String encryptedNumber,
+            String maskedNumber,
+            String error
+    ) {
+        static PreparedRow failed(int line, String error) {
+            return new PreparedRow(line, null, null, null, error);
+        }
+    }
+}
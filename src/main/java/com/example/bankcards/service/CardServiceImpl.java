@@ -3,13 +3,11 @@ package com.example.bankcards.service;
 import com.example.bankcards.dto.BalanceResponseDto;
 import com.example.bankcards.dto.CardResponseDto;
 import com.example.bankcards.entity.Card;
-import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.enums.CardStatusCode;
 import com.example.bankcards.exception.ConflictException;
 import com.example.bankcards.exception.ForbiddenException;
 import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.repository.CardRepository;
-import com.example.bankcards.repository.CardStatusRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -22,13 +20,15 @@ import org.springframework.transaction.annotation.Transactional;
 public class CardServiceImpl implements CardService {
 
     private final CardRepository cardRepository;
-    private final CardStatusRepository cardStatusRepository;
+    private final ReferenceDataRegistry referenceDataRegistry;
+    private final LedgerService ledgerService;
 
     @Override
     @Transactional(readOnly = true)
     public Page<CardResponseDto> getUserCards(Authentication authentication, Pageable pageable) {
         String username = authentication.getName();
-        Page<Card> cards = cardRepository.findAllByUser_UsernameAndStatus_StatusCodeNot(username, CardStatusCode.CLOSED, pageable);
+        Long closed = referenceDataRegistry.cardStatus(CardStatusCode.CLOSED).getId();
+        Page<Card> cards = cardRepository.findAllByUser_UsernameAndStatus_IdNot(username, closed, pageable);
         return cards.map(this::mapToDto);
     }
 
@@ -51,7 +51,7 @@ public class CardServiceImpl implements CardService {
 
         return new BalanceResponseDto(
                 card.getId(),
-                card.getBalance()
+                ledgerService.balanceOf(card.getId())
         );
     }
 
@@ -68,11 +68,7 @@ public class CardServiceImpl implements CardService {
             throw new ConflictException("Expired card cannot be blocked");
         }
 
-        CardStatus blockedStatus = cardStatusRepository
-                .findByStatusCode(CardStatusCode.BLOCKED)
-                .orElseThrow(() -> new IllegalStateException("BLOCKED status not found"));
-
-        card.setStatus(blockedStatus);
+        card.setStatus(referenceDataRegistry.cardStatus(CardStatusCode.BLOCKED));
     }
 
     private Card getUserCard(Long cardId, Authentication authentication) {
@@ -0,0 +1,87 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.exception.ApiException;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+/**
+ * Стратегия с условным обновлением баланса одним SQL-запросом
+ * ({@code UPDATE cards SET balance = balance - ? WHERE id = ? AND balance >= ?}).
+ *
+ * <p>Сущности карт не загружаются: проверка владельца, статуса и достаточности
+ * средств выполняется самой базой данных. Строки обновляются в порядке
+ * возрастания идентификатора карты. Карта загружается только в случае отказа,
+ * чтобы сформировать понятное клиенту сообщение об ошибке.</p>
+ */
+public class ConditionalBalanceUpdateStrategy extends AbstractBalanceUpdateStrategy {
+
+    public ConditionalBalanceUpdateStrategy(
+            CardRepository cardRepository,
+            TransferRepository transferRepository,
+            LedgerService ledgerService,
+            TransferHistoryService transferHistoryService,
+            TransactionTemplate transactionTemplate
+    ) {
+        super(cardRepository, transferRepository, ledgerService, transferHistoryService, transactionTemplate);
+    }
+
+    @Override
+    public Transfer apply(TransferRequestDto request, String username) {
+        if (request.fromCardId() < request.toCardId()) {
+            debit(request, username);
+            credit(request, username);
+        } else {
+            credit(request, username);
+            debit(request, username);
+        }
+
+        return record(
+                cardRepository.getReferenceById(request.fromCardId()),
+                cardRepository.getReferenceById(request.toCardId()),
+                request.amount()
+        );
+    }
+
+    private void debit(TransferRequestDto request, String username) {
+        int updated = cardRepository.debitIfSufficient(request.fromCardId(), username, request.amount());
+
+        if (updated == 0) {
+            throw rejection(request.fromCardId(), username, request.amount(), "Source card not found");
+        }
+    }
+
+    private void credit(TransferRequestDto request, String username) {
+        int updated = cardRepository.credit(request.toCardId(), username, request.amount());
+
+        if (updated == 0) {
+            throw rejection(request.toCardId(), username, null, "Target card not found");
+        }
+    }
+
+    private ApiException rejection(Long cardId, String username, BigDecimal debitAmount, String notFoundMessage) {
+        Card card = cardRepository.findByIdAndUserUsername(cardId, username).orElse(null);
+
+        if (card == null) {
+            return new NotFoundException(notFoundMessage);
+        }
+
+        if (card.getStatus().getStatusCode() != CardStatusCode.ACTIVE) {
+            return new ConflictException("Only ACTIVE cards can be used for transfer");
+        }
+
+        if (debitAmount != null && card.getBalance().compareTo(debitAmount) < 0) {
+            return new ConflictException("Insufficient balance");
+        }
+
+        return new ConflictException("Card balance was changed concurrently, please retry");
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.util.TransferValidationUtil;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Стратегия, в которой баланс карты хранится только в журнале проводок.
+ *
+ * <p>Столбец {@code cards.balance} при переводе не изменяется: перевод
+ * добавляет две проводки в {@code ledger_entries}. Блокируется только строка
+ * карты-источника, чтобы списания с одной карты проверялись на достаточность
+ * средств последовательно; зачисления на популярную карту-получатель
+ * не конкурируют за её строку.</p>
+ *
+ * <p>{@code cards.balance} обновляется периодически из снимков балансов
+ * и используется только для отображения в списках карт.</p>
+ */
+public class LedgerBalanceUpdateStrategy extends AbstractBalanceUpdateStrategy {
+
+    public LedgerBalanceUpdateStrategy(
+            CardRepository cardRepository,
+            TransferRepository transferRepository,
+            LedgerService ledgerService,
+            TransferHistoryService transferHistoryService,
+            TransactionTemplate transactionTemplate
+    ) {
+        super(cardRepository, transferRepository, ledgerService, transferHistoryService, transactionTemplate);
+    }
+
+    @Override
+    public Transfer apply(TransferRequestDto request, String username) {
+        Card from = cardRepository.findWithLockByIdAndUserUsername(request.fromCardId(), username)
+                .orElseThrow(() -> new NotFoundException("Source card not found"));
+
+        Card to = cardRepository.findByIdAndUserUsername(request.toCardId(), username)
+                .orElseThrow(() -> new NotFoundException("Target card not found"));
+
+        TransferValidationUtil.validateStatuses(from, to);
+        TransferValidationUtil.validateBalance(ledgerService.balanceOf(from.getId()), request.amount());
+
+        return record(from, to, request.amount());
+    }
+}
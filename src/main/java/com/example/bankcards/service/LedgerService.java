@@ -0,0 +1,200 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.LedgerEntry;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.enums.BalanceUpdateMode;
+import com.example.bankcards.repository.CardBalanceSnapshotRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Журнал движения средств по картам (double-entry ledger).
+ *
+ * <p>Каждый перевод записывается в {@code ledger_entries} двумя проводками:
+ * списанием с карты-источника и зачислением на карту-получатель. Записи
+ * только добавляются и никогда не изменяются. При выпуске карты
+ * записывается проводка с начальным балансом.</p>
+ *
+ * <p>Баланс карты вычисляется как последний снимок из
+ * {@code card_balance_snapshots} плюс сумма проводок после него.
+ * Снимки периодически сворачивают накопившийся «хвост» журнала,
+ * поэтому чтение баланса не зависит от длины истории.</p>
+ *
+ * <p>Id проводок выдаются до фиксации транзакции, поэтому проводка с меньшим
+ * id может стать видимой позже проводки с большим. Чтобы снимок не пропустил
+ * такую проводку, обновление снимков одним запросом читает границу
+ * {@code max(id)} и {@code xmax} своего снимка PostgreSQL и сворачивает
+ * проводки до границы только после того, как {@code xmin} текущего снимка
+ * дойдёт до этого {@code xmax}: все транзакции, выполнявшиеся при чтении
+ * границы, к этому моменту завершены. Проводки пишутся транзакциями, которые
+ * уже изменили или заблокировали строки карт и переводов, поэтому номер
+ * транзакции (xid) выдаётся им раньше id проводки. Запись в журнал ничем не
+ * блокируется; если граница не стала безопасной за
+ * {@code app.ledger.snapshot-max-wait} мс, она ждёт следующего запуска.</p>
+ */
+@Service
+public class LedgerService {
+
+    private static final String INSERT_ENTRY =
+            "insert into ledger_entries (card_id, transfer_id, amount, created_at) values (?, ?, ?, ?)";
+
+    static final String BOUND_QUERY = """
+            select coalesce(max(id), 0) as last_entry_id,
+                   pg_snapshot_xmax(pg_current_snapshot())::text as xmax
+              from ledger_entries
+            """;
+    static final String VISIBLE_QUERY = "select pg_snapshot_xmin(pg_current_snapshot()) >= cast(? as xid8)";
+
+    private static final long VISIBILITY_POLL_MILLIS = 10;
+
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final CardBalanceSnapshotRepository snapshotRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BalanceUpdateMode mode;
+    private final long snapshotMaxWait;
+
+    private SnapshotBound pendingBound;
+
+    public LedgerService(
+            LedgerEntryRepository ledgerEntryRepository,
+            CardBalanceSnapshotRepository snapshotRepository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.transfer.balance-update-mode}") BalanceUpdateMode mode,
+            @Value("${app.ledger.snapshot-max-wait}") long snapshotMaxWait
+    ) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mode = mode;
+        this.snapshotMaxWait = snapshotMaxWait;
+    }
+
+    public boolean isLedgerMode() {
+        return mode == BalanceUpdateMode.LEDGER;
+    }
+
+    public void recordTransfer(Transfer transfer) {
+        recordTransfers(List.of(transfer));
+    }
+
+    public void recordTransfers(List<Transfer> transfers) {
+        List<LedgerEntry> entries = transfers.stream()
+                .flatMap(transfer -> Stream.of(
+                        entry(transfer.getFrom().getId(), transfer.getId(), transfer.getAmount().negate(), transfer.getCreatedAt()),
+                        entry(transfer.getTo().getId(), transfer.getId(), transfer.getAmount(), transfer.getCreatedAt())
+                ))
+                .toList();
+
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        // pending card and transfer rows go first, so the transaction has its xid before the entry ids
+        ledgerEntryRepository.flush();
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, entries, entries.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getCardId());
+            ps.setObject(2, entry.getTransferId(), Types.BIGINT);
+            ps.setBigDecimal(3, entry.getAmount());
+            ps.setTimestamp(4, Timestamp.from(entry.getCreatedAt()));
+        });
+    }
+
+    public void recordOpeningBalance(Card card) {
+        ledgerEntryRepository.save(entry(card.getId(), null, card.getBalance(), Instant.now()));
+    }
+
+    public void recordOpeningBalances(List<Card> cards) {
+        if (cards.isEmpty()) {
+            return;
+        }
+
+        ledgerEntryRepository.insertOpeningBalances(
+                cards.stream().map(Card::getId).toList(),
+                Instant.now()
+        );
+    }
+
+    public BigDecimal balanceOf(Long cardId) {
+        return snapshotRepository.findById(cardId)
+                .map(snapshot -> snapshot.getBalance()
+                        .add(ledgerEntryRepository.sumAfter(cardId, snapshot.getLastEntryId())))
+                .orElseGet(() -> ledgerEntryRepository.sumAfter(cardId, 0L));
+    }
+
+    @Scheduled(fixedDelayString = "${app.ledger.snapshot-interval}")
+    public synchronized void refreshSnapshots() {
+        SnapshotBound bound = pendingBound != null
+                ? pendingBound
+                : jdbcTemplate.queryForObject(BOUND_QUERY, (rs, rowNum) -> new SnapshotBound(
+                        rs.getLong("last_entry_id"), rs.getString("xmax")
+                ));
+
+        // entries up to the bound may still belong to transactions that were running when it was read
+        if (!awaitFinished(bound.xmax())) {
+            pendingBound = bound;
+            return;
+        }
+        pendingBound = null;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Long fromEntryId = snapshotRepository.findWatermark();
+
+            if (bound.lastEntryId() <= fromEntryId) {
+                return;
+            }
+
+            snapshotRepository.foldEntries(fromEntryId, bound.lastEntryId());
+
+            if (isLedgerMode()) {
+                // cards.balance is not touched by LEDGER transfers, refresh it for card listings
+                snapshotRepository.copyBalancesToCards(fromEntryId);
+            }
+        });
+    }
+
+    private boolean awaitFinished(String xmax) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(snapshotMaxWait);
+
+        while (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(VISIBLE_QUERY, Boolean.class, xmax))) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(VISIBILITY_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private LedgerEntry entry(Long cardId, Long transferId, BigDecimal amount, Instant createdAt) {
+        LedgerEntry entry = new LedgerEntry();
+        entry.setCardId(cardId);
+        entry.setTransferId(transferId);
+        entry.setAmount(amount);
+        entry.setCreatedAt(createdAt);
+        return entry;
+    }
+
+    record SnapshotBound(long lastEntryId, String xmax) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Consumer;
+
+/**
+ * Стратегия с оптимистической блокировкой по полю {@code version} карты.
+ *
+ * <p>Перевод выполняется без блокировок строк; если за время транзакции
+ * одна из карт была изменена другим переводом, транзакция откатывается
+ * и повторяется целиком. Количество попыток ограничено, после их
+ * исчерпания клиент получает {@link ConflictException}.</p>
+ */
+public class OptimisticBalanceUpdateStrategy extends AbstractBalanceUpdateStrategy {
+
+    private final int maxAttempts;
+
+    public OptimisticBalanceUpdateStrategy(
+            CardRepository cardRepository,
+            TransferRepository transferRepository,
+            LedgerService ledgerService,
+            TransferHistoryService transferHistoryService,
+            TransactionTemplate transactionTemplate,
+            int maxAttempts
+    ) {
+        super(cardRepository, transferRepository, ledgerService, transferHistoryService, transactionTemplate);
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    public Transfer transfer(TransferRequestDto request, String username, Consumer<Transfer> onApplied) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return super.transfer(request, username, onApplied);
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    throw new ConflictException("Card balance was changed concurrently, please retry");
+                }
+            }
+        }
+    }
+
+    @Override
+    public Transfer apply(TransferRequestDto request, String username) {
+        Card from = cardRepository.findByIdAndUserUsername(request.fromCardId(), username)
+                .orElseThrow(() -> new NotFoundException("Source card not found"));
+
+        Card to = cardRepository.findByIdAndUserUsername(request.toCardId(), username)
+                .orElseThrow(() -> new NotFoundException("Target card not found"));
+
+        validateCards(from, to, request.amount());
+
+        from.setBalance(from.getBalance().subtract(request.amount()));
+        to.setBalance(to.getBalance().add(request.amount()));
+
+        return record(from, to, request.amount());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Стратегия с пессимистическими блокировками строк карт ({@code SELECT ... FOR UPDATE}).
+ *
+ * <p>Карты всегда блокируются в порядке возрастания идентификатора,
+ * поэтому встречные переводы между одной и той же парой карт
+ * не могут привести к взаимной блокировке.</p>
+ */
+public class PessimisticBalanceUpdateStrategy extends AbstractBalanceUpdateStrategy {
+
+    public PessimisticBalanceUpdateStrategy(
+            CardRepository cardRepository,
+            TransferRepository transferRepository,
+            LedgerService ledgerService,
+            TransferHistoryService transferHistoryService,
+            TransactionTemplate transactionTemplate
+    ) {
+        super(cardRepository, transferRepository, ledgerService, transferHistoryService, transactionTemplate);
+    }
+
+    @Override
+    public Transfer apply(TransferRequestDto request, String username) {
+        Card from;
+        Card to;
+
+        if (request.fromCardId() < request.toCardId()) {
+            from = lockSource(request, username);
+            to = lockTarget(request, username);
+        } else {
+            to = lockTarget(request, username);
+            from = lockSource(request, username);
+        }
+
+        validateCards(from, to, request.amount());
+
+        from.setBalance(from.getBalance().subtract(request.amount()));
+        to.setBalance(to.getBalance().add(request.amount()));
+
+        return record(from, to, request.amount());
+    }
+
+    private Card lockSource(TransferRequestDto request, String username) {
+        return cardRepository.findWithLockByIdAndUserUsername(request.fromCardId(), username)
+                .orElseThrow(() -> new NotFoundException("Source card not found"));
+    }
+
+    private Card lockTarget(TransferRequestDto request, String username) {
+        return cardRepository.findWithLockByIdAndUserUsername(request.toCardId(), username)
+                .orElseThrow(() -> new NotFoundException("Target card not found"));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.repository.CardStatusRepository;
+import com.example.bankcards.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Справочные данные, загружаемые один раз при старте приложения.
+ *
+ * <p>Статусы карт хранятся в {@link EnumMap} по {@link CardStatusCode},
+ * поэтому смена статуса карты не требует запроса к {@code card_statuses}.
+ * Роли загружаются во второй уровень кэша Hibernate: обе сущности
+ * неизменяемы и кэшируются в режиме {@code READ_ONLY}, поэтому роль
+ * пользователя разрешается без обращения к БД.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ReferenceDataRegistry {
+
+    private final CardStatusRepository cardStatusRepository;
+    private final RoleRepository roleRepository;
+
+    private final Map<CardStatusCode, CardStatus> cardStatuses = new EnumMap<>(CardStatusCode.class);
+
+    @PostConstruct
+    public void load() {
+        cardStatusRepository.findAll()
+                .forEach(status -> cardStatuses.put(status.getStatusCode(), status));
+
+        for (CardStatusCode code : CardStatusCode.values()) {
+            if (!cardStatuses.containsKey(code)) {
+                throw new IllegalStateException(code + " status not found");
+            }
+        }
+
+        roleRepository.findAll();
+    }
+
+    public CardStatus cardStatus(CardStatusCode code) {
+        return cardStatuses.get(code);
+    }
+}
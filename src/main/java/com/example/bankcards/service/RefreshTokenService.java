@@ -0,0 +1,150 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.RefreshToken;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.ForbiddenException;
+import com.example.bankcards.exception.UnauthorizedException;
+import com.example.bankcards.repository.RefreshTokenRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.SecurityUser;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Выдача и ротация refresh-токенов.
+ *
+ * <p>Refresh-токен — случайная строка, в таблице {@code refresh_tokens}
+ * хранится только её SHA-256. Каждое обновление выдаёт новый токен той же
+ * цепочки (family), а предъявленный помечается использованным. Повторное
+ * предъявление уже использованного токена означает его утечку, поэтому
+ * вся цепочка удаляется и пользователю придётся войти заново.</p>
+ *
+ * <p>Срок действия задаётся {@code security.jwt.refresh-expiration};
+ * истёкшие токены периодически удаляются пачками.</p>
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
+    private final long refreshExpiration;
+    private final int cleanupBatchSize;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(
+            RefreshTokenRepository refreshTokenRepository,
+            UserRepository userRepository,
+            @Value("${security.jwt.refresh-expiration}") long refreshExpiration,
+            @Value("${app.refresh-tokens.cleanup-batch-size}") int cleanupBatchSize
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+        this.refreshExpiration = refreshExpiration;
+        this.cleanupBatchSize = cleanupBatchSize;
+    }
+
+    @Transactional
+    public String issue(Long userId) {
+        return save(userRepository.getReferenceById(userId), UUID.randomUUID().toString());
+    }
+
+    /**
+     * Обменивает refresh-токен на новый.
+     *
+     * @return новый refresh-токен и пользователь, для которого нужно выдать access-токен
+     */
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken token = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
+
+        if (token.getReplacedAt() != null) {
+            log.warn("Refresh token reuse detected for user {}, revoking token family", token.getUser().getId());
+            refreshTokenRepository.deleteByFamilyId(token.getFamilyId());
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+
+        if (token.getExpiresAt().isBefore(Instant.now())) {
+            throw new UnauthorizedException("Refresh token expired");
+        }
+
+        User user = token.getUser();
+
+        if (!user.isEnabled()) {
+            throw new ForbiddenException("User has been blocked");
+        }
+
+        token.setReplacedAt(Instant.now());
+
+        return new Rotation(
+                new SecurityUser(
+                        user.getId(),
+                        user.getUsername(),
+                        user.getPassword(),
+                        user.isEnabled(),
+                        user.getRole().getTitle(),
+                        user.getTokenVersion()
+                ),
+                save(user, token.getFamilyId())
+        );
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.deleteByFamilyId(token.getFamilyId()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.refresh-tokens.cleanup-interval}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now();
+        int deleted;
+
+        do {
+            deleted = refreshTokenRepository.deleteExpiredBatch(cutoff, cleanupBatchSize);
+        } while (deleted == cleanupBatchSize);
+    }
+
+    private String save(User user, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        Instant now = Instant.now();
+        RefreshToken token = new RefreshToken();
+        token.setUser(user);
+        token.setTokenHash(hash(rawToken));
+        token.setFamilyId(familyId);
+        token.setCreatedAt(now);
+        token.setExpiresAt(now.plusMillis(refreshExpiration));
+        refreshTokenRepository.save(token);
+
+        return rawToken;
+    }
+
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    public record Rotation(SecurityUser user, String refreshToken) {}
+}
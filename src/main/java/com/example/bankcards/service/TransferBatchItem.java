@@ -0,0 +1,8 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+
+public record TransferBatchItem(
+        TransferRequestDto request,
+        String username
+) {}
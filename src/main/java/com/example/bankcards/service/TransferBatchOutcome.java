@@ -0,0 +1,14 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.exception.ApiException;
+
+public record TransferBatchOutcome(
+        Transfer transfer,
+        ApiException error
+) {
+
+    public boolean success() {
+        return error == null;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.exception.ApiException;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.util.TransferValidationUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Применяет набор переводов в рамках одной транзакции.
+ *
+ * <p>Карты, участвующие в наборе, загружаются и блокируются одним запросом
+ * на каждого пользователя набора: запрос выбирает только карты этого пользователя,
+ * поэтому чужие карты не блокируются. Пользователи обходятся в порядке имён,
+ * карты — в порядке возрастания id. Переводы применяются строго в порядке их
+ * следования в наборе, поэтому результат детерминирован. Каждая карта обновляется
+ * в базе данных один раз, а записи о переводах сохраняются пакетно.</p>
+ *
+ * <p>В режиме {@code allOrNothing} первая же ошибка прерывает обработку и
+ * откатывает всю транзакцию; исключение {@link TransferBatchRejectedException}
+ * сообщает индекс отклонённого перевода. Иначе ошибка фиксируется для
+ * конкретного элемента, а остальные переводы продолжают выполняться.</p>
+ *
+ * <p>Набор не использует настроенную {@link BalanceUpdateStrategy}: стратегии
+ * рассчитаны на один перевод в своей транзакции, а набор обновляет каждую карту
+ * один раз за все свои переводы. Блокировка строк здесь совместима с любым
+ * режимом: {@code PESSIMISTIC} и {@code LEDGER} блокируют те же строки,
+ * условный {@code UPDATE} ждёт снятия блокировки, а для {@code OPTIMISTIC}
+ * обновление карты увеличивает её {@code version}. В режиме {@code LEDGER}
+ * доступные средства берутся из журнала проводок, а {@code cards.balance}
+ * не изменяется.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class TransferBatchProcessor {
+
+    private final CardRepository cardRepository;
+    private final TransferRepository transferRepository;
+    private final LedgerService ledgerService;
+    private final TransferHistoryService transferHistoryService;
+
+    @Transactional
+    public List<TransferBatchOutcome> apply(List<TransferBatchItem> items, boolean allOrNothing) {
+        Map<Long, Card> cards = lockCards(items);
+        Map<Long, BigDecimal> balances = availableBalances(cards);
+
+        List<TransferBatchOutcome> outcomes = new ArrayList<>(items.size());
+        List<Transfer> transfers = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            try {
+                Transfer transfer = applyItem(items.get(i), cards, balances);
+                transfers.add(transfer);
+                outcomes.add(new TransferBatchOutcome(transfer, null));
+            } catch (ApiException ex) {
+                if (allOrNothing) {
+                    throw new TransferBatchRejectedException(i, ex);
+                }
+                outcomes.add(new TransferBatchOutcome(null, ex));
+            }
+        }
+
+        transferRepository.saveAll(transfers);
+        ledgerService.recordTransfers(transfers);
+        transferHistoryService.recordTransfers(transfers);
+
+        return outcomes;
+    }
+
+    private Map<Long, Card> lockCards(List<TransferBatchItem> items) {
+        Map<String, Set<Long>> idsByUser = new TreeMap<>();
+
+        for (TransferBatchItem item : items) {
+            Set<Long> ids = idsByUser.computeIfAbsent(item.username(), username -> new TreeSet<>());
+            ids.add(item.request().fromCardId());
+            ids.add(item.request().toCardId());
+        }
+
+        Map<Long, Card> cards = new HashMap<>();
+
+        idsByUser.forEach((username, ids) -> {
+            for (Card card : cardRepository.findAllForUpdate(ids, username)) {
+                cards.put(card.getId(), card);
+            }
+        });
+
+        return cards;
+    }
+
+    private Map<Long, BigDecimal> availableBalances(Map<Long, Card> cards) {
+        Map<Long, BigDecimal> balances = new HashMap<>(cards.size());
+
+        for (Card card : cards.values()) {
+            balances.put(card.getId(), ledgerService.isLedgerMode()
+                    ? ledgerService.balanceOf(card.getId())
+                    : card.getBalance());
+        }
+
+        return balances;
+    }
+
+    private Transfer applyItem(TransferBatchItem item, Map<Long, Card> cards, Map<Long, BigDecimal> balances) {
+        TransferRequestDto request = item.request();
+
+        if (request.fromCardId().equals(request.toCardId())) {
+            throw new BadRequestException("Cannot transfer money to the same card");
+        }
+
+        Card from = ownedCard(cards, request.fromCardId(), item.username(), "Source card not found");
+        Card to = ownedCard(cards, request.toCardId(), item.username(), "Target card not found");
+
+        TransferValidationUtil.validateStatuses(from, to);
+        TransferValidationUtil.validateBalance(balances.get(from.getId()), request.amount());
+
+        balances.merge(from.getId(), request.amount().negate(), BigDecimal::add);
+        balances.merge(to.getId(), request.amount(), BigDecimal::add);
+
+        if (!ledgerService.isLedgerMode()) {
+            from.setBalance(balances.get(from.getId()));
+            to.setBalance(balances.get(to.getId()));
+        }
+
+        Transfer transfer = new Transfer();
+        transfer.setFrom(from);
+        transfer.setTo(to);
+        transfer.setAmount(request.amount());
+        transfer.setCreatedAt(Instant.now());
+
+        return transfer;
+    }
+
+    private Card ownedCard(Map<Long, Card> cards, Long cardId, String username, String notFoundMessage) {
+        Card card = cards.get(cardId);
+
+        if (card == null || !card.getUser().getUsername().equals(username)) {
+            throw new NotFoundException(notFoundMessage);
+        }
+
+        return card;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.exception.ApiException;
+import lombok.Getter;
+
+/**
+ * Отказ набора переводов в режиме «всё или ничего».
+ *
+ * <p>Содержит индекс перевода, на котором обработка была прервана,
+ * и причину отказа. Транзакция набора при этом откатывается целиком.</p>
+ */
+@Getter
+public class TransferBatchRejectedException extends RuntimeException {
+
+    private final int index;
+    private final ApiException error;
+
+    public TransferBatchRejectedException(int index, ApiException error) {
+        super("Transfer " + index + " rejected: " + error.getMessage(), error);
+        this.index = index;
+        this.error = error;
+    }
+}
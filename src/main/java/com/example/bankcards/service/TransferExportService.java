@@ -0,0 +1,98 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferHistoryFilterDto;
+import com.example.bankcards.enums.ExportFormat;
+import com.example.bankcards.repository.TransferHistoryRepository;
+import com.example.bankcards.repository.TransferView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static com.example.bankcards.enums.TransferDirection.INCOMING;
+import static com.example.bankcards.enums.TransferDirection.OUTGOING;
+
+/**
+ * Потоковая выгрузка истории переводов пользователя в NDJSON или CSV.
+ *
+ * <p>Строки читаются из БД курсором и сразу записываются в выходной поток,
+ * поэтому потребление памяти не зависит от длины истории. Сущности
+ * не загружаются: используется проекция {@link TransferView}.</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class TransferExportService {
+
+    private static final Instant MAX_CREATED_AT = Instant.parse("9999-12-31T00:00:00Z");
+    private static final String CSV_HEADER = "id,fromCardId,toCardId,amount,createdAt,direction";
+
+    private final TransferHistoryRepository transferHistoryRepository;
+
+    @Transactional(readOnly = true)
+    public long export(String username, TransferHistoryFilterDto filter, ExportFormat format, OutputStream out) {
+        try (Stream<TransferView> rows = transferHistoryRepository.streamByUser(
+                username,
+                filter.from() != null ? filter.from() : Instant.EPOCH,
+                filter.to() != null ? filter.to() : MAX_CREATED_AT,
+                filter.direction() != INCOMING,
+                filter.direction() != OUTGOING
+        )) {
+            return write(rows, format, out);
+        }
+    }
+
+    long write(Stream<TransferView> rows, ExportFormat format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long[] count = {0};
+
+        try {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            rows.forEach(row -> {
+                try {
+                    writer.write(format == ExportFormat.CSV ? toCsv(row) : toJson(row));
+                    writer.write('\n');
+                    count[0]++;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+
+            writer.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        return count[0];
+    }
+
+    private String toCsv(TransferView row) {
+        return row.getId() + ","
+                + row.getFromCardId() + ","
+                + row.getToCardId() + ","
+                + row.getAmount().toPlainString() + ","
+                + row.getCreatedAt() + ","
+                + row.getDirection();
+    }
+
+    private String toJson(TransferView row) {
+        return "{\"id\":" + row.getId()
+                + ",\"fromCardId\":" + row.getFromCardId()
+                + ",\"toCardId\":" + row.getToCardId()
+                + ",\"amount\":" + row.getAmount().toPlainString()
+                + ",\"createdAt\":\"" + row.getCreatedAt()
+                + "\",\"direction\":\"" + row.getDirection() + "\"}";
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.ReadYourWritesTracker;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.exception.ApiException;
+import com.example.bankcards.exception.ServiceUnavailableException;
+import com.example.bankcards.repository.CardRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Групповая фиксация переводов (group commit).
+ *
+ * <p>Переводы, поступившие в течение окна {@code app.transfer.group-commit.window}
+ * (или до набора {@code max-batch-size} штук), фиксируются одной общей
+ * транзакцией через {@link TransferBatchProcessor}: карты пакета блокируются
+ * вместе, изменения балансов суммируются в памяти и проверяются по
+ * заблокированным строкам, каждая карта обновляется одним {@code UPDATE},
+ * а переводы и их проводки вставляются пакетно. Отклонённый перевод не
+ * затрагивает остальные, каждый вызывающий поток получает свой результат.</p>
+ *
+ * <p>Ошибка SQL прерывает всю транзакцию, поэтому в этом случае пакет
+ * повторяется настроенной {@link BalanceUpdateStrategy} в одной транзакции,
+ * каждый перевод — после своей точки сохранения ({@code SAVEPOINT}). Если
+ * и эта транзакция прерывается, переводы выполняются по одному, каждый в своей
+ * транзакции, и ошибка достаётся только своему переводу. Такие откаты
+ * считаются метрикой {@code transfer.group-commit.fallback}.</p>
+ *
+ * <p>Одновременно фиксируется не более {@code max-in-flight} пакетов; карты
+ * пакета удерживаются в {@link CardLockManager} до фиксации, поэтому пакеты
+ * одного экземпляра не конкурируют за строки. Размер пакетов и время фиксации
+ * публикуются как метрики {@code transfer.group-commit.*}.</p>
+ *
+ * <p>Пакет фиксируется в своём потоке без контекста безопасности, поэтому
+ * авторы зафиксированных переводов явно отмечаются в
+ * {@link ReadYourWritesTracker} (если чтение с реплики включено) до того,
+ * как вызывающие потоки получат результат.</p>
+ */
+@Component
+public class TransferGroupCommitter {
+
+    private final TransferBatchProcessor transferBatchProcessor;
+    private final BalanceUpdateStrategy balanceUpdateStrategy;
+    private final CardRepository cardRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final CardLockManager cardLockManager;
+    private final ReadYourWritesTracker readYourWrites;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<Pending> queue;
+    private final Semaphore inFlight;
+
+    private final DistributionSummary batchSize;
+    private final Timer flushTimer;
+    private final Counter fallbackCounter;
+
+    private Thread dispatcher;
+
+    public TransferGroupCommitter(
+            TransferBatchProcessor transferBatchProcessor,
+            BalanceUpdateStrategy balanceUpdateStrategy,
+            CardRepository cardRepository,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            CardLockManager cardLockManager,
+            ObjectProvider<ReadYourWritesTracker> readYourWrites,
+            @Value("${app.transfer.group-commit.enabled}") boolean enabled,
+            @Value("${app.transfer.group-commit.window}") long window,
+            @Value("${app.transfer.group-commit.max-batch-size}") int maxBatchSize,
+            @Value("${app.transfer.group-commit.max-in-flight}") int maxInFlight,
+            @Value("${app.transfer.group-commit.queue-capacity}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        this.transferBatchProcessor = transferBatchProcessor;
+        this.balanceUpdateStrategy = balanceUpdateStrategy;
+        this.cardRepository = cardRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cardLockManager = cardLockManager;
+        this.readYourWrites = readYourWrites.getIfAvailable();
+        this.enabled = enabled;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(window);
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.inFlight = new Semaphore(maxInFlight);
+
+        this.batchSize = DistributionSummary.builder("transfer.group-commit.batch.size")
+                .description("Transfers committed in one group commit transaction")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("transfer.group-commit.flush")
+                .description("Time to lock cards and commit one group of transfers")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.fallbackCounter = Counter.builder("transfer.group-commit.fallback")
+                .description("Groups re-applied transfer by transfer after a failed statement")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            dispatcher = Thread.ofVirtual()
+                    .name("transfer-group-commit")
+                    .start(this::dispatch);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+            dispatcher = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompletableFuture<TransferBatchOutcome> submit(TransferBatchItem item) {
+        Pending pending = new Pending(item, new CompletableFuture<>());
+
+        if (!queue.offer(pending)) {
+            throw new ServiceUnavailableException("Transfer queue is full, please retry later");
+        }
+
+        return pending.future();
+    }
+
+    /**
+     * Ставит перевод в очередь и ожидает фиксации пакета, в который он попал.
+     */
+    public Transfer transfer(TransferBatchItem item) {
+        TransferBatchOutcome outcome;
+
+        try {
+            outcome = submit(item).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Transfer was interrupted, please retry");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+
+        if (!outcome.success()) {
+            throw outcome.error();
+        }
+
+        return outcome.transfer();
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Pending> batch = new ArrayList<>(maxBatchSize);
+
+            try {
+                batch.add(queue.take());
+
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    Pending next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                inFlight.acquire();
+            } catch (InterruptedException ex) {
+                ServiceUnavailableException error = new ServiceUnavailableException("Transfer service is shutting down");
+                batch.forEach(pending -> pending.future().completeExceptionally(error));
+                return;
+            }
+
+            Thread.ofVirtual()
+                    .name("transfer-group-flush")
+                    .start(() -> {
+                        try {
+                            flush(batch);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        Set<Long> cardIds = new HashSet<>();
+        for (Pending pending : batch) {
+            cardIds.add(pending.item().request().fromCardId());
+            cardIds.add(pending.item().request().toCardId());
+        }
+
+        batchSize.record(batch.size());
+        long start = System.nanoTime();
+
+        try (CardLockManager.Lease ignored = cardLockManager.lock(cardIds)) {
+            List<TransferBatchOutcome> outcomes;
+
+            try {
+                List<TransferBatchItem> items = batch.stream().map(Pending::item).toList();
+                outcomes = transactionTemplate.execute(status -> transferBatchProcessor.apply(items, false));
+            } catch (RuntimeException ex) {
+                // a failed statement aborts the aggregated group: retry it under per-transfer savepoints
+                fallbackCounter.increment();
+                try {
+                    outcomes = transactionTemplate.execute(status -> applyAll(status, batch));
+                } catch (RuntimeException retryEx) {
+                    // the retry was aborted too: apply the transfers one by one
+                    batch.forEach(this::applyAlone);
+                    return;
+                }
+            }
+
+            for (int i = 0; i < batch.size(); i++) {
+                if (outcomes.get(i).success()) {
+                    markWrite(batch.get(i).item());
+                }
+                batch.get(i).future().complete(outcomes.get(i));
+            }
+        } catch (RuntimeException ex) {
+            batch.forEach(pending -> pending.future().completeExceptionally(ex));
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private List<TransferBatchOutcome> applyAll(TransactionStatus status, List<Pending> batch) {
+        List<TransferBatchOutcome> outcomes = new ArrayList<>(batch.size());
+
+        for (Pending pending : batch) {
+            TransferBatchItem item = pending.item();
+            Object savepoint = status.createSavepoint();
+
+            try {
+                Transfer transfer = balanceUpdateStrategy.apply(item.request(), item.username());
+                // flushed per transfer, so a rejected transfer can be cleared from the persistence context alone
+                cardRepository.flush();
+                status.releaseSavepoint(savepoint);
+                outcomes.add(new TransferBatchOutcome(transfer, null));
+            } catch (ApiException ex) {
+                status.rollbackToSavepoint(savepoint);
+                entityManager.clear();
+                outcomes.add(new TransferBatchOutcome(null, ex));
+            }
+        }
+
+        return outcomes;
+    }
+
+    private void applyAlone(Pending pending) {
+        TransferBatchItem item = pending.item();
+
+        try {
+            Transfer transfer = balanceUpdateStrategy.transfer(item.request(), item.username());
+            markWrite(item);
+            pending.future().complete(new TransferBatchOutcome(transfer, null));
+        } catch (ApiException ex) {
+            pending.future().complete(new TransferBatchOutcome(null, ex));
+        } catch (RuntimeException ex) {
+            pending.future().completeExceptionally(ex);
+        }
+    }
+
+    private void markWrite(TransferBatchItem item) {
+        if (readYourWrites != null) {
+            readYourWrites.markWrite(item.username());
+        }
+    }
+
+    private record Pending(
+            TransferBatchItem item,
+            CompletableFuture<TransferBatchOutcome> future
+    ) {}
+}
@@ -0,0 +1,115 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.TransferHistoryBackfill;
+import com.example.bankcards.repository.TransferHistoryBackfillRepository;
+import com.example.bankcards.repository.TransferHistoryRepository;
+import com.example.bankcards.repository.TransferRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Поддержка денормализованной истории переводов ({@code transfer_history}).
+ *
+ * <p>Для каждого перевода хранится строка на каждого участвующего пользователя
+ * с заранее вычисленным направлением. Строки добавляются в той же транзакции,
+ * что и сам перевод, поэтому история пользователя читается одним диапазонным
+ * просмотром индекса {@code (user_id, created_at, transfer_id)}.</p>
+ *
+ * <p>Переводы, выполненные до появления таблицы, переносятся фоновой задачей
+ * порциями по {@code app.transfer-history.backfill-chunk-size} id. Прогресс
+ * хранится в {@code transfer_history_backfill} и сохраняется в одной транзакции
+ * с порцией, поэтому после перезапуска перенос продолжается с того же места,
+ * а блокировка строки прогресса не даёт нескольким экземплярам переносить
+ * порции одновременно. Когда перенос завершён, экземпляр больше не обращается
+ * к БД; задачу можно отключить параметром
+ * {@code app.transfer-history.backfill-enabled}.</p>
+ */
+@Service
+public class TransferHistoryService {
+
+    private final TransferHistoryRepository transferHistoryRepository;
+    private final TransferRepository transferRepository;
+    private final TransferHistoryBackfillRepository backfillRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean backfillEnabled;
+    private final int backfillChunkSize;
+
+    private volatile boolean backfillComplete;
+
+    public TransferHistoryService(
+            TransferHistoryRepository transferHistoryRepository,
+            TransferRepository transferRepository,
+            TransferHistoryBackfillRepository backfillRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.transfer-history.backfill-enabled}") boolean backfillEnabled,
+            @Value("${app.transfer-history.backfill-chunk-size}") int backfillChunkSize
+    ) {
+        this.transferHistoryRepository = transferHistoryRepository;
+        this.transferRepository = transferRepository;
+        this.backfillRepository = backfillRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillEnabled = backfillEnabled;
+        this.backfillChunkSize = backfillChunkSize;
+    }
+
+    public void recordTransfers(List<Transfer> transfers) {
+        if (transfers.isEmpty()) {
+            return;
+        }
+
+        List<Instant> createdAt = transfers.stream().map(Transfer::getCreatedAt).sorted().toList();
+
+        transferHistoryRepository.appendForTransfers(
+                transfers.stream().map(Transfer::getId).toList(),
+                createdAt.getFirst(),
+                createdAt.getLast()
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${app.transfer-history.backfill-interval}")
+    public void backfillNextChunk() {
+        if (!backfillEnabled || backfillComplete) {
+            return;
+        }
+
+        backfillComplete = Boolean.TRUE.equals(transactionTemplate.execute(status -> copyNextChunk()));
+    }
+
+    /**
+     * Переносит очередную порцию и возвращает {@code true}, если переносить уже нечего.
+     */
+    private boolean copyNextChunk() {
+        TransferHistoryBackfill progress = backfillRepository.findWithLockById(TransferHistoryBackfill.ID)
+                .orElseThrow(() -> new IllegalStateException("Transfer history backfill progress row is missing"));
+
+        if (progress.getTargetId() == null) {
+            // transfers committed after this point are recorded by the write path
+            progress.setTargetId(transferRepository.findMaxId());
+            progress.setUpdatedAt(Instant.now());
+        }
+
+        long fromId = progress.getBackfilledUpTo();
+        if (fromId >= progress.getTargetId()) {
+            return true;
+        }
+
+        long toId = Math.min(fromId + backfillChunkSize, progress.getTargetId());
+        transferHistoryRepository.backfillRange(fromId, toId);
+        progress.setBackfilledUpTo(toId);
+        progress.setUpdatedAt(Instant.now());
+
+        // completion is only trusted once the last chunk has been committed
+        return false;
+    }
+
+    boolean isBackfillComplete() {
+        return backfillComplete;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.dto.TransferResponseDto;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.TransferIdempotencyKey;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.repository.TransferIdempotencyKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static com.example.bankcards.enums.TransferDirection.OUTGOING;
+
+/**
+ * Хранилище ключей идемпотентности переводов ({@code Idempotency-Key}).
+ *
+ * <p>Недавние ответы хранятся в ограниченном кэше Caffeine в памяти не дольше
+ * {@code app.idempotency.ttl}, долговременно —
+ * в таблице {@code transfer_idempotency_keys}, запись в которую выполняется
+ * в той же транзакции, что и сам перевод. Уникальность пары
+ * (пользователь, ключ) гарантируется ограничением в базе данных.</p>
+ *
+ * <p>Ключи старше {@code app.idempotency.ttl} считаются истёкшими
+ * и периодически удаляются пачками фиксированного размера. Истёкший,
+ * но ещё не удалённый ключ можно использовать повторно: его запись
+ * заменяется в транзакции нового перевода.</p>
+ */
+@Service
+public class TransferIdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final TransferIdempotencyKeyRepository repository;
+    private final Cache<CacheKey, TransferResponseDto> cache;
+    private final long ttl;
+    private final int cleanupBatchSize;
+
+    public TransferIdempotencyService(
+            TransferIdempotencyKeyRepository repository,
+            @Value("${app.idempotency.cache-size}") int cacheSize,
+            @Value("${app.idempotency.ttl}") long ttl,
+            @Value("${app.idempotency.cleanup-batch-size}") int cleanupBatchSize
+    ) {
+        this.repository = repository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMillis(ttl))
+                .build();
+        this.ttl = ttl;
+        this.cleanupBatchSize = cleanupBatchSize;
+    }
+
+    public void validateKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1-255 characters long");
+        }
+    }
+
+    public Optional<TransferResponseDto> find(String username, String idempotencyKey, TransferRequestDto request) {
+        CacheKey cacheKey = new CacheKey(username, idempotencyKey);
+        TransferResponseDto response = cache.getIfPresent(cacheKey);
+
+        if (response == null) {
+            response = repository.findByUsernameAndIdempotencyKey(username, idempotencyKey)
+                    .map(this::mapToDto)
+                    .orElse(null);
+
+            if (response == null) {
+                return Optional.empty();
+            }
+            cache.put(cacheKey, response);
+        }
+
+        if (isExpired(response)) {
+            cache.invalidate(cacheKey);
+            return Optional.empty();
+        }
+
+        if (!matches(response, request)) {
+            throw new ConflictException("Idempotency-Key has already been used for a different transfer");
+        }
+
+        return Optional.of(response);
+    }
+
+    public void register(String username, String idempotencyKey, Transfer transfer) {
+        TransferIdempotencyKey key = new TransferIdempotencyKey();
+        key.setUsername(username);
+        key.setIdempotencyKey(idempotencyKey);
+        key.setTransferId(transfer.getId());
+        key.setFromCardId(transfer.getFrom().getId());
+        key.setToCardId(transfer.getTo().getId());
+        key.setAmount(transfer.getAmount());
+        key.setCreatedAt(transfer.getCreatedAt());
+
+        // an expired key not yet purged would otherwise violate the unique constraint
+        repository.deleteExpired(username, idempotencyKey, Instant.now().minusMillis(ttl));
+        repository.saveAndFlush(key);
+    }
+
+    public void cache(String username, String idempotencyKey, TransferResponseDto response) {
+        cache.put(new CacheKey(username, idempotencyKey), response);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().minusMillis(ttl);
+        int deleted;
+
+        do {
+            deleted = repository.deleteExpiredBatch(cutoff, cleanupBatchSize);
+        } while (deleted == cleanupBatchSize);
+    }
+
+    private boolean isExpired(TransferResponseDto response) {
+        return response.createdAt().plusMillis(ttl).isBefore(Instant.now());
+    }
+
+    private boolean matches(TransferResponseDto response, TransferRequestDto request) {
+        return response.fromCardId().equals(request.fromCardId())
+                && response.toCardId().equals(request.toCardId())
+                && response.amount().compareTo(request.amount()) == 0;
+    }
+
+    private TransferResponseDto mapToDto(TransferIdempotencyKey key) {
+        return new TransferResponseDto(
+                key.getTransferId(),
+                key.getFromCardId(),
+                key.getToCardId(),
+                key.getAmount(),
+                key.getCreatedAt(),
+                OUTGOING
+        );
+    }
+
+    private record CacheKey(String username, String idempotencyKey) {}
+}
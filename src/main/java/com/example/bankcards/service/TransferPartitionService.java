@@ -0,0 +1,253 @@
+package com.example.bankcards.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Обслуживание помесячных секций таблицы {@code transfers}.
+ *
+ * <p>Таблица секционирована по {@code created_at}, секция {@code transfers_pYYYYMM}
+ * содержит переводы за один месяц. Задача заранее создаёт секции на
+ * {@code app.transfer-partitions.months-ahead} месяцев вперёд; строки, успевшие
+ * попасть в секцию по умолчанию, переносятся в новую секцию при её создании.</p>
+ *
+ * <p>Секции старше {@code app.transfer-partitions.retention-months} месяцев
+ * выгружаются в сжатый CSV ({@code <archive-dir>/transfers_pYYYYMM.csv.gz}),
+ * проводки их переводов — в {@code transfers_pYYYYMM_ledger.csv.gz}, после чего
+ * секция отсоединяется и удаляется вместе со строками {@code transfer_history}
+ * и {@code ledger_entries} этих переводов. Проводки удаляются, только когда
+ * все они уже свёрнуты в снимки балансов ({@code card_balance_snapshots}),
+ * поэтому балансы карт не меняются; иначе секция остаётся до следующего
+ * запуска. Изменения схемы выполняются под
+ * advisory-блокировкой, поэтому задача может работать на нескольких экземплярах.</p>
+ */
+@Slf4j
+@Service
+public class TransferPartitionService {
+
+    static final String LIST_PARTITIONS = """
+            select c.relname
+            from pg_inherits i
+            join pg_class c on c.oid = i.inhrelid
+            join pg_class p on p.oid = i.inhparent
+            where p.relname = 'transfers'
+            """;
+
+    private static final String LOCK = "select pg_advisory_xact_lock(hashtext('transfers_partitions'))";
+    private static final String ARCHIVE_HEADER = "id,from_card_id,to_card_id,amount,created_at";
+    private static final String LEDGER_ARCHIVE_HEADER = "id,card_id,transfer_id,amount,created_at";
+    private static final String UNFOLDED_LEDGER_ENTRIES = """
+            select count(*)
+            from ledger_entries e
+            where e.transfer_id in (select id from %s)
+              and not exists (select 1 from card_balance_snapshots s
+                              where s.card_id = e.card_id and s.last_entry_id >= e.id)
+            """;
+    private static final Pattern PARTITION_NAME = Pattern.compile("transfers_p(\\d{6})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int ARCHIVE_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean maintenanceEnabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final Path archiveDir;
+
+    public TransferPartitionService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.transfer-partitions.maintenance-enabled}") boolean maintenanceEnabled,
+            @Value("${app.transfer-partitions.months-ahead}") int monthsAhead,
+            @Value("${app.transfer-partitions.retention-months}") int retentionMonths,
+            @Value("${app.transfer-partitions.archive-dir}") Path archiveDir
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maintenanceEnabled = maintenanceEnabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.archiveDir = archiveDir;
+    }
+
+    @Scheduled(fixedDelayString = "${app.transfer-partitions.maintenance-interval}")
+    public void maintain() {
+        if (!maintenanceEnabled) {
+            return;
+        }
+
+        maintain(YearMonth.now());
+    }
+
+    synchronized void maintain(YearMonth currentMonth) {
+        Set<YearMonth> existing = existingPartitions();
+
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            if (!existing.contains(month)) {
+                createPartition(month);
+            }
+        }
+
+        YearMonth oldestRetained = currentMonth.minusMonths(retentionMonths);
+        for (YearMonth month : existing) {
+            if (month.isBefore(oldestRetained)) {
+                archivePartition(month);
+            }
+        }
+    }
+
+    private Set<YearMonth> existingPartitions() {
+        Set<YearMonth> months = new TreeSet<>();
+
+        for (String name : jdbcTemplate.queryForList(LIST_PARTITIONS, String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.parse(matcher.group(1), SUFFIX));
+            }
+        }
+
+        return months;
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute(LOCK);
+            if (partitionExists(name)) {
+                return;
+            }
+
+            // rows that fell into the default partition would block ATTACH
+            jdbcTemplate.execute("create table " + name + " (like transfers including defaults including constraints)");
+            int moved = jdbcTemplate.update("""
+                    with moved as (
+                        delete from transfers_default
+                        where created_at >= ? and created_at < ?
+                        returning id, from_card_id, to_card_id, amount, created_at
+                    )
+                    insert into %s (id, from_card_id, to_card_id, amount, created_at)
+                    select id, from_card_id, to_card_id, amount, created_at from moved
+                    """.formatted(name), from, to);
+            jdbcTemplate.execute("alter table transfers attach partition " + name
+                    + " for values from ('" + from.format(BOUND) + "') to ('" + to.format(BOUND) + "')");
+
+            log.info("Created transfers partition {} ({} rows moved from the default partition)", name, moved);
+        });
+    }
+
+    private void archivePartition(YearMonth month) {
+        String name = partitionName(month);
+        Path archive = archiveDir.resolve(name + ".csv.gz");
+        Path ledgerArchive = archiveDir.resolve(name + "_ledger.csv.gz");
+
+        try {
+            export("select id, from_card_id, to_card_id, amount, created_at from " + name + " order by id",
+                    ARCHIVE_HEADER, archive);
+            export("select id, card_id, transfer_id, amount, created_at from ledger_entries"
+                            + " where transfer_id in (select id from " + name + ") order by id",
+                    LEDGER_ARCHIVE_HEADER, ledgerArchive);
+        } catch (RuntimeException ex) {
+            log.error("Failed to archive transfers partition {}, it is kept", name, ex);
+            return;
+        }
+
+        boolean dropped = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(LOCK);
+            if (!partitionExists(name)) {
+                return false;
+            }
+
+            Long unfolded = jdbcTemplate.queryForObject(UNFOLDED_LEDGER_ENTRIES.formatted(name), Long.class);
+            if (unfolded != null && unfolded > 0) {
+                log.warn("{} ledger entries of partition {} are not in balance snapshots yet, it is kept", unfolded, name);
+                return false;
+            }
+
+            // history rows of archived transfers go with them, via uq_transfer_history_transfer_user
+            int historyRows = jdbcTemplate.update(
+                    "delete from transfer_history where transfer_id in (select id from " + name + ")");
+            int ledgerRows = jdbcTemplate.update(
+                    "delete from ledger_entries where transfer_id in (select id from " + name + ")");
+            jdbcTemplate.execute("alter table transfers detach partition " + name);
+            jdbcTemplate.execute("drop table " + name);
+
+            log.info("Deleted {} transfer history rows and {} ledger entries of partition {}", historyRows, ledgerRows, name);
+            return true;
+        }));
+
+        if (dropped) {
+            log.info("Archived transfers partition {} to {} and {}", name, archive, ledgerArchive);
+        }
+    }
+
+    private void export(String query, String header, Path archive) {
+        Path tmp = archive.resolveSibling(archive.getFileName() + ".tmp");
+
+        try {
+            Files.createDirectories(archiveDir);
+
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(tmp)), StandardCharsets.UTF_8))) {
+                writer.write(header);
+                writer.write('\n');
+
+                // a cursor is only used by the driver inside a transaction
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(query);
+                    statement.setFetchSize(ARCHIVE_FETCH_SIZE);
+                    return statement;
+                }, rs -> {
+                    // both archives have the same layout: three ids, an amount and a timestamp
+                    try {
+                        writer.write(rs.getLong(1) + "," + rs.getLong(2) + "," + rs.getLong(3) + ","
+                                + rs.getBigDecimal(4).toPlainString() + ","
+                                + rs.getObject(5, LocalDateTime.class) + "\n");
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }));
+            }
+
+            Files.move(tmp, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private boolean partitionExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("select to_regclass(?) is not null", Boolean.class, name));
+    }
+
+    static String partitionName(YearMonth month) {
+        return "transfers_p" + month.format(SUFFIX);
+    }
+}
@@ -1,14 +1,23 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.BatchTransferRequestDto;
+import com.example.bankcards.dto.BatchTransferResponseDto;
+import com.example.bankcards.dto.CursorPageDto;
+import com.example.bankcards.dto.TransferHistoryFilterDto;
 import com.example.bankcards.dto.TransferRequestDto;
 import com.example.bankcards.dto.TransferResponseDto;
 import org.springframework.security.core.Authentication;
 
-import java.util.List;
-
 public interface TransferService {
 
-    TransferResponseDto transfer(TransferRequestDto request, Authentication authentication);
+    TransferResponseDto transfer(TransferRequestDto request, String idempotencyKey, Authentication authentication);
+
+    BatchTransferResponseDto transferBatch(BatchTransferRequestDto request, Authentication authentication);
 
-    List<TransferResponseDto> getUserTransfers(Authentication authentication);
+    CursorPageDto<TransferResponseDto> getUserTransfers(
+            Authentication authentication,
+            TransferHistoryFilterDto filter,
+            String cursor,
+            int size
+    );
 }
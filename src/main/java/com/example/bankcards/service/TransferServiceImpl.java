@@ -1,22 +1,32 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.BatchTransferItemResultDto;
+import com.example.bankcards.dto.BatchTransferRequestDto;
+import com.example.bankcards.dto.BatchTransferResponseDto;
+import com.example.bankcards.dto.CursorPageDto;
+import com.example.bankcards.dto.TransferHistoryFilterDto;
 import com.example.bankcards.dto.TransferRequestDto;
 import com.example.bankcards.dto.TransferResponseDto;
-import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.Transfer;
-import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.enums.BatchTransferMode;
+import com.example.bankcards.enums.TransferDirection;
 import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.ConflictException;
-import com.example.bankcards.exception.NotFoundException;
-import com.example.bankcards.repository.CardRepository;
-import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.TransferHistoryRepository;
+import com.example.bankcards.repository.TransferView;
+import com.example.bankcards.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 import static com.example.bankcards.enums.TransferDirection.INCOMING;
 import static com.example.bankcards.enums.TransferDirection.OUTGOING;
@@ -25,78 +35,192 @@ import static com.example.bankcards.enums.TransferDirection.OUTGOING;
 @RequiredArgsConstructor
 public class TransferServiceImpl implements TransferService {
 
-    private final CardRepository cardRepository;
-    private final TransferRepository transferRepository;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Instant MAX_CREATED_AT = Instant.parse("9999-12-31T00:00:00Z");
+
+    private final TransferHistoryRepository transferHistoryRepository;
+    private final BalanceUpdateStrategy balanceUpdateStrategy;
+    private final TransferBatchProcessor transferBatchProcessor;
+    private final TransferIdempotencyService idempotencyService;
+    private final CardLockManager cardLockManager;
+    private final TransferGroupCommitter groupCommitter;
 
-    @Transactional
     public TransferResponseDto transfer(
             TransferRequestDto request,
+            String idempotencyKey,
             Authentication authentication
     ) {
         String username = getUsername(authentication);
 
+        if (idempotencyKey != null) {
+            idempotencyService.validateKey(idempotencyKey);
+
+            Optional<TransferResponseDto> previous = idempotencyService.find(username, idempotencyKey, request);
+            if (previous.isPresent()) {
+                return previous.get();
+            }
+        }
+
         if (request.fromCardId().equals(request.toCardId())) {
             throw new BadRequestException("Cannot transfer money to the same card");
         }
 
-        Card from = cardRepository.findByIdAndUserUsername(request.fromCardId(), username)
-                .orElseThrow(() -> new NotFoundException("Source card not found"));
-
-        Card to = cardRepository.findByIdAndUserUsername(request.toCardId(), username)
-                .orElseThrow(() -> new NotFoundException("Target card not found"));
-
-        validateCards(from, to, request);
+        if (idempotencyKey == null && groupCommitter.isEnabled()) {
+            return mapToDto(groupCommitter.transfer(new TransferBatchItem(request, username)), OUTGOING);
+        }
 
-        from.setBalance(from.getBalance().subtract(request.amount()));
-        to.setBalance(to.getBalance().add(request.amount()));
+        Transfer transfer;
+        try (CardLockManager.Lease ignored = cardLockManager.lock(List.of(request.fromCardId(), request.toCardId()))) {
+            transfer = balanceUpdateStrategy.transfer(request, username, applied -> {
+                if (idempotencyKey != null) {
+                    idempotencyService.register(username, idempotencyKey, applied);
+                }
+            });
+        } catch (DataIntegrityViolationException ex) {
+            if (idempotencyKey == null) {
+                throw ex;
+            }
+            // concurrent retry with the same key has committed first
+            return idempotencyService.find(username, idempotencyKey, request)
+                    .orElseThrow(() -> new ConflictException("Idempotency-Key is being used by a concurrent request, please retry"));
+        }
 
-        Transfer transfer = new Transfer();
-        transfer.setFrom(from);
-        transfer.setTo(to);
-        transfer.setAmount(request.amount());
-        transfer.setCreatedAt(Instant.now());
+        TransferResponseDto response = mapToDto(transfer, OUTGOING);
 
-        transferRepository.save(transfer);
+        if (idempotencyKey != null) {
+            idempotencyService.cache(username, idempotencyKey, response);
+        }
 
-        return mapToDto(transfer, username);
+        return response;
     }
 
-    @Transactional(readOnly = true)
-    public List<TransferResponseDto> getUserTransfers(Authentication authentication) {
+    public BatchTransferResponseDto transferBatch(
+            BatchTransferRequestDto request,
+            Authentication authentication
+    ) {
         String username = getUsername(authentication);
 
-        return transferRepository
-                .findAllByUser(username)
+        List<TransferBatchItem> items = request.transfers()
                 .stream()
-                .map(transfer -> mapToDto(transfer, username))
+                .map(transfer -> new TransferBatchItem(transfer, username))
                 .toList();
+
+        Set<Long> cardIds = new HashSet<>();
+        for (TransferRequestDto transfer : request.transfers()) {
+            cardIds.add(transfer.fromCardId());
+            cardIds.add(transfer.toCardId());
+        }
+
+        List<TransferBatchOutcome> outcomes;
+        try (CardLockManager.Lease ignored = cardLockManager.lock(cardIds)) {
+            outcomes = transferBatchProcessor.apply(
+                    items,
+                    request.mode() == BatchTransferMode.ALL_OR_NOTHING
+            );
+        } catch (TransferBatchRejectedException ex) {
+            return rejectedBatch(items.size(), ex);
+        }
+
+        List<BatchTransferItemResultDto> results = new ArrayList<>(outcomes.size());
+        int succeeded = 0;
+
+        for (int i = 0; i < outcomes.size(); i++) {
+            TransferBatchOutcome outcome = outcomes.get(i);
+
+            if (outcome.success()) {
+                succeeded++;
+                results.add(new BatchTransferItemResultDto(i, true, mapToDto(outcome.transfer(), OUTGOING), null));
+            } else {
+                results.add(new BatchTransferItemResultDto(i, false, null, outcome.error().getMessage()));
+            }
+        }
+
+        return new BatchTransferResponseDto(succeeded, outcomes.size() - succeeded, results);
     }
 
-    private void validateCards(Card from, Card to, TransferRequestDto request) {
-        if (from.getStatus().getStatusCode() != CardStatusCode.ACTIVE ||
-                to.getStatus().getStatusCode() != CardStatusCode.ACTIVE) {
-            throw new ConflictException("Only ACTIVE cards can be used for transfer");
+    // all-or-nothing: nothing was applied, the rejected item carries the reason
+    private BatchTransferResponseDto rejectedBatch(int size, TransferBatchRejectedException ex) {
+        List<BatchTransferItemResultDto> results = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            String error = i == ex.getIndex()
+                    ? ex.getError().getMessage()
+                    : "Not applied: transfer " + ex.getIndex() + " was rejected";
+            results.add(new BatchTransferItemResultDto(i, false, null, error));
         }
 
-        if (from.getBalance().compareTo(request.amount()) < 0) {
-            throw new ConflictException("Insufficient balance");
+        return new BatchTransferResponseDto(0, size, results);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDto<TransferResponseDto> getUserTransfers(
+            Authentication authentication,
+            TransferHistoryFilterDto filter,
+            String cursor,
+            int size
+    ) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_PAGE_SIZE);
         }
+
+        Instant fromDate = filter.from() != null ? filter.from() : Instant.EPOCH;
+        Instant beforeCreatedAt = filter.to() != null ? filter.to() : MAX_CREATED_AT;
+        Long beforeId = Long.MAX_VALUE;
+
+        if (cursor != null) {
+            CursorUtil.Cursor position = CursorUtil.decode(cursor);
+            beforeCreatedAt = position.createdAt();
+            beforeId = position.id();
+        }
+
+        List<TransferView> rows = transferHistoryRepository.findPageByUser(
+                getUsername(authentication),
+                fromDate,
+                beforeCreatedAt,
+                beforeId,
+                filter.direction() != INCOMING,
+                filter.direction() != OUTGOING,
+                size + 1
+        );
+
+        boolean hasNext = rows.size() > size;
+        List<TransferView> page = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            TransferView last = page.get(page.size() - 1);
+            nextCursor = CursorUtil.encode(last.getCreatedAt(), last.getId());
+        }
+
+        return new CursorPageDto<>(
+                page.stream().map(this::mapToDto).toList(),
+                nextCursor
+        );
     }
 
-    private TransferResponseDto mapToDto(Transfer transfer, String username) {
-        boolean outgoing = transfer.getFrom().getUser().getUsername().equals(username);
+    private TransferResponseDto mapToDto(TransferView transfer) {
+        return new TransferResponseDto(
+                transfer.getId(),
+                transfer.getFromCardId(),
+                transfer.getToCardId(),
+                transfer.getAmount(),
+                transfer.getCreatedAt(),
+                transfer.getDirection()
+        );
+    }
 
+    private TransferResponseDto mapToDto(Transfer transfer, TransferDirection direction) {
         return new TransferResponseDto(
                 transfer.getId(),
                 transfer.getFrom().getId(),
                 transfer.getTo().getId(),
                 transfer.getAmount(),
                 transfer.getCreatedAt(),
-                outgoing ? OUTGOING : INCOMING
+                direction
         );
     }
 
     private String getUsername(Authentication auth) {
         return auth.getName();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,62 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.exception.BadRequestException;
+import lombok.experimental.UtilityClass;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Utility класс для кодирования курсоров постраничной выборки по ключу
+ * {@code (created_at, id)} или только по {@code id}.
+ *
+ * <p>Курсор непрозрачен для клиента: это позиция последней строки страницы
+ * в виде Base64URL-строки. Некорректный курсор приводит к
+ * {@link BadRequestException}.</p>
+ */
+@UtilityClass
+public class CursorUtil {
+
+    public String encode(Instant createdAt, Long id) {
+        String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Cursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+
+            if (parts.length != 3) {
+                throw new BadRequestException("Invalid cursor");
+            }
+
+            return new Cursor(
+                    Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                    Long.parseLong(parts[2])
+            );
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public String encodeId(Long id) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(id.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Long decodeId(String cursor) {
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    public record Cursor(Instant createdAt, Long id) {}
+}
@@ -0,0 +1,20 @@
+package com.example.bankcards.util;
+
+import lombok.experimental.UtilityClass;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utility класс для значения заголовка {@code Retry-After}.
+ *
+ * <p>Используется ответами 429 и 503: время ожидания в наносекундах
+ * переводится в целые секунды с округлением вверх.</p>
+ */
+@UtilityClass
+public class RetryAfterUtil {
+
+    // округление вверх: клиент, повторивший запрос через Retry-After, не получит отказ снова
+    public long toSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.bankcards.util;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.exception.ConflictException;
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+
+/**
+ * Utility класс с бизнес-правилами перевода между картами.
+ *
+ * <p>Используется всеми способами выполнения перевода (одиночным,
+ * пакетным), чтобы проверки и сообщения об ошибках совпадали.</p>
+ *
+ * <p>При нарушении правил выбрасывается {@link ConflictException}.</p>
+ */
+@UtilityClass
+public class TransferValidationUtil {
+
+    public void validateCards(Card from, Card to, BigDecimal amount) {
+        validateStatuses(from, to);
+        validateBalance(from.getBalance(), amount);
+    }
+
+    public void validateStatuses(Card from, Card to) {
+        if (from.getStatus().getStatusCode() != CardStatusCode.ACTIVE ||
+                to.getStatus().getStatusCode() != CardStatusCode.ACTIVE) {
+            throw new ConflictException("Only ACTIVE cards can be used for transfer");
+        }
+    }
+
+    public void validateBalance(BigDecimal available, BigDecimal amount) {
+        if (available.compareTo(amount) < 0) {
+            throw new ConflictException("Insufficient balance");
+        }
+    }
+}
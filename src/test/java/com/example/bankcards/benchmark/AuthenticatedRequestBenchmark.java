@@ -0,0 +1,122 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.security.JwtAuthenticationFilter;
+import com.example.bankcards.security.JwtTokenProvider;
+import com.example.bankcards.security.RevocationRegistry;
+import com.example.bankcards.security.SecurityUser;
+import com.example.bankcards.security.TokenVersionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность аутентификации запроса до и после перехода
+ * на короткоживущие access-токены.
+ *
+ * <p>{@code stateless} — текущий путь {@link JwtAuthenticationFilter}:
+ * токен проверяется только по подписи и структурам в памяти.
+ * {@code perRequestUserLookup} — прежний вариант, к которому вёл долгоживущий
+ * токен: тот же фильтр плюс запрос пользователя в PostgreSQL на каждый
+ * запрос, чтобы не принять токен заблокированного пользователя. Запрос идёт
+ * по готовому соединению в таблицу из одной строки, поэтому это нижняя
+ * граница стоимости такой проверки. Для него нужен Docker.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticatedRequestBenchmark {
+
+    private static final FilterChain NO_OP = (request, response) -> {};
+
+    PostgreSQLContainer postgres;
+    Connection connection;
+    PreparedStatement findUser;
+
+    JwtAuthenticationFilter filter;
+    MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() throws SQLException {
+        postgres = new PostgreSQLContainer("postgres:16");
+        postgres.start();
+
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table users (id bigint primary key, username varchar(64) unique not null, "
+                    + "enabled boolean not null, token_version int not null)");
+            statement.execute("insert into users values (1, 'user1', true, 0)");
+        }
+        findUser = connection.prepareStatement("select enabled, token_version from users where username = ?");
+
+        JwtTokenProvider tokenProvider = new JwtTokenProvider(
+                JwtAuthenticationBenchmark.SECRET, 300_000, 10_000, new SimpleMeterRegistry()
+        );
+        // the registries are only read on this path, their repositories are never called
+        filter = new JwtAuthenticationFilter(
+                tokenProvider,
+                new TokenVersionRegistry(null, 10_000),
+                new RevocationRegistry(null, null, 10_000, 100)
+        );
+
+        request = new MockHttpServletRequest("GET", "/api/user/cards");
+        request.addHeader("Authorization", "Bearer "
+                + tokenProvider.generateToken(new SecurityUser(1L, "user1", "", true, "USER", 0)));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public Authentication stateless() throws ServletException, IOException {
+        return authenticate();
+    }
+
+    @Benchmark
+    public boolean perRequestUserLookup() throws ServletException, IOException, SQLException {
+        Authentication authentication = authenticate();
+
+        findUser.setString(1, authentication.getName());
+        try (ResultSet user = findUser.executeQuery()) {
+            return user.next() && user.getBoolean("enabled") && user.getInt("token_version") == 0;
+        }
+    }
+
+    private Authentication authenticate() throws ServletException, IOException {
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
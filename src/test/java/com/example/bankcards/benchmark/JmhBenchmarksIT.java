@@ -0,0 +1,48 @@
+package com.example.bankcards.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Запуск JMH-бенчмарков этого пакета вместе с нагрузочными тестами.
+ *
+ * <p>Бенчмарки измеряют накладные расходы отдельных компонентов на запрос
+ * и не работают с БД, кроме {@link AuthenticatedRequestBenchmark}, который
+ * для сравнения поднимает собственный контейнер PostgreSQL. Параметры прогона (форки, итерации) заданы
+ * аннотациями самих классов, результаты печатает JMH.
+ * Запуск: {@code mvn verify -Pload}.</p>
+ */
+@Tag("load")
+class JmhBenchmarksIT {
+
+    static Stream<Class<?>> benchmarks() {
+        return Stream.of(
+                AuthenticatedRequestBenchmark.class,
+                JwtAuthenticationBenchmark.class,
+                RateLimitBenchmark.class,
+                RevocationBenchmark.class
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("benchmarks")
+    void benchmark(Class<?> benchmark) throws RunnerException {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(Pattern.quote(benchmark.getName()) + "\\.")
+                .build()
+        ).run();
+
+        assertFalse(results.isEmpty(), () -> "No benchmarks ran for " + benchmark.getName());
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.security.JwtAuthenticationFilter;
+import com.example.bankcards.security.JwtTokenProvider;
+import com.example.bankcards.security.RevocationRegistry;
+import com.example.bankcards.security.SecurityUser;
+import com.example.bankcards.security.TokenVersionRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость аутентификации запроса в {@link JwtAuthenticationFilter}.
+ *
+ * <p>{@code filter} — путь фильтра целиком: с кэшем проверенных токенов
+ * ({@code cacheSize = 10000}) и без него ({@code 0}, подпись проверяется
+ * на каждый запрос). {@code legacyDoubleParse} повторяет прежний путь:
+ * ключ и парсер строятся из секрета заново, токен разбирается дважды —
+ * для проверки и для имени пользователя.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGVzdHMtb25seS0zMi1ieXRlcy1sb25n";
+
+    private static final FilterChain NO_OP = (request, response) -> {};
+
+    @Param({"10000", "0"})
+    long cacheSize;
+
+    JwtAuthenticationFilter filter;
+    MockHttpServletRequest request;
+    String token;
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider(SECRET, 3_600_000, cacheSize, new SimpleMeterRegistry());
+        // the registries are only read on this path, their repositories are never called
+        filter = new JwtAuthenticationFilter(
+                tokenProvider,
+                new TokenVersionRegistry(null, 10_000),
+                new RevocationRegistry(null, null, 10_000, 100)
+        );
+
+        token = tokenProvider.generateToken(new SecurityUser(1L, "user1", "", true, "USER", 0));
+        request = new MockHttpServletRequest("GET", "/api/user/cards");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public Authentication filter() throws ServletException, IOException {
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public void legacyDoubleParse(Blackhole blackhole) {
+        // validateToken(token)
+        blackhole.consume(legacyParse().getExpiration());
+        // getUsername(token)
+        blackhole.consume(legacyParse().getSubject());
+    }
+
+    private Claims legacyParse() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
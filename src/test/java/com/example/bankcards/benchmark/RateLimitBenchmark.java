@@ -0,0 +1,148 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.security.RateLimitFilter;
+import com.example.bankcards.security.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы {@link RateLimitFilter} на запрос.
+ *
+ * <p>При 100 000 запросов в секунду на одно ядро приходится 10 мкс на запрос;
+ * время одного вызова фильтра сравнивается с этим бюджетом. Запросы
+ * распределены по {@code clients} IP-адресам и пользователям, поэтому
+ * в кэше вёдер живёт столько же ключей, сколько при таком числе клиентов
+ * (100 000 — значение {@code app.rate-limit.max-keys} по умолчанию).</p>
+ *
+ * <p>{@code filterUnlimitedRoute} — запрос без лимита, {@code filterLogin}
+ * и {@code filterTransfer} — пропущенные запросы с лимитом по IP и по
+ * пользователю (лимиты подняты, чтобы запросы не отклонялись),
+ * {@code filterRejected} — ответ 429 при лимитах по умолчанию.
+ * {@code acquireLoginConcurrent} — та же проверка, что в {@code filterLogin},
+ * из четырёх потоков одновременно.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitBenchmark {
+
+    private static final FilterChain NO_OP = (request, response) -> {};
+
+    @Param({"1000", "100000"})
+    int clients;
+
+    RateLimiter rateLimiter;
+    RateLimitFilter filter;
+    RateLimitFilter rejectingFilter;
+    String[] addresses;
+    Authentication[] users;
+
+    @Setup
+    public void setUp() {
+        rateLimiter = new RateLimiter(routes(1_000_000_000, 60_000_000_000L), 100_000, 600_000, new SimpleMeterRegistry());
+        filter = new RateLimitFilter(rateLimiter, JsonMapper.builder().build());
+        // лимит входа по умолчанию (app.rate-limit.login): после 10 запросов с одного адреса — 429
+        rejectingFilter = new RateLimitFilter(
+                new RateLimiter(routes(10, 10), 100_000, 600_000, new SimpleMeterRegistry()),
+                JsonMapper.builder().build()
+        );
+
+        addresses = new String[clients];
+        users = new Authentication[clients];
+        for (int i = 0; i < clients; i++) {
+            addresses[i] = "10.%d.%d.%d".formatted(i >> 16 & 0xff, i >> 8 & 0xff, i & 0xff);
+            users[i] = UsernamePasswordAuthenticationToken.authenticated("user" + i, null, List.of());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        final MockHttpServletRequest cards = new MockHttpServletRequest("GET", "/api/user/cards");
+        final MockHttpServletRequest login = new MockHttpServletRequest("POST", "/api/auth/login");
+        final MockHttpServletRequest transfer = new MockHttpServletRequest("POST", "/api/user/transfers");
+        int next;
+
+        int next(int size) {
+            int current = next;
+            next = current + 1 == size ? 0 : current + 1;
+            return current;
+        }
+    }
+
+    @Benchmark
+    public int filterUnlimitedRoute(Client client) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(client.cards, response, NO_OP);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int filterLogin(Client client) throws ServletException, IOException {
+        client.login.setRemoteAddr(addresses[client.next(clients)]);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(client.login, response, NO_OP);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int filterTransfer(Client client) throws ServletException, IOException {
+        SecurityContextHolder.getContext().setAuthentication(users[client.next(clients)]);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(client.transfer, response, NO_OP);
+        SecurityContextHolder.clearContext();
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int filterRejected(Client client) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rejectingFilter.doFilter(client.login, response, NO_OP);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long acquireLoginConcurrent(Client client) {
+        client.login.setRemoteAddr(addresses[client.next(clients)]);
+        return rateLimiter.acquire(client.login);
+    }
+
+    private static List<RateLimiter.Route> routes(long capacity, long refillPerMinute) {
+        return List.of(
+                new RateLimiter.Route("login", HttpMethod.POST, "/api/auth/login",
+                        false, capacity, refillPerMinute),
+                new RateLimiter.Route("transfers", HttpMethod.POST, "/api/user/transfers/**",
+                        true, capacity, refillPerMinute)
+        );
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.entity.RevokedToken;
+import com.example.bankcards.repository.RevokedTokenRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.JwtAuthenticationFilter;
+import com.example.bankcards.security.JwtTokenProvider;
+import com.example.bankcards.security.RevocationRegistry;
+import com.example.bankcards.security.SecurityUser;
+import com.example.bankcards.security.TokenVersionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Проверка отзыва в {@link JwtAuthenticationFilter} при {@code revoked}
+ * заблокированных пользователях и стольких же отозванных токенах.
+ *
+ * <p>Состояние загружается в {@link RevocationRegistry} так же, как при
+ * старте приложения, через {@link RevocationRegistry#refresh()}.
+ * {@code filter} — путь фильтра для действующего токена, {@code isRevoked*} —
+ * сама проверка для действующего, отозванного токена и заблокированного
+ * пользователя.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class RevocationBenchmark {
+
+    private static final FilterChain NO_OP = (request, response) -> {};
+
+    @Param({"0", "1000000"})
+    int revoked;
+
+    RevocationRegistry revocationRegistry;
+    JwtAuthenticationFilter filter;
+    MockHttpServletRequest request;
+    String revokedTokenId;
+
+    @Setup
+    public void setUp() {
+        Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+        List<RevokedToken> revokedTokens = IntStream.range(0, revoked)
+                .mapToObj(i -> revokedToken(UUID.randomUUID().toString(), expiresAt))
+                .toList();
+        revokedTokenId = revoked > 0 ? revokedTokens.getFirst().getTokenId() : UUID.randomUUID().toString();
+
+        UserRepository userRepository = mock(UserRepository.class);
+        RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+        // users 2..revoked+1 are blocked, user 1 makes the requests
+        when(userRepository.findDisabledUserIds()).thenReturn(LongStream.rangeClosed(2, revoked + 1L).boxed().toList());
+        when(revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(), any())).thenReturn(revokedTokens);
+
+        revocationRegistry = new RevocationRegistry(userRepository, revokedTokenRepository, 10_000, 100);
+        revocationRegistry.refresh();
+
+        JwtTokenProvider tokenProvider = new JwtTokenProvider(
+                JwtAuthenticationBenchmark.SECRET, 3_600_000, 10_000, new SimpleMeterRegistry()
+        );
+        filter = new JwtAuthenticationFilter(tokenProvider, new TokenVersionRegistry(userRepository, 10_000), revocationRegistry);
+
+        request = new MockHttpServletRequest("GET", "/api/user/cards");
+        request.addHeader("Authorization", "Bearer "
+                + tokenProvider.generateToken(new SecurityUser(1L, "user1", "", true, "USER", 0)));
+    }
+
+    @Benchmark
+    public Authentication filter() throws ServletException, IOException {
+        filter.doFilter(request, new MockHttpServletResponse(), NO_OP);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public boolean isRevokedActiveToken() {
+        return revocationRegistry.isRevoked(1L, "not-revoked");
+    }
+
+    @Benchmark
+    public boolean isRevokedRevokedToken() {
+        return revocationRegistry.isRevoked(1L, revokedTokenId);
+    }
+
+    @Benchmark
+    public boolean isRevokedBlockedUser() {
+        return revocationRegistry.isRevoked(revoked + 1L, "not-revoked");
+    }
+
+    private static RevokedToken revokedToken(String tokenId, Instant expiresAt) {
+        RevokedToken token = new RevokedToken();
+        token.setTokenId(tokenId);
+        token.setUserId(1L);
+        token.setExpiresAt(expiresAt);
+        token.setRevokedAt(Instant.now());
+        return token;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.bankcards.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static com.example.bankcards.config.ReadWriteRoutingDataSource.Target.PRIMARY;
+import static com.example.bankcards.config.ReadWriteRoutingDataSource.Target.REPLICA;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReadWriteRoutingDataSourceTest {
+
+    @Mock
+    ReplicaLagMonitor lagMonitor;
+
+    ReadYourWritesTracker readYourWrites;
+    ReadWriteRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        readYourWrites = new ReadYourWritesTracker(60_000, 100);
+        dataSource = new ReadWriteRoutingDataSource(lagMonitor, readYourWrites);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        SecurityContextHolder.clearContext();
+    }
+
+    // ---------- WRITES ----------
+    @Test
+    void writeTransaction_usesPrimaryAndMarksUserAfterCommit() {
+        authenticate("user1");
+
+        assertEquals(PRIMARY, dataSource.determineCurrentLookupKey());
+        assertFalse(readYourWrites.hasRecentWrite("user1"));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+
+        assertTrue(readYourWrites.hasRecentWrite("user1"));
+        verifyNoInteractions(lagMonitor);
+    }
+
+    @Test
+    void writeTransaction_withoutUser_registersNothing() {
+        assertEquals(PRIMARY, dataSource.determineCurrentLookupKey());
+
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+
+    // ---------- READS ----------
+    @Test
+    void readOnlyTransaction_usesReplica() {
+        authenticate("user1");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isUsable()).thenReturn(true);
+
+        assertEquals(REPLICA, dataSource.determineCurrentLookupKey());
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+
+    @Test
+    void readOnlyTransaction_replicaLagging_usesPrimary() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isUsable()).thenReturn(false);
+
+        assertEquals(PRIMARY, dataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void readOnlyTransaction_afterOwnWrite_usesPrimary() {
+        authenticate("user1");
+        readYourWrites.markWrite("user1");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(PRIMARY, dataSource.determineCurrentLookupKey());
+        verifyNoInteractions(lagMonitor);
+    }
+
+    @Test
+    void readOnlyTransaction_otherUsersWrite_usesReplica() {
+        authenticate("user2");
+        readYourWrites.markWrite("user1");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(lagMonitor.isUsable()).thenReturn(true);
+
+        assertEquals(REPLICA, dataSource.determineCurrentLookupKey());
+    }
+
+    private void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of())
+        );
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.bankcards.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaLagMonitorTest {
+
+    @Mock
+    DataSource replica;
+
+    @Mock
+    Connection connection;
+
+    @Mock
+    Statement statement;
+
+    @Mock
+    ResultSet resultSet;
+
+    SimpleMeterRegistry meterRegistry;
+    ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        monitor = new ReplicaLagMonitor(replica, 1000, meterRegistry);
+    }
+
+    @Test
+    void notUsableBeforeFirstCheck() {
+        assertFalse(monitor.isUsable());
+    }
+
+    @Test
+    void check_lagWithinLimit_usable() throws SQLException {
+        stubLag(200);
+
+        monitor.check();
+
+        assertTrue(monitor.isUsable());
+        assertEquals(200.0, meterRegistry.get("datasource.replica.lag").gauge().value());
+    }
+
+    @Test
+    void check_lagAboveLimit_notUsable() throws SQLException {
+        stubLag(5000);
+
+        monitor.check();
+
+        assertFalse(monitor.isUsable());
+    }
+
+    @Test
+    void check_replicaDown_notUsable() throws SQLException {
+        stubLag(0);
+        monitor.check();
+        assertTrue(monitor.isUsable());
+
+        reset(replica);
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        monitor.check();
+
+        assertFalse(monitor.isUsable());
+    }
+
+    private void stubLag(long lag) throws SQLException {
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(ReplicaLagMonitor.LAG_QUERY)).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(lag);
+    }
+}
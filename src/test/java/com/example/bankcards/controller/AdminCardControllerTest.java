@@ -1,11 +1,17 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.WebConfig;
+import com.example.bankcards.dto.AdminCardFilterDto;
+import com.example.bankcards.dto.BulkCardIssueItemResultDto;
+import com.example.bankcards.dto.BulkCardIssueResponseDto;
 import com.example.bankcards.dto.CardResponseDto;
 import com.example.bankcards.dto.CreateCardRequestDto;
+import com.example.bankcards.dto.CursorPageDto;
 import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.enums.ImportFormat;
 import com.example.bankcards.security.JwtAuthenticationFilter;
 import com.example.bankcards.service.AdminCardService;
+import com.example.bankcards.service.BulkCardIssueService;
 import org.junit.jupiter.api.MediaType;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +31,8 @@ import java.time.LocalDate;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -47,6 +55,9 @@ class AdminCardControllerTest {
     @MockitoBean
     private AdminCardService adminCardService;
 
+    @MockitoBean
+    private BulkCardIssueService bulkCardIssueService;
+
     // ---------- POST /api/admin/cards ----------
     @Test
     void create_success() throws Exception {
@@ -87,6 +98,43 @@ class AdminCardControllerTest {
                 .andExpect(jsonPath("$.status").value("ACTIVE"));
     }
 
+    // ---------- POST /api/admin/cards/bulk ----------
+    @Test
+    void createBulk_csv() throws Exception {
+
+        when(bulkCardIssueService.issue(any(), eq(ImportFormat.CSV)))
+                .thenReturn(new BulkCardIssueResponseDto(1, 1, List.of(
+                        new BulkCardIssueItemResultDto(2, true, 10L, null),
+                        new BulkCardIssueItemResultDto(3, false, null, "User not found")
+                )));
+
+        mockMvc.perform(post("/api/admin/cards/bulk")
+                        .contentType("text/csv")
+                        .content("""
+                                userId,ownerName,cardNumber,expirationDate,balance
+                                1,Ivan Ivanov,4111111111111234,2028-12-31,100.00
+                                99,Petr Petrov,4111111111115678,2028-12-31,100.00
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.results[0].cardId").value(10))
+                .andExpect(jsonPath("$.results[1].error").value("User not found"));
+    }
+
+    @Test
+    void createBulk_ndjson() throws Exception {
+
+        when(bulkCardIssueService.issue(any(), eq(ImportFormat.NDJSON)))
+                .thenReturn(new BulkCardIssueResponseDto(0, 0, List.of()));
+
+        mockMvc.perform(post("/api/admin/cards/bulk")
+                        .contentType("application/x-ndjson")
+                        .content(""))
+                .andExpect(status().isOk());
+
+        verify(bulkCardIssueService).issue(any(), eq(ImportFormat.NDJSON));
+    }
+
     // ---------- PATCH /api/admin/cards/{id}/block ----------
     @Test
     void block_success() throws Exception {
@@ -149,4 +197,38 @@ class AdminCardControllerTest {
                 .andExpect(jsonPath("$.content[0].id").value(1))
                 .andExpect(jsonPath("$.page.totalElements").value(1));
     }
-}
\ No newline at end of file
+
+    // ---------- GET /api/admin/cards/scroll ----------
+    @Test
+    void scroll_success() throws Exception {
+
+        CardResponseDto card = new CardResponseDto(
+                7L,
+                "**** **** **** 1234",
+                "USER ONE",
+                LocalDate.of(2028, 12, 31),
+                CardStatusCode.BLOCKED,
+                new BigDecimal("100.00")
+        );
+
+        when(adminCardService.scroll(any(), any(), anyInt()))
+                .thenReturn(new CursorPageDto<>(List.of(card), "Nw"));
+
+        mockMvc.perform(get("/api/admin/cards/scroll")
+                        .param("cursor", "Ng")
+                        .param("size", "1")
+                        .param("status", "BLOCKED")
+                        .param("userId", "3")
+                        .param("expiresFrom", "2028-01-01")
+                        .param("expiresTo", "2028-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(7))
+                .andExpect(jsonPath("$.nextCursor").value("Nw"));
+
+        verify(adminCardService).scroll(
+                new AdminCardFilterDto(CardStatusCode.BLOCKED, 3L, LocalDate.of(2028, 1, 1), LocalDate.of(2028, 12, 31)),
+                "Ng",
+                1
+        );
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.WebConfig;
+import com.example.bankcards.dto.AdminUserFilterDto;
+import com.example.bankcards.dto.CursorPageDto;
 import com.example.bankcards.dto.UserResponseDto;
 import com.example.bankcards.security.JwtAuthenticationFilter;
 import com.example.bankcards.service.AdminUserService;
@@ -21,6 +23,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -70,6 +73,30 @@ class AdminUserControllerTest {
                 .andExpect(jsonPath("$.page.totalElements").value(1));
     }
 
+    // ---------- GET /api/admin/users/scroll ----------
+    @Test
+    void scroll_success() throws Exception {
+
+        UserResponseDto user = new UserResponseDto(
+                3L,
+                "user3",
+                "USER",
+                false
+        );
+
+        when(adminUserService.scroll(any(), any(), anyInt()))
+                .thenReturn(new CursorPageDto<>(List.of(user), null));
+
+        mockMvc.perform(get("/api/admin/users/scroll")
+                        .param("enabled", "false")
+                        .param("role", "USER"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].username").value("user3"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(adminUserService).scroll(new AdminUserFilterDto(false, "USER"), null, 20);
+    }
+
     // ---------- POST /api/admin/users/{id}/block ----------
     @Test
     void block_success() throws Exception {
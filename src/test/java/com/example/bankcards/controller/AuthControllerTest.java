@@ -1,7 +1,9 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.JwtResponseDto;
+import com.example.bankcards.dto.RefreshTokenRequestDto;
 import com.example.bankcards.exception.ForbiddenException;
+import com.example.bankcards.exception.ServiceUnavailableException;
 import com.example.bankcards.exception.UnauthorizedException;
 import com.example.bankcards.security.JwtAuthenticationFilter;
 import com.example.bankcards.service.AuthService;
@@ -15,8 +17,11 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -40,7 +45,7 @@ class AuthControllerTest {
     void login_success() throws Exception {
 
         JwtResponseDto response =
-                new JwtResponseDto("jwt-token-123");
+                new JwtResponseDto("jwt-token-123", "refresh-token-123");
 
         when(authService.login(any()))
                 .thenReturn(response);
@@ -54,7 +59,44 @@ class AuthControllerTest {
                                 }
                                 """))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.token").value("jwt-token-123"));
+                .andExpect(jsonPath("$.token").value("jwt-token-123"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh-token-123"));
+    }
+
+    // ---------- REFRESH ----------
+    @Test
+    void refresh_success() throws Exception {
+
+        when(authService.refresh(new RefreshTokenRequestDto("refresh-token-123")))
+                .thenReturn(new JwtResponseDto("jwt-token-456", "refresh-token-456"));
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(String.valueOf(MediaType.APPLICATION_JSON))
+                        .content("""
+                                {
+                                  "refreshToken": "refresh-token-123"
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("jwt-token-456"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh-token-456"));
+    }
+
+    @Test
+    void refresh_invalidToken() throws Exception {
+
+        when(authService.refresh(any()))
+                .thenThrow(new UnauthorizedException("Invalid refresh token"));
+
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(String.valueOf(MediaType.APPLICATION_JSON))
+                        .content("""
+                                {
+                                  "refreshToken": "reused"
+                                }
+                                """))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Invalid refresh token"));
     }
 
     // ---------- BAD CREDENTIALS ----------
@@ -101,6 +143,52 @@ class AuthControllerTest {
                         .value("User has been blocked"));
     }
 
+    // ---------- OVERLOAD ----------
+    @Test
+    void login_passwordHashingOverloaded_returns503WithRetryAfter() throws Exception {
+
+        when(authService.login(any()))
+                .thenThrow(new ServiceUnavailableException(
+                        "Password hashing is overloaded, please retry later", 2L
+                ));
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(String.valueOf(MediaType.APPLICATION_JSON))
+                        .content("""
+                                {
+                                  "username": "user1",
+                                  "password": "password"
+                                }
+                                """))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.message")
+                        .value("Password hashing is overloaded, please retry later"));
+    }
+
+    // ---------- LOGOUT ----------
+    @Test
+    void logout_success() throws Exception {
+
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer jwt-token-123"))
+                .andExpect(status().isOk());
+
+        verify(authService).logout("Bearer jwt-token-123", null);
+    }
+
+    @Test
+    void logout_invalidToken() throws Exception {
+
+        doThrow(new UnauthorizedException("Invalid token"))
+                .when(authService).logout("Bearer garbage", null);
+
+        mockMvc.perform(post("/api/auth/logout")
+                        .header("Authorization", "Bearer garbage"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Invalid token"));
+    }
+
     // ---------- VALIDATION ----------
     @Test
     void login_validationError() throws Exception {
@@ -1,10 +1,20 @@
 package com.example.bankcards.controller;
 
+import com.example.bankcards.dto.AsyncTransferResponseDto;
+import com.example.bankcards.dto.BatchTransferItemResultDto;
+import com.example.bankcards.dto.BatchTransferResponseDto;
+import com.example.bankcards.dto.CursorPageDto;
+import com.example.bankcards.dto.TransferHistoryFilterDto;
 import com.example.bankcards.dto.TransferRequestDto;
 import com.example.bankcards.dto.TransferResponseDto;
+import com.example.bankcards.enums.AsyncTransferStatus;
+import com.example.bankcards.enums.ExportFormat;
 import com.example.bankcards.enums.TransferDirection;
 import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.ServiceUnavailableException;
 import com.example.bankcards.security.JwtAuthenticationFilter;
+import com.example.bankcards.service.AsyncTransferService;
+import com.example.bankcards.service.TransferExportService;
 import com.example.bankcards.service.TransferService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,18 +22,31 @@ import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.List;
+import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(
@@ -42,6 +65,12 @@ class TransferControllerTest {
     @MockitoBean
     private TransferService transferService;
 
+    @MockitoBean
+    private AsyncTransferService asyncTransferService;
+
+    @MockitoBean
+    private TransferExportService transferExportService;
+
     // ---------- POST /api/user/transfers ----------
     @Test
     void transfer_success() throws Exception {
@@ -61,7 +90,7 @@ class TransferControllerTest {
                 TransferDirection.OUTGOING
         );
 
-        when(transferService.transfer(any(), any()))
+        when(transferService.transfer(any(), any(), any()))
                 .thenReturn(response);
 
         mockMvc.perform(post("/api/user/transfers")
@@ -81,6 +110,38 @@ class TransferControllerTest {
                 .andExpect(jsonPath("$.direction").value("OUTGOING"));
     }
 
+    // ---------- POST /api/user/transfers (Idempotency-Key) ----------
+    @Test
+    void transfer_passesIdempotencyKey() throws Exception {
+
+        TransferResponseDto response = new TransferResponseDto(
+                100L,
+                1L,
+                2L,
+                new BigDecimal("10.50"),
+                Instant.parse("2026-01-20T00:00:00Z"),
+                TransferDirection.OUTGOING
+        );
+
+        when(transferService.transfer(any(), eq("retry-key-1"), any()))
+                .thenReturn(response);
+
+        mockMvc.perform(post("/api/user/transfers")
+                        .header("Idempotency-Key", "retry-key-1")
+                        .contentType("application/json")
+                        .content("""
+                                {
+                                  "fromCardId": 1,
+                                  "toCardId": 2,
+                                  "amount": 10.50
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(100));
+
+        verify(transferService).transfer(any(), eq("retry-key-1"), any());
+    }
+
     // ---------- POST /api/user/transfers (validation) ----------
     @Test
     void transfer_invalidAmount_returns400() throws Exception {
@@ -101,7 +162,7 @@ class TransferControllerTest {
     @Test
     void transfer_businessException_returns400() throws Exception {
 
-        when(transferService.transfer(any(), any()))
+        when(transferService.transfer(any(), any(), any()))
                 .thenThrow(new BadRequestException("Insufficient balance"));
 
         mockMvc.perform(post("/api/user/transfers")
@@ -117,6 +178,157 @@ class TransferControllerTest {
                 .andExpect(jsonPath("$.message").value("Insufficient balance"));
     }
 
+    // ---------- GET /api/user/transfers/export ----------
+    @Test
+    void export_streamsCsv() throws Exception {
+
+        doAnswer(inv -> {
+            OutputStream out = inv.getArgument(3);
+            out.write("id,fromCardId,toCardId,amount,createdAt,direction\n".getBytes(StandardCharsets.UTF_8));
+            return 0L;
+        }).when(transferExportService).export(any(), any(), eq(ExportFormat.CSV), any());
+
+        MvcResult result = mockMvc.perform(get("/api/user/transfers/export")
+                        .principal(new UsernamePasswordAuthenticationToken("user1", null))
+                        .param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"transfers.csv\""))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("id,fromCardId,toCardId,amount,createdAt,direction\n"));
+
+        verify(transferExportService).export(eq("user1"), any(), eq(ExportFormat.CSV), any());
+    }
+
+    // ---------- POST /api/user/transfers/async ----------
+    @Test
+    void transferAsync_returns202() throws Exception {
+
+        UUID id = UUID.fromString("7f1c0f0e-4d4b-4a4e-9c5e-1d2a3b4c5d6e");
+
+        when(asyncTransferService.submit(any(), any(), any()))
+                .thenReturn(new AsyncTransferResponseDto(id, AsyncTransferStatus.QUEUED, null, null));
+
+        mockMvc.perform(post("/api/user/transfers/async")
+                        .contentType("application/json")
+                        .content("""
+                                {
+                                  "fromCardId": 1,
+                                  "toCardId": 2,
+                                  "amount": 10.50
+                                }
+                                """))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value(id.toString()))
+                .andExpect(jsonPath("$.status").value("QUEUED"));
+    }
+
+    @Test
+    void transferAsync_queueFull_returns503() throws Exception {
+
+        when(asyncTransferService.submit(any(), any(), any()))
+                .thenThrow(new ServiceUnavailableException("Transfer queue is full, please retry later"));
+
+        mockMvc.perform(post("/api/user/transfers/async")
+                        .contentType("application/json")
+                        .content("""
+                                {
+                                  "fromCardId": 1,
+                                  "toCardId": 2,
+                                  "amount": 10.50
+                                }
+                                """))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value("Transfer queue is full, please retry later"));
+    }
+
+    // ---------- GET /api/user/transfers/{id}/status ----------
+    @Test
+    void status_completed() throws Exception {
+
+        UUID id = UUID.fromString("7f1c0f0e-4d4b-4a4e-9c5e-1d2a3b4c5d6e");
+
+        TransferResponseDto transfer = new TransferResponseDto(
+                100L,
+                1L,
+                2L,
+                new BigDecimal("10.50"),
+                Instant.parse("2026-01-20T00:00:00Z"),
+                TransferDirection.OUTGOING
+        );
+
+        when(asyncTransferService.getStatus(eq(id), any()))
+                .thenReturn(new AsyncTransferResponseDto(id, AsyncTransferStatus.COMPLETED, transfer, null));
+
+        mockMvc.perform(get("/api/user/transfers/{id}/status", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.transfer.id").value(100));
+    }
+
+    // ---------- POST /api/user/transfers/batch ----------
+    @Test
+    void transferBatch_success() throws Exception {
+
+        TransferResponseDto transfer = new TransferResponseDto(
+                100L,
+                1L,
+                2L,
+                new BigDecimal("10.00"),
+                Instant.parse("2026-01-20T00:00:00Z"),
+                TransferDirection.OUTGOING
+        );
+
+        BatchTransferResponseDto response = new BatchTransferResponseDto(
+                1,
+                1,
+                List.of(
+                        new BatchTransferItemResultDto(0, true, transfer, null),
+                        new BatchTransferItemResultDto(1, false, null, "Insufficient balance")
+                )
+        );
+
+        when(transferService.transferBatch(any(), any()))
+                .thenReturn(response);
+
+        mockMvc.perform(post("/api/user/transfers/batch")
+                        .contentType("application/json")
+                        .content("""
+                                {
+                                  "mode": "PER_ITEM",
+                                  "transfers": [
+                                    { "fromCardId": 1, "toCardId": 2, "amount": 10.00 },
+                                    { "fromCardId": 1, "toCardId": 2, "amount": 1000.00 }
+                                  ]
+                                }
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].transfer.id").value(100))
+                .andExpect(jsonPath("$.results[1].error").value("Insufficient balance"));
+    }
+
+    // ---------- POST /api/user/transfers/batch (validation) ----------
+    @Test
+    void transferBatch_invalidItem_returns400() throws Exception {
+
+        mockMvc.perform(post("/api/user/transfers/batch")
+                        .contentType("application/json")
+                        .content("""
+                                {
+                                  "mode": "ALL_OR_NOTHING",
+                                  "transfers": [
+                                    { "fromCardId": 1, "toCardId": 2, "amount": 0 }
+                                  ]
+                                }
+                                """))
+                .andExpect(status().isBadRequest());
+    }
+
     // ---------- GET /api/user/transfers ----------
     @Test
     void history_success() throws Exception {
@@ -130,12 +342,40 @@ class TransferControllerTest {
                 TransferDirection.INCOMING
         );
 
-        when(transferService.getUserTransfers(any()))
-                .thenReturn(List.of(transfer));
+        when(transferService.getUserTransfers(any(), any(), any(), eq(20)))
+                .thenReturn(new CursorPageDto<>(List.of(transfer), "next-cursor"));
 
         mockMvc.perform(get("/api/user/transfers"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(101))
-                .andExpect(jsonPath("$[0].direction").value("INCOMING"));
+                .andExpect(jsonPath("$.items[0].id").value(101))
+                .andExpect(jsonPath("$.items[0].direction").value("INCOMING"))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"));
+    }
+
+    @Test
+    void history_passesCursorAndFilters() throws Exception {
+
+        when(transferService.getUserTransfers(any(), any(), any(), anyInt()))
+                .thenReturn(new CursorPageDto<>(List.of(), null));
+
+        mockMvc.perform(get("/api/user/transfers")
+                        .param("cursor", "abc")
+                        .param("size", "50")
+                        .param("from", "2026-01-01T00:00:00Z")
+                        .param("to", "2026-02-01T00:00:00Z")
+                        .param("direction", "OUTGOING"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty());
+
+        verify(transferService).getUserTransfers(
+                any(),
+                eq(new TransferHistoryFilterDto(
+                        Instant.parse("2026-01-01T00:00:00Z"),
+                        Instant.parse("2026-02-01T00:00:00Z"),
+                        TransferDirection.OUTGOING
+                )),
+                eq("abc"),
+                eq(50)
+        );
     }
 }
@@ -0,0 +1,102 @@
+package com.example.bankcards.integration;
+
+import com.example.bankcards.config.TransferConfig;
+import com.example.bankcards.enums.BalanceUpdateMode;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.BalanceUpdateStrategy;
+import com.example.bankcards.service.LedgerService;
+import com.example.bankcards.service.TransferHistoryService;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сохранение суммы балансов при конкурентных переводах для каждой
+ * стратегии {@link BalanceUpdateMode}.
+ *
+ * <p>Стратегии вызываются напрямую, без {@code CardLockManager}, поэтому
+ * корректность обеспечивается только базой данных.</p>
+ */
+class BalanceConservationIT extends PostgresIntegrationTest {
+
+    private static final int USERS = 4;
+    private static final int CARDS_PER_USER = 5;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 100;
+
+    @Autowired
+    CardRepository cardRepository;
+
+    @Autowired
+    TransferRepository transferRepository;
+
+    @Autowired
+    LedgerService ledgerService;
+
+    @Autowired
+    TransferHistoryService transferHistoryService;
+
+    // ---------- CONSERVATION ----------
+    @ParameterizedTest
+    @EnumSource(BalanceUpdateMode.class)
+    void concurrentRandomTransfers_preserveTotalBalance(BalanceUpdateMode mode) throws Exception {
+        IntegrationTestData data = data();
+        Map<String, Long> userIds = new LinkedHashMap<>();
+        Map<String, List<Long>> cardsByUser = new LinkedHashMap<>();
+
+        for (int i = 0; i < USERS; i++) {
+            String username = IntegrationTestData.uniqueUsername("conservation");
+            long userId = data.createUser(username);
+            userIds.put(username, userId);
+            cardsByUser.put(username, data.createCards(userId, username, CARDS_PER_USER, OPENING_BALANCE));
+        }
+
+        TransferWorkload.Result result = TransferWorkload.run(
+                strategy(mode), cardsByUser, THREADS, TRANSFERS_PER_THREAD, mode.ordinal()
+        );
+
+        assertTrue(result.failures().isEmpty(), () -> "Unexpected failures: " + result.failures());
+        assertTrue(result.succeeded() > 0);
+
+        long transfers = 0;
+        for (Map.Entry<String, List<Long>> entry : cardsByUser.entrySet()) {
+            BigDecimal total = BigDecimal.ZERO;
+
+            for (Long cardId : entry.getValue()) {
+                BigDecimal balance = balance(mode, cardId);
+                assertTrue(balance.signum() >= 0, () -> "Negative balance of card " + cardId);
+                assertEquals(0, balance.compareTo(data.journalBalance(cardId)), () -> "Card " + cardId + " diverged from journal");
+                total = total.add(balance);
+            }
+
+            assertEquals(0, OPENING_BALANCE.multiply(BigDecimal.valueOf(CARDS_PER_USER)).compareTo(total));
+            long userTransfers = data.transfersFromUser(userIds.get(entry.getKey()));
+            assertEquals(userTransfers, data.outgoingHistoryRows(userIds.get(entry.getKey())));
+            transfers += userTransfers;
+        }
+
+        assertEquals(result.succeeded(), transfers);
+    }
+
+    private BalanceUpdateStrategy strategy(BalanceUpdateMode mode) {
+        return new TransferConfig().balanceUpdateStrategy(
+                mode, 5, cardRepository, transferRepository, ledgerService, transferHistoryService, transactionManager
+        );
+    }
+
+    private BigDecimal balance(BalanceUpdateMode mode, long cardId) {
+        return mode == BalanceUpdateMode.LEDGER
+                ? ledgerService.balanceOf(cardId)
+                : data().cardBalance(cardId);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.bankcards.integration;
+
+import com.example.bankcards.config.TransferConfig;
+import com.example.bankcards.enums.BalanceUpdateMode;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.LedgerService;
+import com.example.bankcards.service.TransferHistoryService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Пропускная способность стратегий изменения баланса.
+ *
+ * <p>Сравнивает стратегии на «горячих» картах (один пользователь с двумя
+ * картами) и на распределённой нагрузке (много пользователей).
+ * Результат печатается в виде {@code transfers/s} и p99 задержки.
+ * Запуск: {@code mvn verify -Pload}.</p>
+ */
+@Tag("load")
+class BalanceUpdateStrategyLoadIT extends PostgresIntegrationTest {
+
+    private static final int THREADS = 32;
+    private static final int TRANSFERS_PER_THREAD = 500;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000.00");
+
+    @Autowired
+    CardRepository cardRepository;
+
+    @Autowired
+    TransferRepository transferRepository;
+
+    @Autowired
+    LedgerService ledgerService;
+
+    @Autowired
+    TransferHistoryService transferHistoryService;
+
+    // ---------- THROUGHPUT ----------
+    @ParameterizedTest(name = "{0}, {1} users x {2} cards")
+    @CsvSource({
+            "PESSIMISTIC, 1, 2",
+            "OPTIMISTIC, 1, 2",
+            "CONDITIONAL_UPDATE, 1, 2",
+            "LEDGER, 1, 2",
+            "PESSIMISTIC, 100, 5",
+            "OPTIMISTIC, 100, 5",
+            "CONDITIONAL_UPDATE, 100, 5",
+            "LEDGER, 100, 5"
+    })
+    void throughput(BalanceUpdateMode mode, int users, int cardsPerUser) throws Exception {
+        IntegrationTestData data = data();
+        Map<String, List<Long>> cardsByUser = new LinkedHashMap<>();
+
+        for (int i = 0; i < users; i++) {
+            String username = IntegrationTestData.uniqueUsername("load");
+            cardsByUser.put(username, data.createCards(data.createUser(username), username, cardsPerUser, OPENING_BALANCE));
+        }
+
+        TransferWorkload.Result result = TransferWorkload.run(
+                new TransferConfig().balanceUpdateStrategy(
+                        mode, 5, cardRepository, transferRepository, ledgerService, transferHistoryService, transactionManager
+                ),
+                cardsByUser, THREADS, TRANSFERS_PER_THREAD, 42
+        );
+
+        System.out.printf(
+                "%-18s users=%-4d cards=%-2d threads=%d: %8.1f transfers/s, p50 %6.2f ms, p99 %7.2f ms, rejected %d%n",
+                mode, users, cardsPerUser, THREADS, result.transfersPerSecond(),
+                result.latencyPercentileMillis(50), result.latencyPercentileMillis(99), result.rejected()
+        );
+
+        assertTrue(result.failures().isEmpty(), () -> "Unexpected failures: " + result.failures());
+    }
+}
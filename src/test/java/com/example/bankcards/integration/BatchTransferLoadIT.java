@@ -0,0 +1,69 @@
+package com.example.bankcards.integration;
+
+import com.example.bankcards.dto.BatchTransferRequestDto;
+import com.example.bankcards.dto.BatchTransferResponseDto;
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.enums.BatchTransferMode;
+import com.example.bankcards.service.TransferService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Пропускная способность пакетных переводов по сравнению с одиночными.
+ *
+ * <p>Одни и те же {@code size} переводов между двумя картами выполняются
+ * отдельными запросами и одним пакетом. Запуск: {@code mvn verify -Pload}.</p>
+ */
+@Tag("load")
+class BatchTransferLoadIT extends PostgresIntegrationTest {
+
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    TransferService transferService;
+
+    // ---------- THROUGHPUT ----------
+    @ParameterizedTest(name = "batch of {0}")
+    @ValueSource(ints = {10, 100, 1000})
+    void batchVersusSingleTransfers(int size) {
+        IntegrationTestData data = data();
+        String username = IntegrationTestData.uniqueUsername("batch");
+        List<Long> cards = data.createCards(data.createUser(username), username, 2, new BigDecimal("1000000.00"));
+        Authentication auth = new UsernamePasswordAuthenticationToken(username, null, List.of());
+
+        List<TransferRequestDto> transfers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            transfers.add(new TransferRequestDto(cards.get(i % 2), cards.get((i + 1) % 2), BigDecimal.ONE));
+        }
+
+        long began = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (TransferRequestDto transfer : transfers) {
+                transferService.transfer(transfer, null, auth);
+            }
+        }
+        double single = ROUNDS * size * 1e9 / (System.nanoTime() - began);
+
+        began = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            BatchTransferResponseDto response = transferService.transferBatch(
+                    new BatchTransferRequestDto(BatchTransferMode.ALL_OR_NOTHING, transfers), auth
+            );
+            assertEquals(size, response.succeeded());
+        }
+        double batch = ROUNDS * size * 1e9 / (System.nanoTime() - began);
+
+        System.out.printf("size=%-5d single %8.1f transfers/s, batch %8.1f transfers/s (x%.1f)%n",
+                size, single, batch, batch / single);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.bankcards.integration;
+
+import com.example.bankcards.dto.BulkCardIssueResponseDto;
+import com.example.bankcards.dto.CreateCardRequestDto;
+import com.example.bankcards.enums.ImportFormat;
+import com.example.bankcards.service.AdminCardService;
+import com.example.bankcards.service.BulkCardIssueService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Массовый выпуск 100 000 карт из CSV по сравнению с выпуском по одной.
+ *
+ * <p>Печатает карты в секунду для {@code BulkCardIssueService} и для
+ * {@code AdminCardService.create}. Запуск: {@code mvn verify -Pload}.</p>
+ */
+@Tag("load")
+class BulkCardIssueLoadIT extends PostgresIntegrationTest {
+
+    private static final int BULK_ROWS = 100_000;
+    private static final int SINGLE_ROWS = 2_000;
+
+    @Autowired
+    BulkCardIssueService bulkCardIssueService;
+
+    @Autowired
+    AdminCardService adminCardService;
+
+    // ---------- CARDS PER SECOND ----------
+    @Test
+    void bulkImportVersusSingleCreate() {
+        String username = IntegrationTestData.uniqueUsername("bulk");
+        long userId = data().createUser(username);
+        LocalDate expiration = LocalDate.now().plusYears(3);
+        // card numbers must be unique across runs against the same database
+        long firstNumber = ThreadLocalRandom.current().nextLong(1_000_000_000_000_000L, 8_000_000_000_000_000L);
+
+        long began = System.nanoTime();
+        for (int i = 0; i < SINGLE_ROWS; i++) {
+            adminCardService.create(new CreateCardRequestDto(
+                    userId, username, String.valueOf(firstNumber + i), expiration, BigDecimal.TEN
+            ));
+        }
+        double single = SINGLE_ROWS * 1e9 / (System.nanoTime() - began);
+
+        StringBuilder csv = new StringBuilder("userId,ownerName,cardNumber,expirationDate,balance\n");
+        for (int i = SINGLE_ROWS; i < SINGLE_ROWS + BULK_ROWS; i++) {
+            csv.append(userId).append(',').append(username).append(',')
+                    .append(firstNumber + i).append(',').append(expiration).append(",10.00\n");
+        }
+        byte[] upload = csv.toString().getBytes(StandardCharsets.UTF_8);
+
+        began = System.nanoTime();
+        BulkCardIssueResponseDto response = bulkCardIssueService.issue(new ByteArrayInputStream(upload), ImportFormat.CSV);
+        double bulk = BULK_ROWS * 1e9 / (System.nanoTime() - began);
+
+        System.out.printf("single create: %8.1f cards/s (%d cards)%n", single, SINGLE_ROWS);
+        System.out.printf("bulk import:   %8.1f cards/s (%d cards, x%.1f)%n", bulk, BULK_ROWS, bulk / single);
+
+        assertEquals(BULK_ROWS, response.succeeded(), () -> "Rejected rows: " + response.results().stream()
+                .filter(result -> !result.success())
+                .limit(5)
+                .toList());
+    }
+}
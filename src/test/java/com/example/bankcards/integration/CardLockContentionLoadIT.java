@@ -0,0 +1,84 @@
+package com.example.bankcards.integration;
+
+import com.example.bankcards.service.BalanceUpdateStrategy;
+import com.example.bankcards.service.TransferService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Переводы на «горячие» карты с полосатыми блокировками в памяти и без них.
+ *
+ * <p>Карты-получатели выбираются по закону Ципфа. Без {@code CardLockManager}
+ * конкурирующие переводы ждут блокировки строки в PostgreSQL, удерживая
+ * соединения пула; с ним они ждут в очереди полосы в памяти.
+ * Запуск: {@code mvn verify -Pload}.</p>
+ */
+@Tag("load")
+class CardLockContentionLoadIT extends PostgresIntegrationTest {
+
+    private static final int THREADS = 64;
+    private static final int TRANSFERS_PER_THREAD = 200;
+    private static final int CARDS = 100;
+
+    @Autowired
+    BalanceUpdateStrategy balanceUpdateStrategy;
+
+    @Autowired
+    TransferService transferService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    // ---------- ZIPFIAN CONTENTION ----------
+    @ParameterizedTest(name = "zipf exponent {0}")
+    @ValueSource(doubles = {0.8, 1.2, 2.0})
+    void skewedTransfers_databaseLocksVersusStripedLocks(double exponent) throws Exception {
+        IntegrationTestData data = data();
+        String username = IntegrationTestData.uniqueUsername("zipf");
+        List<Long> cards = data.createCards(data.createUser(username), username, CARDS, new BigDecimal("1000000.00"));
+        var auth = new UsernamePasswordAuthenticationToken(username, null, List.of());
+
+        TransferWorkload.Result database = TransferWorkload.run(
+                balanceUpdateStrategy::transfer,
+                TransferWorkload.zipfian(username, cards, exponent),
+                THREADS, TRANSFERS_PER_THREAD, 7
+        );
+
+        Timer lockWait = meterRegistry.timer("card.lock.wait");
+        long waitsBefore = lockWait.count();
+        double waitTotalBefore = lockWait.totalTime(TimeUnit.MILLISECONDS);
+
+        TransferWorkload.Result striped = TransferWorkload.run(
+                (request, user) -> transferService.transfer(request, null, auth),
+                TransferWorkload.zipfian(username, cards, exponent),
+                THREADS, TRANSFERS_PER_THREAD, 7
+        );
+
+        double meanLockWait = (lockWait.totalTime(TimeUnit.MILLISECONDS) - waitTotalBefore)
+                / Math.max(1, lockWait.count() - waitsBefore);
+
+        report("database locks", exponent, database);
+        report("striped locks", exponent, striped);
+        System.out.printf("%-15s s=%.1f: mean stripe wait %.2f ms%n", "striped locks", exponent, meanLockWait);
+
+        assertTrue(database.failures().isEmpty(), () -> "Unexpected failures: " + database.failures());
+        assertTrue(striped.failures().isEmpty(), () -> "Unexpected failures: " + striped.failures());
+    }
+
+    private static void report(String name, double exponent, TransferWorkload.Result result) {
+        System.out.printf("%-15s s=%.1f: %8.1f transfers/s, p50 %6.2f ms, p99 %7.2f ms, rejected %d%n",
+                name, exponent, result.transfersPerSecond(),
+                result.latencyPercentileMillis(50), result.latencyPercentileMillis(99), result.rejected());
+    }
+}
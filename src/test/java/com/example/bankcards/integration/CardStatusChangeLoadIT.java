@@ -0,0 +1,107 @@
+package com.example.bankcards.integration;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.AdminCardService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Смена статуса карты администратором: справочник в памяти против
+ * чтения строки {@code card_statuses} при каждой смене, как было до
+ * {@code ReferenceDataRegistry}.
+ *
+ * <p>Печатаются смены в секунду и число SQL-операторов на смену.
+ * Запуск: {@code mvn verify -Pload}.</p>
+ */
+@Tag("load")
+@Import(SqlStatementRecorder.Config.class)
+class CardStatusChangeLoadIT extends PostgresIntegrationTest {
+
+    private static final int CARDS = 100;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    AdminCardService adminCardService;
+
+    @Autowired
+    CardRepository cardRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    SqlStatementRecorder sqlStatementRecorder;
+
+    // ---------- STATUS CHANGES ----------
+    @Test
+    void statusChanges_registryVersusStatusLookup() {
+        IntegrationTestData data = data();
+        String username = IntegrationTestData.uniqueUsername("status");
+        List<Long> cards = data.createCards(data.createUser(username), username, CARDS, BigDecimal.ZERO);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Measurement lookup = measure(cards, (cardId, status) -> transactionTemplate.executeWithoutResult(tx -> {
+            Card card = cardRepository.findById(cardId).orElseThrow();
+            card.setStatus(entityManager
+                    .createQuery("select s from CardStatus s where s.statusCode = :status", CardStatus.class)
+                    .setParameter("status", status)
+                    .getSingleResult());
+        }));
+
+        Measurement registry = measure(cards, (cardId, status) -> {
+            if (status == CardStatusCode.BLOCKED) {
+                adminCardService.block(cardId);
+            } else {
+                adminCardService.activate(cardId);
+            }
+        });
+
+        report("status lookup", lookup);
+        report("registry", registry);
+
+        assertTrue(registry.statementsPerChange() < lookup.statementsPerChange(),
+                "Registry should save the status query on every change");
+    }
+
+    private Measurement measure(List<Long> cards, BiConsumer<Long, CardStatusCode> change) {
+        Long sample = cards.getFirst();
+        change.accept(sample, CardStatusCode.BLOCKED);
+        change.accept(sample, CardStatusCode.ACTIVE);
+
+        int statements = sqlStatementRecorder.record(() -> {
+            change.accept(sample, CardStatusCode.BLOCKED);
+            change.accept(sample, CardStatusCode.ACTIVE);
+        }).size();
+
+        long began = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            CardStatusCode status = round % 2 == 0 ? CardStatusCode.BLOCKED : CardStatusCode.ACTIVE;
+            for (Long card : cards) {
+                change.accept(card, status);
+            }
+        }
+        long elapsed = System.nanoTime() - began;
+
+        return new Measurement(ROUNDS * CARDS * 1e9 / elapsed, statements / 2.0);
+    }
+
+    private static void report(String name, Measurement measurement) {
+        System.out.printf("%-14s: %8.1f status changes/s, %.1f statements per change%n",
+                name, measurement.changesPerSecond(), measurement.statementsPerChange());
+    }
+
+    private record Measurement(double changesPerSecond, double statementsPerChange) {}
+}
@@ -0,0 +1,170 @@
+package com.example.bankcards.integration;
+
+import com.example.bankcards.security.JwtTokenProvider;
+import com.example.bankcards.security.SecurityUser;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Число SQL-операторов на запрос к эндпоинтам.
+ *
+ * <p>Каждый запрос выполняется для пользователя с небольшим и с большим
+ * числом строк, и оба раза должен выполнить одно и то же заранее известное
+ * число операторов: лишний оператор на строку (N+1) виден сразу. Перед
+ * замером выполняется один прогревочный запрос, чтобы справочники
+ * и кэш второго уровня уже были заполнены.</p>
+ */
+@AutoConfigureMockMvc
+@Import(SqlStatementRecorder.Config.class)
+class EndpointStatementCountIT extends PostgresIntegrationTest {
+
+    private static final BigDecimal BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    SqlStatementRecorder sqlStatementRecorder;
+
+    // ---------- USER CARDS ----------
+    @Test
+    void userCards_pageAndCountOnly() {
+        // the page is full in both cases, so Spring Data always runs the count query
+        assertStatements(2, fixture -> get("/api/user/cards").param("size", "5"));
+    }
+
+    @Test
+    void userCardsByStatus_pageAndCountOnly() {
+        assertStatements(2, fixture -> get("/api/user/cards/status/ACTIVE").param("size", "5"));
+    }
+
+    @Test
+    void balance_cardSnapshotAndJournalTail() {
+        assertStatements(3, fixture -> get("/api/user/cards/{id}/balance", fixture.cards().getFirst()));
+    }
+
+    // ---------- TRANSFER HISTORY ----------
+    @Test
+    void transferHistory_singleRangeQuery() {
+        assertStatements(1, fixture -> get("/api/user/transfers").param("size", "5"));
+    }
+
+    // ---------- TRANSFER ----------
+    @Test
+    void transfer_sameStatementsForEveryTransfer() {
+        Fixture fixture = fixture(2, 0);
+        request(fixture, transfer(fixture));
+
+        int first = count(fixture, transfer(fixture));
+        int second = count(fixture, transfer(fixture));
+
+        assertEquals(first, second, "Statements per transfer changed between transfers");
+    }
+
+    // ---------- ADMIN LISTS ----------
+    @Test
+    void adminCards_pageAndCountOnly() {
+        fixture(10, 0);
+        Fixture admin = admin();
+
+        request(admin, get("/api/admin/cards").param("size", "5"));
+        assertEquals(2, count(admin, get("/api/admin/cards").param("size", "5")));
+        assertEquals(2, count(admin, get("/api/admin/cards").param("size", "10")));
+    }
+
+    @Test
+    void adminUsers_pageAndCountOnly() {
+        for (int i = 0; i < 10; i++) {
+            data().createUser(IntegrationTestData.uniqueUsername("listed"));
+        }
+        Fixture admin = admin();
+
+        request(admin, get("/api/admin/users").param("size", "5"));
+        assertEquals(2, count(admin, get("/api/admin/users").param("size", "5")));
+        assertEquals(2, count(admin, get("/api/admin/users").param("size", "10")));
+    }
+
+    private void assertStatements(int expected, RequestFactory request) {
+        Fixture small = fixture(5, 5);
+        Fixture large = fixture(30, 60);
+
+        request(small, request.create(small));
+
+        assertEquals(expected, count(small, request.create(small)), "Statements with few rows");
+        assertEquals(expected, count(large, request.create(large)), "Statements with many rows");
+    }
+
+    private int count(Fixture fixture, MockHttpServletRequestBuilder request) {
+        List<SqlStatementRecorder.Statement> statements = sqlStatementRecorder.record(() -> request(fixture, request));
+        return statements.size();
+    }
+
+    private void request(Fixture fixture, MockHttpServletRequestBuilder request) {
+        try {
+            mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, "Bearer " + fixture.token()))
+                    .andExpect(status().isOk());
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private MockHttpServletRequestBuilder transfer(Fixture fixture) {
+        return post("/api/user/transfers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fromCardId\":" + fixture.cards().get(0)
+                        + ",\"toCardId\":" + fixture.cards().get(1)
+                        + ",\"amount\":1.00}");
+    }
+
+    private Fixture fixture(int cards, int transfers) {
+        IntegrationTestData data = data();
+        String username = IntegrationTestData.uniqueUsername("sql");
+        long userId = data.createUser(username);
+        List<Long> cardIds = data.createCards(userId, username, cards, BALANCE);
+
+        jdbcTemplate.update("""
+                insert into transfer_history (user_id, transfer_id, direction, from_card_id, to_card_id, amount, created_at)
+                select ?, -n, 'OUTGOING', ?, ?, 1.00, timestamp '2026-01-01' + n * interval '1 minute'
+                  from generate_series(1, ?) n
+                """, userId, cardIds.get(0), cardIds.get(1), transfers);
+
+        return new Fixture(token(userId, username, "USER"), cardIds);
+    }
+
+    private Fixture admin() {
+        String username = IntegrationTestData.uniqueUsername("admin");
+        long userId = data().createUser(username);
+        jdbcTemplate.update("update users set role_id = (select id from roles where title = 'ADMIN') where id = ?", userId);
+
+        return new Fixture(token(userId, username, "ADMIN"), List.of());
+    }
+
+    private String token(long userId, String username, String role) {
+        return jwtTokenProvider.generateToken(new SecurityUser(userId, username, "", true, role, 0));
+    }
+
+    private record Fixture(String token, List<Long> cards) {}
+
+    @FunctionalInterface
+    private interface RequestFactory {
+
+        MockHttpServletRequestBuilder create(Fixture fixture);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.bankcards.integration;
+
+import com.example.bankcards.config.ReadYourWritesTracker;
+import com.example.bankcards.config.TransferConfig;
+import com.example.bankcards.enums.BalanceUpdateMode;
+import com.example.bankcards.repository.CardBalanceSnapshotRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.service.BalanceUpdateStrategy;
+import com.example.bankcards.service.CardLockManager;
+import com.example.bankcards.service.LedgerService;
+import com.example.bankcards.service.TransferBatchItem;
+import com.example.bankcards.service.TransferBatchProcessor;
+import com.example.bankcards.service.TransferGroupCommitter;
+import com.example.bankcards.service.TransferHistoryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Переводы с групповой фиксацией и без неё.
+ *
+ * <p>Одна и та же нагрузка выполняется напрямую через стратегию (транзакция
+ * на перевод) и через {@link TransferGroupCommitter}, который в том же режиме
+ * суммирует изменения балансов пакета и откатывается на стратегию.
+ * Печатаются переводы и фиксации в секунду и p99 задержки.
+ * Запуск: {@code mvn verify -Pload}.</p>
+ */
+@Tag("load")
+class GroupCommitLoadIT extends PostgresIntegrationTest {
+
+    private static final int THREADS = 32;
+    private static final int TRANSFERS_PER_THREAD = 200;
+    private static final int USERS = 100;
+    private static final int CARDS_PER_USER = 5;
+
+    @Autowired
+    CardRepository cardRepository;
+
+    @Autowired
+    TransferRepository transferRepository;
+
+    @Autowired
+    LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    CardBalanceSnapshotRepository snapshotRepository;
+
+    @Autowired
+    TransferHistoryService transferHistoryService;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    ObjectProvider<ReadYourWritesTracker> readYourWritesTracker;
+
+    // ---------- THROUGHPUT ----------
+    @ParameterizedTest(name = "{0}")
+    @EnumSource(BalanceUpdateMode.class)
+    void groupCommitVersusTransactionPerTransfer(BalanceUpdateMode mode) throws Exception {
+        IntegrationTestData data = data();
+        Map<String, List<Long>> cardsByUser = new LinkedHashMap<>();
+
+        for (int i = 0; i < USERS; i++) {
+            String username = IntegrationTestData.uniqueUsername("group");
+            cardsByUser.put(username, data.createCards(data.createUser(username), username, CARDS_PER_USER, new BigDecimal("1000000.00")));
+        }
+
+        // the aggregated group path reads the mode from LedgerService
+        LedgerService ledgerService = new LedgerService(
+                ledgerEntryRepository, snapshotRepository, jdbcTemplate, transactionManager, mode, 10_000
+        );
+        BalanceUpdateStrategy strategy = new TransferConfig().balanceUpdateStrategy(
+                mode, 5, cardRepository, transferRepository, ledgerService, transferHistoryService, transactionManager
+        );
+
+        TransferWorkload.Result single = TransferWorkload.run(
+                strategy::transfer,
+                TransferWorkload.uniform(cardsByUser),
+                THREADS, TRANSFERS_PER_THREAD, 11
+        );
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TransferGroupCommitter groupCommitter = new TransferGroupCommitter(
+                new TransferBatchProcessor(cardRepository, transferRepository, ledgerService, transferHistoryService),
+                strategy, cardRepository, entityManager, transactionManager,
+                new CardLockManager(1024, 5000, meterRegistry),
+                readYourWritesTracker,
+                true, 2, 100, 4, 10000, meterRegistry
+        );
+
+        groupCommitter.start();
+        TransferWorkload.Result grouped;
+        try {
+            grouped = TransferWorkload.run(
+                    (request, username) -> groupCommitter.transfer(new TransferBatchItem(request, username)),
+                    TransferWorkload.uniform(cardsByUser),
+                    THREADS, TRANSFERS_PER_THREAD, 11
+            );
+        } finally {
+            groupCommitter.stop();
+        }
+
+        long flushes = meterRegistry.get("transfer.group-commit.batch.size").summary().count();
+        double fallbacks = meterRegistry.get("transfer.group-commit.fallback").counter().count();
+
+        report(mode, "per transfer", single, single.succeeded() + single.rejected());
+        report(mode, "group commit", grouped, flushes);
+        System.out.printf("%-18s %-12s: %.0f of %d groups fell back to one transaction per transfer%n",
+                mode, "group commit", fallbacks, flushes);
+
+        assertTrue(single.failures().isEmpty(), () -> "Unexpected failures: " + single.failures());
+        assertTrue(grouped.failures().isEmpty(), () -> "Unexpected failures: " + grouped.failures());
+    }
+
+    private static void report(BalanceUpdateMode mode, String name, TransferWorkload.Result result, long commits) {
+        System.out.printf("%-18s %-12s: %8.1f transfers/s, %8.1f commits/s, p50 %6.2f ms, p99 %7.2f ms, rejected %d%n",
+                mode, name, result.transfersPerSecond(), commits * 1e9 / result.elapsedNanos(),
+                result.latencyPercentileMillis(50), result.latencyPercentileMillis(99), result.rejected());
+    }
+}
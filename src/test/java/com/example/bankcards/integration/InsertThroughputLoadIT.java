@@ -0,0 +1,106 @@
+package com.example.bankcards.integration;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.service.ReferenceDataRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+/**
+ * Скорость вставки карт и переводов с пакетной отправкой JDBC и без неё.
+ *
+ * <p>Идентификаторы выделяются пулом из последовательностей, поэтому
+ * Hibernate отправляет вставки пакетами по {@code hibernate.jdbc.batch_size}.
+ * Для сравнения те же строки вставляются с {@code flush()} после каждой
+ * сущности — так вставки шли при {@code IDENTITY}, когда каждая выполнялась
+ * сразу отдельным оператором. Транзакция в обоих случаях одна на
+ * {@value #ROWS_PER_TRANSACTION} строк. Запуск: {@code mvn verify -Pload}.</p>
+ */
+@Tag("load")
+class InsertThroughputLoadIT extends PostgresIntegrationTest {
+
+    private static final int ROWS = 20_000;
+    private static final int ROWS_PER_TRANSACTION = 1000;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    ReferenceDataRegistry referenceDataRegistry;
+
+    // ---------- CARD ISSUANCE ----------
+    @ParameterizedTest(name = "batched = {0}")
+    @ValueSource(booleans = {false, true})
+    void cardInserts(boolean batched) {
+        String username = IntegrationTestData.uniqueUsername("insert");
+        long userId = data().createUser(username);
+
+        double rate = insert(batched, i -> {
+            Card card = new Card();
+            card.setUser(entityManager.getReference(User.class, userId));
+            card.setOwnerName(username);
+            card.setExpirationDate(LocalDate.now().plusYears(3));
+            card.setBalance(BigDecimal.ZERO);
+            card.setStatus(referenceDataRegistry.cardStatus(CardStatusCode.ACTIVE));
+            card.setEncryptedNumber(UUID.randomUUID().toString());
+            card.setMaskedNumber("**** **** **** 0000");
+            entityManager.persist(card);
+        });
+
+        System.out.printf("cards     batched=%-5b: %9.1f rows/s%n", batched, rate);
+    }
+
+    // ---------- TRANSFERS ----------
+    @ParameterizedTest(name = "batched = {0}")
+    @ValueSource(booleans = {false, true})
+    void transferInserts(boolean batched) {
+        IntegrationTestData data = data();
+        String username = IntegrationTestData.uniqueUsername("insert");
+        List<Long> cards = data.createCards(data.createUser(username), username, 2, BigDecimal.ZERO);
+
+        double rate = insert(batched, i -> {
+            Transfer transfer = new Transfer();
+            transfer.setFrom(entityManager.getReference(Card.class, cards.get(i % 2)));
+            transfer.setTo(entityManager.getReference(Card.class, cards.get((i + 1) % 2)));
+            transfer.setAmount(BigDecimal.ONE);
+            transfer.setCreatedAt(Instant.now());
+            entityManager.persist(transfer);
+        });
+
+        System.out.printf("transfers batched=%-5b: %9.1f rows/s%n", batched, rate);
+    }
+
+    private double insert(boolean batched, IntConsumer persist) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        long began = System.nanoTime();
+
+        for (int from = 0; from < ROWS; from += ROWS_PER_TRANSACTION) {
+            int first = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = first; i < first + ROWS_PER_TRANSACTION; i++) {
+                    persist.accept(i);
+                    if (!batched) {
+                        entityManager.flush();
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+
+        return ROWS * 1e9 / (System.nanoTime() - began);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.bankcards.integration;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Заполнение базы для интеграционных тестов напрямую через JDBC.
+ *
+ * <p>Карты создаются так же, как при выпуске через API: активными,
+ * с проводкой начального баланса в журнале.</p>
+ */
+public class IntegrationTestData {
+
+    public static final String PASSWORD = "password";
+
+    private static final String PASSWORD_HASH = new BCryptPasswordEncoder().encode(PASSWORD);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public IntegrationTestData(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public static String uniqueUsername(String prefix) {
+        return prefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public long createUser(String username) {
+        return jdbcTemplate.queryForObject("""
+                insert into users (username, password, enabled, role_id)
+                values (?, ?, true, (select id from roles where title = 'USER'))
+                returning id
+                """, Long.class, username, PASSWORD_HASH);
+    }
+
+    public long createCard(long userId, String ownerName, BigDecimal balance) {
+        return transactionTemplate.execute(status -> insertCard(userId, ownerName, balance));
+    }
+
+    private long insertCard(long userId, String ownerName, BigDecimal balance) {
+        // the card insert assigns the xid before the entry id, as LedgerService expects
+        Long cardId = jdbcTemplate.queryForObject("""
+                insert into cards (encrypted_number, masked_number, owner_name, expiration_date,
+                                   balance, status_id, user_id)
+                values (?, '**** **** **** 0000', ?, ?, ?,
+                        (select id from card_statuses where status_code = 'ACTIVE'), ?)
+                returning id
+                """, Long.class,
+                UUID.randomUUID().toString(), ownerName, Date.valueOf(LocalDate.now().plusYears(3)), balance, userId);
+
+        jdbcTemplate.update(
+                "insert into ledger_entries (card_id, amount, created_at) values (?, ?, ?)",
+                cardId, balance, Timestamp.from(Instant.now())
+        );
+
+        return cardId;
+    }
+
+    public List<Long> createCards(long userId, String ownerName, int count, BigDecimal balance) {
+        List<Long> cardIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cardIds.add(createCard(userId, ownerName, balance));
+        }
+        return cardIds;
+    }
+
+    public BigDecimal cardBalance(long cardId) {
+        return jdbcTemplate.queryForObject("select balance from cards where id = ?", BigDecimal.class, cardId);
+    }
+
+    public BigDecimal journalBalance(long cardId) {
+        return jdbcTemplate.queryForObject(
+                "select coalesce(sum(amount), 0) from ledger_entries where card_id = ?", BigDecimal.class, cardId
+        );
+    }
+
+    public long outgoingHistoryRows(long userId) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from transfer_history where user_id = ? and direction = 'OUTGOING'", Long.class, userId
+        );
+    }
+
+    public long transfersFromUser(long userId) {
+        return jdbcTemplate.queryForObject("""
+                select count(*)
+                from transfers t
+                join cards c on c.id = t.from_card_id
+                where c.user_id = ?
+                """, Long.class, userId);
+    }
+}
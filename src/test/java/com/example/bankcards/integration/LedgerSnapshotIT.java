@@ -0,0 +1,93 @@
+package com.example.bankcards.integration;
+
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.service.LedgerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LedgerSnapshotIT extends PostgresIntegrationTest {
+
+    @Autowired
+    LedgerService ledgerService;
+
+    // ---------- LOWER ID COMMITS AFTER HIGHER ID ----------
+    @Test
+    void refreshSnapshots_entryWithLowerIdCommittedLater_isNotSkipped() throws Exception {
+        IntegrationTestData data = data();
+        String username = IntegrationTestData.uniqueUsername("ledger");
+        List<Long> cards = data.createCards(data.createUser(username), username, 2, new BigDecimal("100.00"));
+        long slowCard = cards.get(0);
+        long fastCard = cards.get(1);
+
+        ledgerService.refreshSnapshots();
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // allocates the lower id and keeps its transaction open; locks the card first, like every ledger writer
+        CompletableFuture<Long> slow = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            jdbcTemplate.queryForObject("select id from cards where id = ? for update", Long.class, slowCard);
+            ledgerService.recordOpeningBalance(card(slowCard, "10.00"));
+            long id = lastEntryId(slowCard);
+            inserted.countDown();
+            await(release);
+            return id;
+        }));
+
+        assertTrue(inserted.await(10, TimeUnit.SECONDS));
+
+        // higher id, committed first
+        transactionTemplate.executeWithoutResult(status -> ledgerService.recordOpeningBalance(card(fastCard, "20.00")));
+
+        CompletableFuture<Void> refresh = CompletableFuture.runAsync(ledgerService::refreshSnapshots);
+
+        Thread.sleep(500);
+        assertFalse(refresh.isDone(), "snapshot bound must wait for the open ledger transaction");
+
+        release.countDown();
+        long slowEntryId = slow.get(10, TimeUnit.SECONDS);
+        refresh.get(10, TimeUnit.SECONDS);
+
+        assertTrue(slowEntryId < lastEntryId(fastCard));
+        assertEquals(0, new BigDecimal("110.00").compareTo(snapshotBalance(slowCard)));
+        assertEquals(0, new BigDecimal("120.00").compareTo(snapshotBalance(fastCard)));
+        assertEquals(0, new BigDecimal("110.00").compareTo(ledgerService.balanceOf(slowCard)));
+    }
+
+    private Card card(long id, String balance) {
+        Card card = new Card();
+        card.setId(id);
+        card.setBalance(new BigDecimal(balance));
+        return card;
+    }
+
+    private long lastEntryId(long cardId) {
+        return jdbcTemplate.queryForObject("select max(id) from ledger_entries where card_id = ?", Long.class, cardId);
+    }
+
+    private BigDecimal snapshotBalance(long cardId) {
+        return jdbcTemplate.queryForObject(
+                "select balance from card_balance_snapshots where card_id = ?", BigDecimal.class, cardId
+        );
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
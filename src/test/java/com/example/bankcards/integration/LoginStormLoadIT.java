@@ -0,0 +1,131 @@
+package com.example.bankcards.integration;
+
+import com.example.bankcards.dto.LoginRequestDto;
+import com.example.bankcards.exception.ServiceUnavailableException;
+import com.example.bankcards.service.AuthService;
+import com.example.bankcards.service.TransferService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Задержка переводов во время массового входа.
+ *
+ * <p>Одна и та же нагрузка переводов выполняется сначала без входов, затем
+ * параллельно с {@code LOGIN_THREADS} потоками, непрерывно вызывающими
+ * {@link AuthService#login}. Проверка BCrypt идёт в ограниченном пуле
+ * {@link com.example.bankcards.security.BoundedPasswordEncoder}, поэтому
+ * p99 переводов не должен заметно вырасти; лишние входы получают 503.
+ * Печатаются p50/p99 переводов и число успешных и отклонённых входов.
+ * Запуск: {@code mvn verify -Pload}.</p>
+ */
+@Tag("load")
+class LoginStormLoadIT extends PostgresIntegrationTest {
+
+    private static final int TRANSFER_THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 200;
+    private static final int LOGIN_THREADS = 64;
+    private static final int USERS = 50;
+    private static final int CARDS_PER_USER = 4;
+
+    @Autowired
+    TransferService transferService;
+
+    @Autowired
+    AuthService authService;
+
+    // ---------- LOGIN STORM ----------
+    @Test
+    void transferLatency_duringLoginStorm_staysFlat() throws Exception {
+        IntegrationTestData data = data();
+        Map<String, List<Long>> cardsByUser = new LinkedHashMap<>();
+
+        for (int i = 0; i < USERS; i++) {
+            String username = IntegrationTestData.uniqueUsername("storm");
+            cardsByUser.put(username, data.createCards(data.createUser(username), username, CARDS_PER_USER, new BigDecimal("1000000.00")));
+        }
+        List<String> usernames = List.copyOf(cardsByUser.keySet());
+
+        // прогрев: пул соединений, кэш пользователей, JIT
+        runTransfers(cardsByUser, 5);
+
+        TransferWorkload.Result baseline = runTransfers(cardsByUser, 11);
+
+        AtomicBoolean storming = new AtomicBoolean(true);
+        AtomicInteger loggedIn = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> loginFailures = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService storm = Executors.newFixedThreadPool(LOGIN_THREADS);
+
+        for (int t = 0; t < LOGIN_THREADS; t++) {
+            String username = usernames.get(t % usernames.size());
+            storm.execute(() -> {
+                while (storming.get()) {
+                    try {
+                        authService.login(new LoginRequestDto(username, IntegrationTestData.PASSWORD));
+                        loggedIn.incrementAndGet();
+                    } catch (ServiceUnavailableException e) {
+                        rejected.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        loginFailures.add(e);
+                    }
+                }
+            });
+        }
+
+        TransferWorkload.Result duringStorm;
+        try {
+            duringStorm = runTransfers(cardsByUser, 11);
+        } finally {
+            storming.set(false);
+            storm.shutdown();
+            storm.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        report("no logins", baseline);
+        report("login storm", duringStorm);
+        System.out.printf("login storm : %d logins, %d rejected with 503%n", loggedIn.get(), rejected.get());
+
+        assertTrue(baseline.failures().isEmpty(), () -> "Unexpected failures: " + baseline.failures());
+        assertTrue(duringStorm.failures().isEmpty(), () -> "Unexpected failures: " + duringStorm.failures());
+        assertTrue(loginFailures.isEmpty(), () -> "Unexpected login failures: " + loginFailures);
+        assertTrue(loggedIn.get() > 0, "No login succeeded during the storm");
+
+        // запас на шум общего CI-хоста; без пула BCrypt занимает все ядра и p99 растёт на порядок
+        double limit = baseline.latencyPercentileMillis(99) * 3 + 20;
+        assertTrue(duringStorm.latencyPercentileMillis(99) <= limit,
+                () -> "Transfer p99 grew from %.2f ms to %.2f ms during the login storm".formatted(
+                        baseline.latencyPercentileMillis(99), duringStorm.latencyPercentileMillis(99)));
+    }
+
+    private TransferWorkload.Result runTransfers(Map<String, List<Long>> cardsByUser, long seed) throws InterruptedException {
+        return TransferWorkload.run(
+                (request, username) -> transferService.transfer(
+                        request, null, new UsernamePasswordAuthenticationToken(username, null, List.of())
+                ),
+                TransferWorkload.uniform(cardsByUser),
+                TRANSFER_THREADS, TRANSFERS_PER_THREAD, seed
+        );
+    }
+
+    private static void report(String name, TransferWorkload.Result result) {
+        System.out.printf("%-12s: %8.1f transfers/s, p50 %6.2f ms, p99 %7.2f ms%n",
+                name, result.transfersPerSecond(),
+                result.latencyPercentileMillis(50), result.latencyPercentileMillis(99));
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bankcards.integration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Базовый класс интеграционных тестов на реальной PostgreSQL.
+ *
+ * <p>Контейнер запускается один раз на JVM и переиспользуется всеми
+ * тестами, схему создают миграции Liquibase при старте контекста.
+ * Тесты заводят собственных пользователей и карты с уникальными именами
+ * через {@link IntegrationTestData}, поэтому не мешают друг другу
+ * и не очищают базу.</p>
+ *
+ * <p>Классы интеграционных тестов называются {@code *IT} и запускаются
+ * {@code maven-failsafe-plugin} на фазе {@code verify}; для них нужен Docker.</p>
+ */
+@SpringBootTest
+public abstract class PostgresIntegrationTest {
+
+    protected static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16");
+
+    private static final Path ARCHIVE_DIR;
+
+    static {
+        POSTGRES.start();
+
+        try {
+            ARCHIVE_DIR = Files.createTempDirectory("transfer-archive");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("security.jwt.secret", () -> "c2VjcmV0LWtleS1mb3ItdGVzdHMtb25seS0zMi1ieXRlcy1sb25n");
+        registry.add("app.cors.allowed-origins", () -> "http://localhost");
+        registry.add("app.transfer-partitions.archive-dir", ARCHIVE_DIR::toString);
+    }
+
+    protected IntegrationTestData data() {
+        return new IntegrationTestData(jdbcTemplate, transactionManager);
+    }
+}
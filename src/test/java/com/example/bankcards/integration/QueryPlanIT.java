@@ -0,0 +1,273 @@
+package com.example.bankcards.integration;
+
+import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferHistoryRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.service.ReferenceDataRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Планы запросов репозиториев.
+ *
+ * <p>Каждый запрос выполняется через репозиторий, его SQL и параметры
+ * записываются {@link SqlStatementRecorder} и повторяются как
+ * {@code EXPLAIN (FORMAT JSON)} при {@code enable_seqscan = off}. При этом
+ * параметре PostgreSQL выбирает последовательный просмотр только тогда,
+ * когда ни один индекс не подходит, поэтому {@code Seq Scan} в плане
+ * означает отсутствующий индекс независимо от объёма тестовых данных.</p>
+ *
+ * <p>Для запросов к секционированной таблице {@code transfers} с границами
+ * по {@code created_at} проверяется, что план читает только нужную секцию.</p>
+ */
+@Import(SqlStatementRecorder.Config.class)
+class QueryPlanIT extends PostgresIntegrationTest {
+
+    private static final Pageable PAGE = PageRequest.of(0, 20, Sort.by("id"));
+    private static final Instant MAX_CREATED_AT = Instant.parse("9999-12-31T00:00:00Z");
+    private static final YearMonth CURRENT_MONTH = YearMonth.now(ZoneOffset.UTC);
+    // mid-month, so no time zone conversion moves it into another partition
+    private static final Instant MID_MONTH = CURRENT_MONTH.atDay(15).atTime(12, 0).toInstant(ZoneOffset.UTC);
+
+    @Autowired
+    CardRepository cardRepository;
+
+    @Autowired
+    TransferRepository transferRepository;
+
+    @Autowired
+    TransferHistoryRepository transferHistoryRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ReferenceDataRegistry referenceDataRegistry;
+
+    @Autowired
+    SqlStatementRecorder sqlStatementRecorder;
+
+    String username;
+    List<Long> cards;
+
+    @BeforeEach
+    void setUp() {
+        IntegrationTestData data = data();
+        username = IntegrationTestData.uniqueUsername("plan");
+        long userId = data.createUser(username);
+        cards = data.createCards(userId, username, 50, new BigDecimal("100.00"));
+
+        // most of the user's cards are closed, as for a long-lived customer
+        jdbcTemplate.update("""
+                update cards set status_id = (select id from card_statuses where status_code = 'CLOSED')
+                 where id = any(?)
+                """, (Object) cards.subList(10, cards.size()).toArray(Long[]::new));
+        jdbcTemplate.execute("analyze cards");
+    }
+
+    static Stream<Arguments> queries() {
+        return Stream.of(
+                query("CardRepository.findAll", t -> t.cardRepository.findAll(PAGE)),
+                query("CardRepository.findAllByUserUsername",
+                        t -> t.cardRepository.findAllByUserUsername(t.username, PAGE)),
+                query("CardRepository.findAllByUser_UsernameAndStatus_IdNot",
+                        t -> t.cardRepository.findAllByUser_UsernameAndStatus_IdNot(t.username, t.closedStatusId(), PAGE)),
+                query("CardRepository.findAllByUser_UsernameAndStatus_StatusCode",
+                        t -> t.cardRepository.findAllByUser_UsernameAndStatus_StatusCode(t.username, CardStatusCode.ACTIVE, PAGE)),
+                query("CardRepository.findByIdAndUserUsername",
+                        t -> t.cardRepository.findByIdAndUserUsername(t.cards.getFirst(), t.username)),
+                query("CardRepository.findByIdAndUser_UsernameAndStatus_StatusCodeNot",
+                        t -> t.cardRepository.findByIdAndUser_UsernameAndStatus_StatusCodeNot(
+                                t.cards.getFirst(), t.username, CardStatusCode.CLOSED)),
+                query("CardRepository.findExistingEncryptedNumbers",
+                        t -> t.cardRepository.findExistingEncryptedNumbers(List.of("missing-1", "missing-2"))),
+                query("CardRepository.findWithLockByIdAndUserUsername",
+                        t -> t.cardRepository.findWithLockByIdAndUserUsername(t.cards.getFirst(), t.username)),
+                query("CardRepository.findAllForUpdate",
+                        t -> t.cardRepository.findAllForUpdate(t.cards.subList(0, 2), t.username)),
+                query("CardRepository.debitIfSufficient",
+                        t -> t.cardRepository.debitIfSufficient(t.cards.getFirst(), t.username, BigDecimal.ONE)),
+                query("CardRepository.credit",
+                        t -> t.cardRepository.credit(t.cards.getFirst(), t.username, BigDecimal.ONE)),
+                query("TransferRepository.findMaxId", t -> t.transferRepository.findMaxId()),
+                query("TransferHistoryRepository.appendForTransfers",
+                        t -> t.transferHistoryRepository.appendForTransfers(List.of(Long.MAX_VALUE), MID_MONTH, MID_MONTH)),
+                query("TransferHistoryRepository.findPageByUser",
+                        t -> t.transferHistoryRepository.findPageByUser(
+                                t.username, Instant.EPOCH, MAX_CREATED_AT, Long.MAX_VALUE, true, true, 20)),
+                query("TransferHistoryRepository.streamByUser",
+                        t -> {
+                            try (var rows = t.transferHistoryRepository.streamByUser(
+                                    t.username, Instant.EPOCH, MAX_CREATED_AT, true, true)) {
+                                rows.forEach(row -> {});
+                            }
+                        }),
+                query("UserRepository.findByTokenVersionUpdatedAtGreaterThanEqual",
+                        t -> t.userRepository.findByTokenVersionUpdatedAtGreaterThanEqual(Instant.now()))
+        );
+    }
+
+    // ---------- NO SEQUENTIAL SCANS ----------
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void repositoryQuery_usesIndexes(Consumer<QueryPlanIT> query) {
+        List<SqlStatementRecorder.Statement> statements = recordInRolledBackTransaction(query);
+
+        assertFalse(statements.isEmpty(), "Query did not reach the database");
+
+        for (SqlStatementRecorder.Statement statement : statements) {
+            List<String> seqScans = new ArrayList<>();
+            collectNodes(explain(statement), "Seq Scan", seqScans);
+
+            assertTrue(seqScans.isEmpty(), () -> "Sequential scan on " + seqScans + " in: " + statement.sql());
+        }
+    }
+
+    // ---------- PARTIAL INDEX ----------
+    @Test
+    void openCardsOfUser_useIndexWithoutClosedCards() {
+        List<SqlStatementRecorder.Statement> statements = recordInRolledBackTransaction(
+                t -> t.cardRepository.findAllByUser_UsernameAndStatus_IdNot(t.username, t.closedStatusId(), PAGE)
+        );
+
+        List<String> indexes = new ArrayList<>();
+        collectIndexNames(explain(statements.getFirst()), indexes);
+
+        assertTrue(indexes.contains("idx_cards_user_id_open"), () -> "Indexes used: " + indexes);
+        assertEquals(10, cardRepository.findAllByUser_UsernameAndStatus_IdNot(username, closedStatusId(), PAGE).getTotalElements());
+    }
+
+    // ---------- PARTITION PRUNING ----------
+    @Test
+    void appendForTransfers_readsOnlyPartitionOfItsDates() {
+        List<SqlStatementRecorder.Statement> statements = recordInRolledBackTransaction(
+                t -> t.transferHistoryRepository.appendForTransfers(List.of(Long.MAX_VALUE), MID_MONTH, MID_MONTH)
+        );
+
+        SqlStatementRecorder.Statement append = statements.stream()
+                .filter(statement -> statement.sql().contains("insert into transfer_history"))
+                .findFirst()
+                .orElseThrow();
+
+        Set<String> partitions = new TreeSet<>();
+        collectRelationNames(explain(append), partitions);
+        partitions.removeIf(relation -> !relation.startsWith("transfers"));
+
+        String expected = "transfers_p" + CURRENT_MONTH.format(DateTimeFormatter.ofPattern("yyyyMM"));
+        assertEquals(Set.of(expected), partitions, () -> "Partitions read: " + partitions);
+    }
+
+    // ---------- ARCHIVED LEDGER ENTRIES ----------
+    @Test
+    void ledgerEntriesOfPartition_readByTransferIdIndex() {
+        String partition = "transfers_p" + CURRENT_MONTH.format(DateTimeFormatter.ofPattern("yyyyMM"));
+
+        // the statement TransferPartitionService runs when it archives a partition
+        Map<String, Object> plan = explain(new SqlStatementRecorder.Statement(
+                "delete from ledger_entries where transfer_id in (select id from " + partition + ")", List.of()
+        ));
+
+        List<String> indexes = new ArrayList<>();
+        collectIndexNames(plan, indexes);
+        assertTrue(indexes.contains("idx_ledger_entries_transfer_id"), () -> "Indexes used: " + indexes);
+    }
+
+    private Long closedStatusId() {
+        return referenceDataRegistry.cardStatus(CardStatusCode.CLOSED).getId();
+    }
+
+    private List<SqlStatementRecorder.Statement> recordInRolledBackTransaction(Consumer<QueryPlanIT> query) {
+        return sqlStatementRecorder.record(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            query.accept(this);
+            status.setRollbackOnly();
+        }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> explain(SqlStatementRecorder.Statement statement) {
+        String json = new TransactionTemplate(transactionManager).execute(status -> jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> {
+                    try (var settings = connection.createStatement()) {
+                        settings.execute("set local enable_seqscan = off");
+                    }
+                    try (PreparedStatement explain = connection.prepareStatement("explain (format json) " + statement.sql())) {
+                        statement.bind(explain);
+                        try (ResultSet rs = explain.executeQuery()) {
+                            rs.next();
+                            return rs.getString(1);
+                        }
+                    }
+                }
+        ));
+
+        List<Map<String, Object>> plans = new ObjectMapper().readValue(json, List.class);
+        return (Map<String, Object>) plans.getFirst().get("Plan");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void collectNodes(Map<String, Object> node, String nodeType, List<String> relations) {
+        if (nodeType.equals(node.get("Node Type"))) {
+            relations.add(String.valueOf(node.get("Relation Name")));
+        }
+        for (Map<String, Object> child : (List<Map<String, Object>>) node.getOrDefault("Plans", List.of())) {
+            collectNodes(child, nodeType, relations);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void collectIndexNames(Map<String, Object> node, List<String> indexes) {
+        if (node.get("Index Name") instanceof String index) {
+            indexes.add(index);
+        }
+        for (Map<String, Object> child : (List<Map<String, Object>>) node.getOrDefault("Plans", List.of())) {
+            collectIndexNames(child, indexes);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void collectRelationNames(Map<String, Object> node, Set<String> relations) {
+        if (node.get("Relation Name") instanceof String relation) {
+            relations.add(relation);
+        }
+        for (Map<String, Object> child : (List<Map<String, Object>>) node.getOrDefault("Plans", List.of())) {
+            collectRelationNames(child, relations);
+        }
+    }
+
+    private static Arguments query(String name, Consumer<QueryPlanIT> query) {
+        return Arguments.of(Named.of(name, query));
+    }
+}
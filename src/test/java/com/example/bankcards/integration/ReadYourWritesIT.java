@@ -0,0 +1,168 @@
+package com.example.bankcards.integration;
+
+import com.example.bankcards.config.ReplicaLagMonitor;
+import com.example.bankcards.dto.AsyncTransferResponseDto;
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.enums.AsyncTransferStatus;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.service.AsyncTransferService;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.TransferService;
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Чтение собственных записей при включённой реплике.
+ *
+ * <p>Репликой служит второй экземпляр PostgreSQL с той же схемой, в который
+ * записи основной БД не попадают: запрос отставания на нём возвращает 0,
+ * поэтому он ведёт себя как реплика, которая никогда не догоняет. Чтение,
+ * ушедшее на него, не находит карт, созданных тестом.</p>
+ *
+ * <p>Переводы выполняются в потоках без контекста безопасности
+ * (воркеры асинхронных переводов и групповая фиксация); после них чтение
+ * пользователя должно идти на основную БД.</p>
+ */
+class ReadYourWritesIT extends PostgresIntegrationTest {
+
+    private static final PostgreSQLContainer REPLICA = new PostgreSQLContainer("postgres:16");
+
+    static {
+        REPLICA.start();
+        createSchema(REPLICA);
+    }
+
+    @Autowired
+    ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    CardService cardService;
+
+    @Autowired
+    TransferService transferService;
+
+    @Autowired
+    AsyncTransferService asyncTransferService;
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.datasource.replica.enabled", () -> "true");
+        registry.add("app.datasource.replica.url", REPLICA::getJdbcUrl);
+        registry.add("app.datasource.replica.username", REPLICA::getUsername);
+        registry.add("app.datasource.replica.password", REPLICA::getPassword);
+        registry.add("app.transfer.group-commit.enabled", () -> "true");
+    }
+
+    @BeforeEach
+    void setUp() {
+        replicaLagMonitor.check();
+        assertTrue(replicaLagMonitor.isUsable());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // ---------- NO WRITES ----------
+    @Test
+    void getBalance_userWithoutWrites_readsFromReplica() {
+        String username = IntegrationTestData.uniqueUsername("ryw");
+        IntegrationTestData data = data();
+        long cardId = data.createCard(data.createUser(username), username, new BigDecimal("100.00"));
+
+        assertThrows(NotFoundException.class, () -> balanceAs(auth(username), cardId));
+    }
+
+    // ---------- ASYNC TRANSFER ----------
+    @Test
+    void asyncTransfer_ownReadsGoToPrimary() throws Exception {
+        String username = IntegrationTestData.uniqueUsername("ryw");
+        IntegrationTestData data = data();
+        List<Long> cards = data.createCards(data.createUser(username), username, 2, new BigDecimal("100.00"));
+        Authentication auth = auth(username);
+
+        // with an Idempotency-Key the worker applies the transfer itself, not through group commit
+        AsyncTransferResponseDto submitted = asyncTransferService.submit(
+                new TransferRequestDto(cards.get(0), cards.get(1), new BigDecimal("10.00")),
+                UUID.randomUUID().toString(),
+                auth
+        );
+
+        assertEquals(AsyncTransferStatus.COMPLETED, awaitFinished(submitted.id(), auth).status());
+        assertEquals(0, new BigDecimal("90.00").compareTo(balanceAs(auth, cards.get(0))));
+    }
+
+    // ---------- GROUP COMMIT ----------
+    @Test
+    void groupCommitTransfer_ownReadsGoToPrimary() {
+        String username = IntegrationTestData.uniqueUsername("ryw");
+        IntegrationTestData data = data();
+        List<Long> cards = data.createCards(data.createUser(username), username, 2, new BigDecimal("100.00"));
+        Authentication auth = auth(username);
+
+        transferService.transfer(new TransferRequestDto(cards.get(0), cards.get(1), new BigDecimal("10.00")), null, auth);
+
+        assertEquals(0, new BigDecimal("90.00").compareTo(balanceAs(auth, cards.get(0))));
+    }
+
+    private BigDecimal balanceAs(Authentication auth, long cardId) {
+        SecurityContextHolder.getContext().setAuthentication(auth);
+        try {
+            return cardService.getBalance(cardId, auth).balance();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private AsyncTransferResponseDto awaitFinished(UUID id, Authentication auth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+
+        while (System.currentTimeMillis() < deadline) {
+            AsyncTransferResponseDto status = asyncTransferService.getStatus(id, auth);
+            if (status.status() == AsyncTransferStatus.COMPLETED || status.status() == AsyncTransferStatus.FAILED) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+
+        return fail("Transfer did not finish in time");
+    }
+
+    private static Authentication auth(String username) {
+        return new UsernamePasswordAuthenticationToken(username, null, List.of());
+    }
+
+    private static void createSchema(PostgreSQLContainer container) {
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(new DriverManagerDataSource(
+                container.getJdbcUrl(), container.getUsername(), container.getPassword()
+        ));
+        liquibase.setChangeLog("classpath:/db/migration/db.changelog-master.yaml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+
+        try {
+            liquibase.afterPropertiesSet();
+        } catch (LiquibaseException ex) {
+            throw new IllegalStateException("Cannot create the replica schema", ex);
+        }
+    }
+}
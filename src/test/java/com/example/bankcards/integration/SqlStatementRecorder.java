@@ -0,0 +1,118 @@
+package com.example.bankcards.integration;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Записывает SQL-операторы, которые приложение выполняет через свой {@code DataSource}.
+ *
+ * <p>Подключается аннотацией {@code @Import(SqlStatementRecorder.Config.class)}:
+ * бин {@code dataSource} оборачивается в datasource-proxy. Записываются только
+ * операторы, выполненные в текущем потоке внутри {@link #record}, поэтому
+ * фоновые задачи приложения в запись не попадают.</p>
+ */
+public class SqlStatementRecorder implements QueryExecutionListener {
+
+    private final ThreadLocal<List<Statement>> recording = new ThreadLocal<>();
+
+    /**
+     * Выполняет {@code action} и возвращает операторы, выполненные за это время.
+     */
+    public List<Statement> record(Runnable action) {
+        List<Statement> statements = new ArrayList<>();
+        recording.set(statements);
+
+        try {
+            action.run();
+        } finally {
+            recording.remove();
+        }
+
+        return statements;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<Statement> statements = recording.get();
+        if (statements == null) {
+            return;
+        }
+
+        for (QueryInfo query : queryInfoList) {
+            if (query.getParametersList().isEmpty()) {
+                statements.add(new Statement(query.getQuery(), List.of()));
+            }
+            for (List<ParameterSetOperation> parameters : query.getParametersList()) {
+                statements.add(new Statement(query.getQuery(), List.copyOf(parameters)));
+            }
+        }
+    }
+
+    /**
+     * Выполненный оператор; для пакетных операторов — по одному на набор параметров.
+     */
+    public record Statement(String sql, List<ParameterSetOperation> parameters) {
+
+        /**
+         * Повторяет на {@code statement} вызовы {@code setXxx}, сделанные приложением.
+         */
+        public void bind(PreparedStatement statement) throws SQLException {
+            for (ParameterSetOperation parameter : parameters) {
+                try {
+                    parameter.getMethod().invoke(statement, parameter.getArgs());
+                } catch (InvocationTargetException ex) {
+                    if (ex.getCause() instanceof SQLException cause) {
+                        throw cause;
+                    }
+                    throw new IllegalStateException(ex.getCause());
+                } catch (IllegalAccessException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Config {
+
+        @Bean
+        SqlStatementRecorder sqlStatementRecorder() {
+            return new SqlStatementRecorder();
+        }
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor(ObjectProvider<SqlStatementRecorder> recorder) {
+            return new BeanPostProcessor() {
+
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                        return ProxyDataSourceBuilder.create(dataSource)
+                                .name("recorded")
+                                .listener(recorder.getObject())
+                                .build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
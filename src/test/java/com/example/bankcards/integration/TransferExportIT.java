@@ -0,0 +1,93 @@
+package com.example.bankcards.integration;
+
+import com.example.bankcards.dto.TransferHistoryFilterDto;
+import com.example.bankcards.enums.ExportFormat;
+import com.example.bankcards.service.TransferExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.OutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Выгрузка истории из настоящего курсора PostgreSQL.
+ *
+ * <p>Если драйвер прочитает результат целиком (например, без fetch size или
+ * вне транзакции), миллион строк останется в куче до конца выгрузки;
+ * тест замеряет удерживаемую память посередине выгрузки.</p>
+ */
+class TransferExportIT extends PostgresIntegrationTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final long MAX_RETAINED_BYTES = 64L * 1024 * 1024;
+
+    @Autowired
+    TransferExportService transferExportService;
+
+    // ---------- LARGE EXPORT ----------
+    @Test
+    void export_millionRows_isReadFromCursorWithConstantMemory() {
+        String username = IntegrationTestData.uniqueUsername("export");
+        long userId = data().createUser(username);
+
+        jdbcTemplate.update("""
+                insert into transfer_history (user_id, transfer_id, direction, from_card_id, to_card_id, amount, created_at)
+                select ?, -n, 'OUTGOING', 1, 2, 12.50, timestamp '2026-01-01' + n * interval '1 second'
+                  from generate_series(1, ?) n
+                """, userId, ROWS);
+
+        try {
+            long baseline = usedHeapAfterGc();
+            HeapSamplingOutputStream out = new HeapSamplingOutputStream(ROWS / 2);
+
+            long count = transferExportService.export(
+                    username, new TransferHistoryFilterDto(null, null, null), ExportFormat.CSV, out
+            );
+
+            long retained = out.usedHeap - baseline;
+            System.out.printf("export of %d rows: %d KiB retained halfway%n", ROWS, retained / 1024);
+
+            assertEquals(ROWS, count);
+            assertEquals(ROWS + 1, out.lines);
+            assertTrue(retained < MAX_RETAINED_BYTES, () -> "Export retained " + retained / 1024 + " KiB of heap");
+        } finally {
+            jdbcTemplate.update("delete from transfer_history where user_id = ?", userId);
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Отбрасывает данные и замеряет занятую кучу после строки {@code sampleAt}.
+     */
+    private static class HeapSamplingOutputStream extends OutputStream {
+
+        private final long sampleAt;
+        long lines;
+        long usedHeap;
+
+        HeapSamplingOutputStream(long sampleAt) {
+            this.sampleAt = sampleAt;
+        }
+
+        @Override
+        public void write(int b) {
+            if (b == '\n' && ++lines == sampleAt) {
+                usedHeap = usedHeapAfterGc();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.bankcards.integration;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.dto.TransferResponseDto;
+import com.example.bankcards.service.TransferService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TransferIdempotencyIT extends PostgresIntegrationTest {
+
+    @Autowired
+    TransferService transferService;
+
+    // ---------- EXPIRED KEY NOT YET PURGED ----------
+    @Test
+    void transfer_expiredKeyStillStored_appliesNewTransfer() {
+        IntegrationTestData data = data();
+        String username = IntegrationTestData.uniqueUsername("idempotency");
+        List<Long> cards = data.createCards(data.createUser(username), username, 2, new BigDecimal("100.00"));
+        Authentication auth = new UsernamePasswordAuthenticationToken(username, null, List.of());
+
+        jdbcTemplate.update("""
+                insert into transfer_idempotency_keys
+                       (username, idempotency_key, transfer_id, from_card_id, to_card_id, amount, created_at)
+                values (?, 'key-1', -1, ?, ?, 10.00, ?)
+                """, username, cards.get(0), cards.get(1), Timestamp.from(Instant.now().minus(2, ChronoUnit.DAYS)));
+
+        TransferRequestDto request = new TransferRequestDto(cards.get(0), cards.get(1), new BigDecimal("10.00"));
+        TransferResponseDto response = transferService.transfer(request, "key-1", auth);
+
+        assertNotEquals(-1L, response.id());
+        assertEquals(0, new BigDecimal("90.00").compareTo(data.cardBalance(cards.get(0))));
+        assertEquals(response.id(), jdbcTemplate.queryForObject(
+                "select transfer_id from transfer_idempotency_keys where username = ? and idempotency_key = 'key-1'",
+                Long.class, username
+        ));
+
+        assertEquals(response, transferService.transfer(request, "key-1", auth));
+    }
+}
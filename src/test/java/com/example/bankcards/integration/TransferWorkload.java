@@ -0,0 +1,165 @@
+package com.example.bankcards.integration;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.exception.ApiException;
+import com.example.bankcards.service.BalanceUpdateStrategy;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Конкурентная нагрузка из случайных переводов между картами пользователей.
+ *
+ * <p>Каждый поток выполняет {@code transfersPerThread} переводов, которые
+ * выбирает {@link TransferSource}. Отказы бизнес-логики ({@link ApiException}:
+ * недостаточно средств, исчерпаны повторы) считаются ожидаемыми, любые другие
+ * исключения собираются в {@link Result#failures()}.</p>
+ */
+final class TransferWorkload {
+
+    private TransferWorkload() {
+    }
+
+    static Result run(
+            BalanceUpdateStrategy strategy,
+            Map<String, List<Long>> cardsByUser,
+            int threads,
+            int transfersPerThread,
+            long seed
+    ) throws InterruptedException {
+        return run(strategy::transfer, uniform(cardsByUser), threads, transfersPerThread, seed);
+    }
+
+    /**
+     * Пользователь выбирается равномерно, затем две разные его карты
+     * и сумма от 0.01 до 100.00.
+     */
+    static TransferSource uniform(Map<String, List<Long>> cardsByUser) {
+        List<String> usernames = List.copyOf(cardsByUser.keySet());
+
+        return random -> {
+            String username = usernames.get(random.nextInt(usernames.size()));
+            List<Long> cards = cardsByUser.get(username);
+            int from = random.nextInt(cards.size());
+            int to = (from + 1 + random.nextInt(cards.size() - 1)) % cards.size();
+            return new PlannedTransfer(new TransferRequestDto(cards.get(from), cards.get(to), amount(random)), username);
+        };
+    }
+
+    /**
+     * Карта-получатель выбирается по закону Ципфа с показателем {@code exponent}:
+     * первая карта списка — самая «горячая». Карта-источник выбирается равномерно
+     * среди остальных карт пользователя.
+     */
+    static TransferSource zipfian(String username, List<Long> cards, double exponent) {
+        double[] cumulative = new double[cards.size()];
+        double total = 0;
+
+        for (int rank = 0; rank < cards.size(); rank++) {
+            total += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+
+        double norm = total;
+        return random -> {
+            int to = Arrays.binarySearch(cumulative, random.nextDouble() * norm);
+            to = to >= 0 ? to : -to - 1;
+            int from = (to + 1 + random.nextInt(cards.size() - 1)) % cards.size();
+            return new PlannedTransfer(new TransferRequestDto(cards.get(from), cards.get(to), amount(random)), username);
+        };
+    }
+
+    private static BigDecimal amount(SplittableRandom random) {
+        return BigDecimal.valueOf(random.nextLong(1, 10_001), 2);
+    }
+
+    static Result run(
+            BiConsumer<TransferRequestDto, String> executor,
+            TransferSource source,
+            int threads,
+            int transfersPerThread,
+            long seed
+    ) throws InterruptedException {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        long[] latencies = new long[threads * transfersPerThread];
+
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        SplittableRandom seeds = new SplittableRandom(seed);
+
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = seeds.split();
+            int offset = t * transfersPerThread;
+
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+
+                for (int i = 0; i < transfersPerThread; i++) {
+                    PlannedTransfer transfer = source.next(random);
+
+                    long began = System.nanoTime();
+                    try {
+                        executor.accept(transfer.request(), transfer.username());
+                        succeeded.incrementAndGet();
+                    } catch (ApiException e) {
+                        rejected.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        failures.add(e);
+                    }
+                    latencies[offset + i] = System.nanoTime() - began;
+                }
+            });
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+
+        if (!executor.awaitTermination(10, TimeUnit.MINUTES)) {
+            executor.shutdownNow();
+            throw new IllegalStateException("Transfer workload did not finish in time");
+        }
+
+        return new Result(succeeded.get(), rejected.get(), List.copyOf(failures), System.nanoTime() - began, latencies);
+    }
+
+    @FunctionalInterface
+    interface TransferSource {
+
+        PlannedTransfer next(SplittableRandom random);
+    }
+
+    record PlannedTransfer(TransferRequestDto request, String username) {}
+
+    record Result(int succeeded, int rejected, List<Throwable> failures, long elapsedNanos, long[] latencies) {
+
+        double transfersPerSecond() {
+            return succeeded * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+
+        double latencyPercentileMillis(double percentile) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class BoundedPasswordEncoderTest {
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.close();
+    }
+
+    // ---------- DELEGATION ----------
+    @Test
+    void encodeAndMatches_runOnHashingPool() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 10, meterRegistry);
+
+        String hash = encoder.encode("password");
+
+        assertTrue(encoder.matches("password", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertEquals(3, meterRegistry.get("auth.password.hash").timer().count());
+    }
+
+    @Test
+    void delegateFailure_propagated() {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches(any(), any())).thenThrow(new IllegalArgumentException("Encoded password does not look like BCrypt"));
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, meterRegistry);
+
+        assertThrows(IllegalArgumentException.class, () -> encoder.matches("password", "plain"));
+    }
+
+    // ---------- ADMISSION CONTROL ----------
+    @Test
+    void queueFull_rejectedImmediately() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches(any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return true;
+        });
+        encoder = new BoundedPasswordEncoder(delegate, 1, 1, meterRegistry);
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> encoder.matches("a", "hash"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("b", "hash"));
+        while (meterRegistry.get("auth.password.queue.size").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class, () -> encoder.matches("c", "hash"));
+        assertEquals("Password hashing is overloaded, please retry later", ex.getMessage());
+        assertEquals(1L, ex.getRetryAfterSeconds());
+        assertThrows(ServiceUnavailableException.class, () -> encoder.encode("d"));
+        assertEquals(2.0, meterRegistry.get("auth.password.rejected").counter().count());
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+}
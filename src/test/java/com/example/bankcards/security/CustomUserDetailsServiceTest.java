@@ -0,0 +1,101 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.TestDataFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomUserDetailsServiceTest {
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    SimpleMeterRegistry meterRegistry;
+    CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsService = new CustomUserDetailsService(userRepository, transactionManager, 100, 60_000, meterRegistry);
+    }
+
+    // ---------- CACHE ----------
+    @Test
+    void loadUserByUsername_secondCall_servedFromCache() {
+        when(userRepository.findByUsername("user1"))
+                .thenReturn(Optional.of(user("user1", true)));
+
+        UserDetails first = userDetailsService.loadUserByUsername("user1");
+        UserDetails second = userDetailsService.loadUserByUsername("user1");
+
+        assertEquals("user1", second.getUsername());
+        assertTrue(second.isEnabled());
+        assertTrue(second.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
+        assertNotSame(first, second);
+        verify(userRepository, times(1)).findByUsername("user1");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void loadUserByUsername_erasedCredentials_doNotLeakIntoCache() {
+        when(userRepository.findByUsername("user1"))
+                .thenReturn(Optional.of(user("user1", true)));
+
+        UserDetails first = userDetailsService.loadUserByUsername("user1");
+        ((CredentialsContainer) first).eraseCredentials();
+
+        assertEquals("hash", userDetailsService.loadUserByUsername("user1").getPassword());
+    }
+
+    @Test
+    void loadUserByUsername_notFound_isNotCached() {
+        when(userRepository.findByUsername("ghost"))
+                .thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+
+    // ---------- EVICT ----------
+    @Test
+    void evict_nextLoadReadsFreshState() {
+        when(userRepository.findByUsername("user1"))
+                .thenReturn(Optional.of(user("user1", true)))
+                .thenReturn(Optional.of(user("user1", false)));
+
+        assertTrue(userDetailsService.loadUserByUsername("user1").isEnabled());
+
+        userDetailsService.evict("user1");
+
+        assertFalse(userDetailsService.loadUserByUsername("user1").isEnabled());
+        verify(userRepository, times(2)).findByUsername("user1");
+    }
+
+    private User user(String username, boolean enabled) {
+        User user = TestDataFactory.user(1L, username, TestDataFactory.role("USER"), enabled);
+        user.setPassword("hash");
+
+        return user;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.repository.RevokedTokenRepository;
+import com.example.bankcards.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    RevokedTokenRepository revokedTokenRepository;
+
+    JwtTokenProvider tokenProvider;
+    TokenVersionRegistry tokenVersionRegistry;
+    RevocationRegistry revocationRegistry;
+    JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider(JwtTokenProviderTest.SECRET, 60_000, 100, new SimpleMeterRegistry());
+        tokenVersionRegistry = new TokenVersionRegistry(userRepository, 10_000);
+        revocationRegistry = new RevocationRegistry(userRepository, revokedTokenRepository, 10_000, 100);
+        filter = new JwtAuthenticationFilter(tokenProvider, tokenVersionRegistry, revocationRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // ---------- AUTHENTICATION FROM CLAIMS ----------
+    @Test
+    void validToken_authenticatedWithoutDatabase() throws Exception {
+        String token = tokenProvider.generateToken(JwtTokenProviderTest.user("user1"));
+
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(auth);
+        assertEquals("user1", auth.getName());
+        assertEquals("ROLE_USER", auth.getAuthorities().stream().map(GrantedAuthority::getAuthority).findFirst().orElseThrow());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void invalidToken_notAuthenticated() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("garbage"), new MockHttpServletResponse(), chain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertNotNull(chain.getRequest());
+    }
+
+    // ---------- TOKEN VERSION ----------
+    @Test
+    void tokenOlderThanCurrentVersion_rejected() throws Exception {
+        String token = tokenProvider.generateToken(JwtTokenProviderTest.user("user1"));
+        tokenVersionRegistry.advance(1L, 4);
+
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void otherUsersVersionBumped_tokenAccepted() throws Exception {
+        String token = tokenProvider.generateToken(JwtTokenProviderTest.user("user1"));
+        tokenVersionRegistry.advance(2L, 10);
+
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    // ---------- REVOCATION ----------
+    @Test
+    void blockedUser_rejected() throws Exception {
+        String token = tokenProvider.generateToken(JwtTokenProviderTest.user("user1"));
+        revocationRegistry.blockUser(1L);
+
+        filter.doFilter(request(token), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void revokedToken_rejected_otherTokensOfUserAccepted() throws Exception {
+        String revoked = tokenProvider.generateToken(JwtTokenProviderTest.user("user1"));
+        String other = tokenProvider.generateToken(JwtTokenProviderTest.user("user1"));
+        Claims claims = tokenProvider.parse(revoked).orElseThrow();
+        revocationRegistry.revokeToken(claims.getId(), 1L, claims.getExpiration().toInstant());
+
+        filter.doFilter(request(revoked), new MockHttpServletResponse(), new MockFilterChain());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+
+        filter.doFilter(request(other), new MockHttpServletResponse(), new MockFilterChain());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/cards");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.bankcards.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    static final String SECRET = "c2VjcmV0LWtleS1mb3ItdGVzdHMtb25seS0zMi1ieXRlcy1sb25n";
+    static final String OTHER_SECRET = "b3RoZXItc2VjcmV0LWtleS1mb3ItdGVzdHMtMzItYnl0ZXMtbG9uZw==";
+
+    SimpleMeterRegistry meterRegistry;
+    JwtTokenProvider tokenProvider;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tokenProvider = new JwtTokenProvider(SECRET, 60_000, 100, meterRegistry);
+    }
+
+    // ---------- PARSE ----------
+    @Test
+    void parse_validToken_returnsClaims() {
+        String token = tokenProvider.generateToken(user("user1"));
+
+        Optional<Claims> claims = tokenProvider.parse(token);
+
+        assertTrue(claims.isPresent());
+        assertEquals("user1", claims.get().getSubject());
+        assertEquals(1L, claims.get().get(JwtTokenProvider.USER_ID_CLAIM, Long.class));
+        assertEquals("USER", claims.get().get(JwtTokenProvider.ROLE_CLAIM, String.class));
+        assertEquals(3, claims.get().get(JwtTokenProvider.TOKEN_VERSION_CLAIM, Integer.class));
+    }
+
+
+    @Test
+    void parse_sameToken_verifiedOnce() {
+        String token = tokenProvider.generateToken(user("user1"));
+
+        Claims first = tokenProvider.parse(token).orElseThrow();
+        Claims second = tokenProvider.parse(token).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "jwt-claims").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void parse_tamperedToken_rejected() {
+        String token = tokenProvider.generateToken(user("user1"));
+        String[] parts = token.split("\\.");
+        String forged = parts[0] + "." + provider(SECRET, 60_000).generateToken(user("admin")).split("\\.")[1]
+                + "." + parts[2];
+
+        assertTrue(tokenProvider.parse(forged).isEmpty());
+    }
+
+    @Test
+    void parse_foreignKey_rejected() {
+        String token = provider(OTHER_SECRET, 60_000).generateToken(user("user1"));
+
+        assertTrue(tokenProvider.parse(token).isEmpty());
+    }
+
+    @Test
+    void parse_expiredToken_rejected() {
+        String token = provider(SECRET, -1_000).generateToken(user("user1"));
+
+        assertTrue(tokenProvider.parse(token).isEmpty());
+    }
+
+    @Test
+    void parse_malformedToken_rejected() {
+        assertTrue(tokenProvider.parse("not-a-jwt").isEmpty());
+        assertTrue(tokenProvider.parse("").isEmpty());
+    }
+
+    private JwtTokenProvider provider(String secret, long expiration) {
+        return new JwtTokenProvider(secret, expiration, 100, new SimpleMeterRegistry());
+    }
+
+    static SecurityUser user(String username) {
+        return new SecurityUser(1L, username, "hash", true, "USER", 3);
+    }
+}
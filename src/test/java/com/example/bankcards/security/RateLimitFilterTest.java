@@ -0,0 +1,62 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.util.RetryAfterUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    @Mock
+    RateLimiter rateLimiter;
+
+    // ---------- FILTER ----------
+    @Test
+    void withinLimit_passedToChain() throws Exception {
+        when(rateLimiter.acquire(any())).thenReturn(0L);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter().doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), response, chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void overLimit_tooManyRequestsWithRetryAfter() throws Exception {
+        when(rateLimiter.acquire(any())).thenReturn(TimeUnit.MILLISECONDS.toNanos(1500));
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter().doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("\"path\":\"/api/auth/login\""));
+    }
+
+    @Test
+    void retryAfterSeconds_roundedUp() {
+        assertEquals(1, RetryAfterUtil.toSeconds(1));
+        assertEquals(1, RetryAfterUtil.toSeconds(TimeUnit.SECONDS.toNanos(1)));
+        assertEquals(2, RetryAfterUtil.toSeconds(TimeUnit.SECONDS.toNanos(1) + 1));
+    }
+
+    private RateLimitFilter filter() {
+        return new RateLimitFilter(rateLimiter, JsonMapper.builder().build());
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.bankcards.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    SimpleMeterRegistry meterRegistry;
+    RateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new RateLimiter(List.of(
+                new RateLimiter.Route("login", HttpMethod.POST, "/api/auth/login", false, 3, 60),
+                new RateLimiter.Route("transfers", HttpMethod.POST, "/api/user/transfers/**", true, 2, 60)
+        ), 1000, 60_000, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // ---------- TOKEN BUCKET ----------
+    @Test
+    void burstUpToCapacity_thenRejectedUntilRefill() {
+        MockHttpServletRequest request = request("/api/auth/login", "10.0.0.1");
+
+        assertEquals(0, limiter.acquire(request, 0));
+        assertEquals(0, limiter.acquire(request, 0));
+        assertEquals(0, limiter.acquire(request, 0));
+        assertEquals(SECOND, limiter.acquire(request, 0));
+
+        assertEquals(SECOND / 2, limiter.acquire(request, SECOND / 2));
+        assertEquals(0, limiter.acquire(request, SECOND));
+        assertEquals(2.0, meterRegistry.get("http.rate_limit.rejected").tag("route", "login").counter().count());
+    }
+
+    @Test
+    void idleBucket_refillsOnlyUpToCapacity() {
+        MockHttpServletRequest request = request("/api/auth/login", "10.0.0.1");
+        limiter.acquire(request, 0);
+
+        long later = 100 * SECOND;
+        assertEquals(0, limiter.acquire(request, later));
+        assertEquals(0, limiter.acquire(request, later));
+        assertEquals(0, limiter.acquire(request, later));
+        assertTrue(limiter.acquire(request, later) > 0);
+    }
+
+    // ---------- KEYS ----------
+    @Test
+    void login_limitedPerIp() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire(request("/api/auth/login", "10.0.0.1"), 0);
+        }
+
+        assertTrue(limiter.acquire(request("/api/auth/login", "10.0.0.1"), 0) > 0);
+        assertEquals(0, limiter.acquire(request("/api/auth/login", "10.0.0.2"), 0));
+    }
+
+    @Test
+    void transfers_limitedPerUser() {
+        authenticate("user1");
+        limiter.acquire(request("/api/user/transfers", "10.0.0.1"), 0);
+        limiter.acquire(request("/api/user/transfers/batch", "10.0.0.2"), 0);
+
+        assertTrue(limiter.acquire(request("/api/user/transfers", "10.0.0.3"), 0) > 0);
+
+        authenticate("user2");
+        assertEquals(0, limiter.acquire(request("/api/user/transfers", "10.0.0.1"), 0));
+    }
+
+    @Test
+    void otherRoutes_notLimited() {
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/user/transfers");
+        MockHttpServletRequest cards = request("/api/user/cards", "10.0.0.1");
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.acquire(get, 0));
+            assertEquals(0, limiter.acquire(cards, 0));
+        }
+    }
+
+    // ---------- CONCURRENCY ----------
+    @Test
+    void concurrentRequests_neverExceedCapacity() throws Exception {
+        RateLimiter slow = new RateLimiter(List.of(
+                new RateLimiter.Route("login", HttpMethod.POST, "/api/auth/login", false, 50, 1)
+        ), 1000, 60_000, meterRegistry);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int t = 0; t < 8; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        if (slow.acquire(request("/api/auth/login", "10.0.0.1"), 0) == 0) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertEquals(50, allowed.get());
+    }
+
+    private static MockHttpServletRequest request(String uri, String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(ip);
+        return request;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of(SecurityUser.authority("USER")))
+        );
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.entity.RevokedToken;
+import com.example.bankcards.repository.RevokedTokenRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RevocationRegistryTest {
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    RevokedTokenRepository revokedTokenRepository;
+
+    RevocationRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new RevocationRegistry(userRepository, revokedTokenRepository, 10_000, 2);
+    }
+
+    // ---------- BLOCKED USERS ----------
+    @Test
+    void blockUser_thenUnblock() {
+        registry.blockUser(5L);
+
+        assertTrue(registry.isRevoked(5L, null));
+        assertFalse(registry.isRevoked(6L, null));
+
+        registry.unblockUser(5L);
+
+        assertFalse(registry.isRevoked(5L, null));
+    }
+
+    @Test
+    void refresh_rehydratesFromDatabase() {
+        RevokedToken token = revokedToken("token-1", Instant.now().plusSeconds(60));
+        when(userRepository.findDisabledUserIds()).thenReturn(List.of(3L));
+        when(revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(any(), any()))
+                .thenReturn(List.of(token));
+
+        registry.refresh();
+
+        assertTrue(registry.isRevoked(3L, null));
+        assertTrue(registry.isRevoked(1L, "token-1"));
+        assertFalse(registry.isRevoked(1L, "token-2"));
+    }
+
+    @Test
+    void refresh_unblockedElsewhere_cleared() {
+        registry.blockUser(3L);
+        when(userRepository.findDisabledUserIds()).thenReturn(List.of());
+
+        registry.refresh();
+
+        assertFalse(registry.isRevoked(3L, null));
+    }
+
+    @Test
+    void refresh_blockedWhileReadingDatabase_kept() {
+        when(userRepository.findDisabledUserIds()).thenAnswer(invocation -> {
+            registry.blockUser(3L);
+            return List.of();
+        });
+
+        registry.refresh();
+
+        assertTrue(registry.isRevoked(3L, null));
+    }
+
+    @Test
+    void refresh_unblockedWhileReadingDatabase_kept() {
+        registry.blockUser(3L);
+        when(userRepository.findDisabledUserIds()).thenAnswer(invocation -> {
+            registry.unblockUser(3L);
+            return List.of(3L);
+        });
+
+        registry.refresh();
+
+        assertFalse(registry.isRevoked(3L, null));
+    }
+
+    @Test
+    void refresh_afterLocalChange_databaseWins() {
+        when(userRepository.findDisabledUserIds())
+                .thenAnswer(invocation -> {
+                    registry.blockUser(3L);
+                    return List.of();
+                })
+                .thenReturn(List.of());
+
+        registry.refresh();
+        registry.refresh();
+
+        assertFalse(registry.isRevoked(3L, null));
+    }
+
+    // ---------- TRANSACTION ----------
+    @Test
+    void blockUser_insideTransaction_appliedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registry.blockUser(5L);
+
+            assertFalse(registry.isRevoked(5L, null));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(registry.isRevoked(5L, null));
+    }
+
+    @Test
+    void unblockUser_transactionRolledBack_staysBlocked() {
+        registry.blockUser(5L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registry.unblockUser(5L);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(registry.isRevoked(5L, null));
+    }
+
+    @Test
+    void millionBlockedUsers() {
+        when(userRepository.findDisabledUserIds())
+                .thenReturn(LongStream.rangeClosed(1, 1_000_000).boxed().toList());
+
+        registry.refresh();
+
+        assertTrue(registry.isRevoked(1_000_000L, null));
+        assertFalse(registry.isRevoked(1_000_001L, null));
+    }
+
+    // ---------- REVOKED TOKENS ----------
+    @Test
+    void revokeToken_persistedAndRejected() {
+        registry.revokeToken("token-1", 1L, Instant.now().plusSeconds(60));
+
+        assertTrue(registry.isRevoked(1L, "token-1"));
+        verify(revokedTokenRepository).save(argThat(token ->
+                token.getTokenId().equals("token-1") && token.getUserId().equals(1L)));
+    }
+
+    @Test
+    void revokeToken_alreadyExpired_notKept() {
+        registry.revokeToken("token-1", 1L, Instant.now().minusSeconds(1));
+
+        assertFalse(registry.isRevoked(1L, "token-1"));
+    }
+
+    @Test
+    void purgeExpired_deletesInBatches() {
+        when(revokedTokenRepository.deleteExpiredBatch(any(), eq(2)))
+                .thenReturn(2, 2, 1);
+
+        registry.purgeExpired();
+
+        verify(revokedTokenRepository, times(3)).deleteExpiredBatch(any(), eq(2));
+    }
+
+    private RevokedToken revokedToken(String tokenId, Instant expiresAt) {
+        RevokedToken token = new RevokedToken();
+        token.setTokenId(tokenId);
+        token.setUserId(1L);
+        token.setExpiresAt(expiresAt);
+        token.setRevokedAt(Instant.now());
+        return token;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.bankcards.security;
+
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.repository.UserTokenVersionView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenVersionRegistryTest {
+
+    @Mock
+    UserRepository userRepository;
+
+    TokenVersionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TokenVersionRegistry(userRepository, 10_000);
+    }
+
+    @Test
+    void isCurrent_unknownUser_versionZeroAccepted() {
+        assertTrue(registry.isCurrent(1L, 0));
+        assertFalse(registry.isCurrent(null, 0));
+        assertFalse(registry.isCurrent(1L, null));
+    }
+
+    @Test
+    void refresh_loadsVersionsFromDatabase() {
+        UserTokenVersionView user = version(1L, 2);
+        when(userRepository.findByTokenVersionGreaterThan(0)).thenReturn(List.of(user));
+
+        registry.refresh();
+
+        assertFalse(registry.isCurrent(1L, 1));
+        assertTrue(registry.isCurrent(1L, 2));
+    }
+
+    @Test
+    void refresh_neverLowersLocallyAdvancedVersion() {
+        registry.advance(1L, 3);
+        UserTokenVersionView user = version(1L, 2);
+        when(userRepository.findByTokenVersionGreaterThan(0)).thenReturn(List.of(user));
+
+        registry.refresh();
+
+        assertFalse(registry.isCurrent(1L, 2));
+    }
+
+    // ---------- INCREMENTAL REFRESH ----------
+    @Test
+    void refresh_afterFullLoad_readsOnlyRecentChanges() {
+        UserTokenVersionView loaded = version(1L, 2);
+        UserTokenVersionView changed = version(2L, 1);
+        when(userRepository.findByTokenVersionGreaterThan(0)).thenReturn(List.of(loaded));
+        when(userRepository.findByTokenVersionUpdatedAtGreaterThanEqual(any())).thenReturn(List.of(changed));
+
+        Instant beforeFullLoad = Instant.now();
+        registry.refresh();
+        Instant afterFullLoad = Instant.now();
+        registry.refresh();
+
+        // the full load runs once, later refreshes overlap the previous one by the refresh interval
+        ArgumentCaptor<Instant> since = ArgumentCaptor.forClass(Instant.class);
+        verify(userRepository, times(1)).findByTokenVersionGreaterThan(0);
+        verify(userRepository).findByTokenVersionUpdatedAtGreaterThanEqual(since.capture());
+        assertFalse(since.getValue().isBefore(beforeFullLoad.minusMillis(10_000)));
+        assertFalse(since.getValue().isAfter(afterFullLoad.minusMillis(10_000)));
+        assertFalse(registry.isCurrent(1L, 1));
+        assertFalse(registry.isCurrent(2L, 0));
+        assertTrue(registry.isCurrent(2L, 1));
+    }
+
+    // ---------- TRANSACTION ----------
+    @Test
+    void advance_insideTransaction_appliedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registry.advance(1L, 3);
+
+            assertTrue(registry.isCurrent(1L, 2));
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(registry.isCurrent(1L, 2));
+    }
+
+    @Test
+    void advance_transactionRolledBack_versionUnchanged() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registry.advance(1L, 3);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(registry.isCurrent(1L, 2));
+    }
+
+    private UserTokenVersionView version(Long id, int tokenVersion) {
+        UserTokenVersionView view = mock(UserTokenVersionView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getTokenVersion()).thenReturn(tokenVersion);
+        return view;
+    }
+}
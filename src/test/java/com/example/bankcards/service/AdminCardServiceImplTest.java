@@ -1,15 +1,18 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.AdminCardFilterDto;
 import com.example.bankcards.dto.CardResponseDto;
 import com.example.bankcards.dto.CreateCardRequestDto;
+import com.example.bankcards.dto.CursorPageDto;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.repository.CardRepository;
-import com.example.bankcards.repository.CardStatusRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.CursorUtil;
 import com.example.bankcards.util.TestDataFactory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +23,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -40,7 +44,10 @@ class AdminCardServiceImplTest {
     UserRepository userRepository;
 
     @Mock
-    CardStatusRepository cardStatusRepository;
+    ReferenceDataRegistry referenceDataRegistry;
+
+    @Mock
+    LedgerService ledgerService;
 
     @InjectMocks
     AdminCardServiceImpl adminCardService;
@@ -60,8 +67,8 @@ class AdminCardServiceImplTest {
         );
 
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(cardStatusRepository.findByStatusCode(CardStatusCode.ACTIVE))
-                .thenReturn(Optional.of(activeStatus));
+        when(referenceDataRegistry.cardStatus(CardStatusCode.ACTIVE))
+                .thenReturn(activeStatus);
 
         CardResponseDto response = adminCardService.create(dto);
 
@@ -71,6 +78,7 @@ class AdminCardServiceImplTest {
         assertTrue(response.maskedNumber().endsWith("1111"));
 
         verify(cardRepository).save(any(Card.class));
+        verify(ledgerService).recordOpeningBalance(any(Card.class));
     }
 
     // ---------- CREATE  WHEN USER NOT FOUND----------
@@ -104,8 +112,8 @@ class AdminCardServiceImplTest {
         CardStatus blockedStatus = TestDataFactory.cardStatus(CardStatusCode.BLOCKED);
 
         when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
-        when(cardStatusRepository.findByStatusCode(CardStatusCode.BLOCKED))
-                .thenReturn(Optional.of(blockedStatus));
+        when(referenceDataRegistry.cardStatus(CardStatusCode.BLOCKED))
+                .thenReturn(blockedStatus);
 
         adminCardService.block(1L);
 
@@ -136,8 +144,8 @@ class AdminCardServiceImplTest {
         CardStatus activeStatus = TestDataFactory.cardStatus(CardStatusCode.ACTIVE);
 
         when(cardRepository.findById(1L)).thenReturn(Optional.of(card));
-        when(cardStatusRepository.findByStatusCode(CardStatusCode.ACTIVE))
-                .thenReturn(Optional.of(activeStatus));
+        when(referenceDataRegistry.cardStatus(CardStatusCode.ACTIVE))
+                .thenReturn(activeStatus);
 
         adminCardService.activate(1L);
 
@@ -156,8 +164,8 @@ class AdminCardServiceImplTest {
         when(cardRepository.findById(1L))
                 .thenReturn(Optional.of(card));
 
-        when(cardStatusRepository.findByStatusCode(CardStatusCode.CLOSED))
-                .thenReturn(Optional.of(closedStatus));
+        when(referenceDataRegistry.cardStatus(CardStatusCode.CLOSED))
+                .thenReturn(closedStatus);
 
         adminCardService.delete(1L);
 
@@ -192,4 +200,64 @@ class AdminCardServiceImplTest {
         assertEquals(CardStatusCode.ACTIVE, result.getContent().get(0).status());
         assertEquals(CardStatusCode.BLOCKED, result.getContent().get(1).status());
     }
-}
\ No newline at end of file
+
+    // ---------- SCROLL ----------
+    @Test
+    @SuppressWarnings("unchecked")
+    void scroll_returnsNextCursorWhenMoreRows() {
+        when(cardRepository.findBy(any(Specification.class), any()))
+                .thenReturn(List.of(
+                        TestDataFactory.card(5L, "user1", CardStatusCode.ACTIVE, BigDecimal.TEN),
+                        TestDataFactory.card(6L, "user1", CardStatusCode.ACTIVE, BigDecimal.TEN),
+                        TestDataFactory.card(7L, "user1", CardStatusCode.ACTIVE, BigDecimal.TEN)
+                ));
+        when(referenceDataRegistry.cardStatus(CardStatusCode.ACTIVE))
+                .thenReturn(TestDataFactory.cardStatus(CardStatusCode.ACTIVE));
+
+        CursorPageDto<CardResponseDto> result = adminCardService.scroll(
+                new AdminCardFilterDto(CardStatusCode.ACTIVE, 1L, null, null),
+                CursorUtil.encodeId(4L),
+                2
+        );
+
+        assertEquals(List.of(5L, 6L), result.items().stream().map(CardResponseDto::id).toList());
+        assertEquals(6L, CursorUtil.decodeId(result.nextCursor()));
+        verify(cardRepository, never()).count();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void scroll_lastPage_hasNoCursor() {
+        when(cardRepository.findBy(any(Specification.class), any()))
+                .thenReturn(List.of(TestDataFactory.card(5L, "user1", CardStatusCode.ACTIVE, BigDecimal.TEN)));
+
+        CursorPageDto<CardResponseDto> result = adminCardService.scroll(
+                new AdminCardFilterDto(null, null, null, null),
+                null,
+                2
+        );
+
+        assertEquals(1, result.items().size());
+        assertNull(result.nextCursor());
+        verifyNoInteractions(referenceDataRegistry);
+    }
+
+    @Test
+    void scroll_invalidSize() {
+        BadRequestException ex = assertThrows(
+                BadRequestException.class,
+                () -> adminCardService.scroll(new AdminCardFilterDto(null, null, null, null), null, 101)
+        );
+
+        assertEquals("Page size must be between 1 and 100", ex.getMessage());
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void scroll_invalidCursor() {
+        assertThrows(
+                BadRequestException.class,
+                () -> adminCardService.scroll(new AdminCardFilterDto(null, null, null, null), "!!", 10)
+        );
+    }
+}
@@ -1,11 +1,17 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.AdminUserFilterDto;
+import com.example.bankcards.dto.CursorPageDto;
 import com.example.bankcards.dto.UserResponseDto;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.ConflictException;
 import com.example.bankcards.exception.ForbiddenException;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.CustomUserDetailsService;
+import com.example.bankcards.security.RevocationRegistry;
+import com.example.bankcards.security.TokenVersionRegistry;
+import com.example.bankcards.util.CursorUtil;
 import com.example.bankcards.util.TestDataFactory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +22,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 
 import java.util.List;
@@ -30,6 +37,15 @@ class AdminUserServiceImplTest {
     @Mock
     UserRepository userRepository;
 
+    @Mock
+    CustomUserDetailsService userDetailsService;
+
+    @Mock
+    TokenVersionRegistry tokenVersionRegistry;
+
+    @Mock
+    RevocationRegistry revocationRegistry;
+
     @InjectMocks
     AdminUserServiceImpl adminUserService;
 
@@ -54,6 +70,30 @@ class AdminUserServiceImplTest {
         assertTrue(dto.enabled());
     }
 
+    // ---------- SCROLL ----------
+    @Test
+    @SuppressWarnings("unchecked")
+    void scroll_success() {
+        Role userRole = TestDataFactory.role("USER");
+
+        when(userRepository.findBy(any(Specification.class), any()))
+                .thenReturn(List.of(
+                        TestDataFactory.user(3L, "user3", userRole, false),
+                        TestDataFactory.user(4L, "user4", userRole, false)
+                ));
+
+        CursorPageDto<UserResponseDto> result = adminUserService.scroll(
+                new AdminUserFilterDto(false, "USER"),
+                null,
+                1
+        );
+
+        assertEquals(1, result.items().size());
+        assertEquals("user3", result.items().getFirst().username());
+        assertEquals(3L, CursorUtil.decodeId(result.nextCursor()));
+        verify(userRepository, never()).count();
+    }
+
     // ---------- BLOCK SUCCESS ----------
     @Test
     void block_success() {
@@ -73,6 +113,11 @@ class AdminUserServiceImplTest {
         adminUserService.block(2L, auth);
 
         assertFalse(user.isEnabled());
+        assertEquals(1, user.getTokenVersion());
+        assertNotNull(user.getTokenVersionUpdatedAt());
+        verify(tokenVersionRegistry).advance(2L, 1);
+        verify(revocationRegistry).blockUser(2L);
+        verify(userDetailsService).evict("user1");
     }
 
     // ---------- BLOCK ALREADY BLOCKED ----------
@@ -163,6 +208,8 @@ class AdminUserServiceImplTest {
         adminUserService.unblock(2L, auth);
 
         assertTrue(user.isEnabled());
+        verify(revocationRegistry).unblockUser(2L);
+        verify(userDetailsService).evict("user1");
     }
 
     // ---------- UNBLOCK ALREADY ACTIVE ----------
@@ -0,0 +1,183 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.ReadYourWritesTracker;
+import com.example.bankcards.dto.AsyncTransferResponseDto;
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.dto.TransferResponseDto;
+import com.example.bankcards.enums.AsyncTransferStatus;
+import com.example.bankcards.enums.TransferDirection;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.core.Authentication;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncTransferServiceTest {
+
+    @Mock
+    TransferService transferService;
+
+    @Mock
+    TransferIdempotencyService idempotencyService;
+
+    @Mock
+    ObjectProvider<ReadYourWritesTracker> readYourWritesProvider;
+
+    ReadYourWritesTracker readYourWrites = new ReadYourWritesTracker(60_000, 100);
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    AsyncTransferService asyncTransferService;
+
+    @AfterEach
+    void tearDown() {
+        if (asyncTransferService != null) {
+            asyncTransferService.stop();
+        }
+    }
+
+    // ---------- HAPPY PATH ----------
+    @Test
+    void submit_processesTransferInBackground() throws Exception {
+        Authentication auth = auth("user1");
+        TransferRequestDto request = new TransferRequestDto(1L, 2L, BigDecimal.TEN);
+        TransferResponseDto response = new TransferResponseDto(
+                100L, 1L, 2L, BigDecimal.TEN, Instant.now(), TransferDirection.OUTGOING
+        );
+
+        when(transferService.transfer(request, "key-1", auth)).thenReturn(response);
+
+        asyncTransferService = service(10, 2);
+        asyncTransferService.start();
+
+        AsyncTransferResponseDto submitted = asyncTransferService.submit(request, "key-1", auth);
+        assertEquals(AsyncTransferStatus.QUEUED, submitted.status());
+
+        AsyncTransferResponseDto completed = awaitFinished(submitted.id(), auth);
+
+        assertEquals(AsyncTransferStatus.COMPLETED, completed.status());
+        assertEquals(100L, completed.transfer().id());
+        verify(idempotencyService).validateKey("key-1");
+        assertTrue(readYourWrites.hasRecentWrite("user1"));
+        assertEquals(1, meterRegistry.get("transfer.async.latency").tag("outcome", "completed").timer().count());
+    }
+
+    // ---------- BUSINESS ERROR ----------
+    @Test
+    void submit_businessError_marksFailed() throws Exception {
+        Authentication auth = auth("user1");
+
+        when(transferService.transfer(any(), any(), any()))
+                .thenThrow(new ConflictException("Insufficient balance"));
+
+        asyncTransferService = service(10, 1);
+        asyncTransferService.start();
+
+        AsyncTransferResponseDto submitted =
+                asyncTransferService.submit(new TransferRequestDto(1L, 2L, BigDecimal.TEN), null, auth);
+
+        AsyncTransferResponseDto failed = awaitFinished(submitted.id(), auth);
+
+        assertEquals(AsyncTransferStatus.FAILED, failed.status());
+        assertEquals("Insufficient balance", failed.error());
+        assertFalse(readYourWrites.hasRecentWrite("user1"));
+    }
+
+    // ---------- BACKPRESSURE ----------
+    @Test
+    void submit_queueFull_throws503() {
+        Authentication auth = mock(Authentication.class);
+        asyncTransferService = service(1, 0);
+
+        asyncTransferService.submit(new TransferRequestDto(1L, 2L, BigDecimal.TEN), null, auth);
+
+        ServiceUnavailableException ex = assertThrows(
+                ServiceUnavailableException.class,
+                () -> asyncTransferService.submit(new TransferRequestDto(1L, 2L, BigDecimal.ONE), null, auth)
+        );
+
+        assertEquals("Transfer queue is full, please retry later", ex.getMessage());
+        assertEquals(1.0, meterRegistry.get("transfer.async.queue.size").gauge().value());
+        assertEquals(1.0, meterRegistry.get("transfer.async.rejected").counter().count());
+    }
+
+    // ---------- VALIDATION ----------
+    @Test
+    void submit_sameCard_rejectedBeforeQueueing() {
+        asyncTransferService = service(1, 0);
+
+        assertThrows(
+                BadRequestException.class,
+                () -> asyncTransferService.submit(new TransferRequestDto(1L, 1L, BigDecimal.TEN), null, mock(Authentication.class))
+        );
+
+        assertEquals(0.0, meterRegistry.get("transfer.async.queue.size").gauge().value());
+    }
+
+    // ---------- STATUS ----------
+    @Test
+    void getStatus_otherUser_notFound() {
+        asyncTransferService = service(1, 0);
+
+        AsyncTransferResponseDto submitted =
+                asyncTransferService.submit(new TransferRequestDto(1L, 2L, BigDecimal.TEN), null, auth("user1"));
+
+        assertThrows(
+                NotFoundException.class,
+                () -> asyncTransferService.getStatus(submitted.id(), auth("user2"))
+        );
+    }
+
+    @Test
+    void getStatus_unknownId_notFound() {
+        asyncTransferService = service(1, 0);
+
+        assertThrows(
+                NotFoundException.class,
+                () -> asyncTransferService.getStatus(UUID.randomUUID(), mock(Authentication.class))
+        );
+    }
+
+    private AsyncTransferService service(int queueCapacity, int workers) {
+        when(readYourWritesProvider.getIfAvailable()).thenReturn(readYourWrites);
+        return new AsyncTransferService(
+                transferService, idempotencyService, readYourWritesProvider, queueCapacity, workers, 100, meterRegistry
+        );
+    }
+
+    private AsyncTransferResponseDto awaitFinished(UUID id, Authentication auth) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (System.currentTimeMillis() < deadline) {
+            AsyncTransferResponseDto status = asyncTransferService.getStatus(id, auth);
+            if (status.status() == AsyncTransferStatus.COMPLETED || status.status() == AsyncTransferStatus.FAILED) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+
+        return fail("Transfer did not finish in time");
+    }
+
+    private Authentication auth(String username) {
+        Authentication auth = mock(Authentication.class);
+        lenient().when(auth.getName()).thenReturn(username);
+        return auth;
+    }
+}
@@ -2,9 +2,14 @@ package com.example.bankcards.service;
 
 import com.example.bankcards.dto.JwtResponseDto;
 import com.example.bankcards.dto.LoginRequestDto;
+import com.example.bankcards.dto.RefreshTokenRequestDto;
 import com.example.bankcards.exception.ForbiddenException;
 import com.example.bankcards.exception.UnauthorizedException;
 import com.example.bankcards.security.JwtTokenProvider;
+import com.example.bankcards.security.RevocationRegistry;
+import com.example.bankcards.security.SecurityUser;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -16,6 +21,9 @@ import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 
+import java.util.Date;
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,28 +38,39 @@ class AuthServiceTest {
     @Mock
     JwtTokenProvider jwtTokenProvider;
 
+    @Mock
+    RevocationRegistry revocationRegistry;
+
+    @Mock
+    RefreshTokenService refreshTokenService;
+
     @InjectMocks
     AuthService authService;
 
     // ---------- HAPPY PATH ----------
     @Test
     void login_success() {
+        SecurityUser user = new SecurityUser(1L, "user1", "hash", true, "USER", 0);
         Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(user);
 
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
 
-        when(jwtTokenProvider.generateToken(authentication))
+        when(jwtTokenProvider.generateToken(user))
                 .thenReturn("jwt-token");
+        when(refreshTokenService.issue(1L))
+                .thenReturn("refresh-token");
 
         JwtResponseDto response = authService.login(
                 new LoginRequestDto("user1", "password")
         );
 
         assertEquals("jwt-token", response.token());
+        assertEquals("refresh-token", response.refreshToken());
 
         verify(authenticationManager).authenticate(any());
-        verify(jwtTokenProvider).generateToken(authentication);
+        verify(jwtTokenProvider).generateToken(user);
     }
 
     // ---------- USER BLOCKED ----------
@@ -91,4 +110,67 @@ class AuthServiceTest {
         verify(authenticationManager).authenticate(any());
         verifyNoInteractions(jwtTokenProvider);
     }
+
+    // ---------- LOGOUT ----------
+    @Test
+    void logout_revokesToken() {
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        Claims claims = Jwts.claims()
+                .id("token-1")
+                .expiration(expiration)
+                .add(JwtTokenProvider.USER_ID_CLAIM, 1L)
+                .build();
+        when(jwtTokenProvider.parse("jwt-token")).thenReturn(Optional.of(claims));
+
+        authService.logout("Bearer jwt-token", new RefreshTokenRequestDto("refresh-token"));
+
+        verify(revocationRegistry).revokeToken("token-1", 1L, expiration.toInstant());
+        verify(refreshTokenService).revoke("refresh-token");
+    }
+
+    @Test
+    void logout_expiredAccessToken_refreshTokenStillRevoked() {
+        when(jwtTokenProvider.parse("expired")).thenReturn(Optional.empty());
+
+        authService.logout("Bearer expired", new RefreshTokenRequestDto("refresh-token"));
+
+        verify(refreshTokenService).revoke("refresh-token");
+        verifyNoInteractions(revocationRegistry);
+    }
+
+    @Test
+    void logout_invalidToken_throwsUnauthorized() {
+        when(jwtTokenProvider.parse("garbage")).thenReturn(Optional.empty());
+
+        UnauthorizedException ex = assertThrows(
+                UnauthorizedException.class,
+                () -> authService.logout("Bearer garbage", null)
+        );
+
+        assertEquals("Invalid token", ex.getMessage());
+        verifyNoInteractions(revocationRegistry);
+    }
+
+    @Test
+    void logout_missingHeader_throwsUnauthorized() {
+        assertThrows(UnauthorizedException.class, () -> authService.logout(null, null));
+        assertThrows(UnauthorizedException.class, () -> authService.logout("Basic abc", null));
+
+        verifyNoInteractions(jwtTokenProvider, revocationRegistry, refreshTokenService);
+    }
+
+    // ---------- REFRESH ----------
+    @Test
+    void refresh_rotatesAndIssuesAccessToken() {
+        SecurityUser user = new SecurityUser(1L, "user1", "hash", true, "USER", 0);
+        when(refreshTokenService.rotate("refresh-token"))
+                .thenReturn(new RefreshTokenService.Rotation(user, "next-refresh-token"));
+        when(jwtTokenProvider.generateToken(user))
+                .thenReturn("jwt-token");
+
+        JwtResponseDto response = authService.refresh(new RefreshTokenRequestDto("refresh-token"));
+
+        assertEquals("jwt-token", response.token());
+        assertEquals("next-refresh-token", response.refreshToken());
+    }
 }
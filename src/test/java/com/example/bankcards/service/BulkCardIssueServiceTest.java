@@ -0,0 +1,193 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.BulkCardIssueItemResultDto;
+import com.example.bankcards.dto.BulkCardIssueResponseDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.enums.ImportFormat;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.CardCryptoUtil;
+import com.example.bankcards.util.TestDataFactory;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkCardIssueServiceTest {
+
+    @Mock
+    CardRepository cardRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    ReferenceDataRegistry referenceDataRegistry;
+
+    @Mock
+    LedgerService ledgerService;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    BulkCardIssueService service;
+
+    @BeforeEach
+    void setUp() {
+        service = service(1000);
+
+        CardStatus active = TestDataFactory.cardStatus(CardStatusCode.ACTIVE);
+        lenient().when(referenceDataRegistry.cardStatus(CardStatusCode.ACTIVE)).thenReturn(active);
+        lenient().when(userRepository.findAllById(any()))
+                .thenReturn(List.of(TestDataFactory.user(1L, "user1")));
+
+        AtomicLong ids = new AtomicLong();
+        lenient().when(cardRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Card> cards = invocation.getArgument(0);
+            cards.forEach(card -> card.setId(ids.incrementAndGet()));
+            return cards;
+        });
+    }
+
+    // ---------- CSV ----------
+    @Test
+    void issue_csv_createsCardsAndReportsEachLine() {
+        BulkCardIssueResponseDto response = service.issue(input("""
+                userId,ownerName,cardNumber,expirationDate,balance
+                1,Ivan Ivanov,4111111111111234,2099-12-31,100.00
+                1,Ivan Ivanov,4111111111115678,2099-12-31,0
+                """), ImportFormat.CSV);
+
+        assertEquals(2, response.succeeded());
+        assertEquals(0, response.failed());
+        assertEquals(List.of(2, 3), response.results().stream().map(BulkCardIssueItemResultDto::line).toList());
+        assertEquals(1L, response.results().getFirst().cardId());
+
+        verify(cardRepository).saveAll(argThat((List<Card> cards) ->
+                cards.size() == 2
+                        && cards.getFirst().getEncryptedNumber().equals(CardCryptoUtil.encrypt("4111111111111234"))
+                        && cards.getFirst().getMaskedNumber().endsWith("1234")
+                        && cards.getFirst().getStatus().getStatusCode() == CardStatusCode.ACTIVE));
+        verify(ledgerService).recordOpeningBalances(argThat(cards -> cards.size() == 2));
+    }
+
+    @Test
+    void issue_csv_invalidRows_reportedWithoutAbortingImport() {
+        BulkCardIssueResponseDto response = service.issue(input("""
+                userId,ownerName,cardNumber,expirationDate,balance
+                1,Ivan Ivanov,4111111111111234,2099-12-31,100.00
+                1,Ivan Ivanov,123,2099-12-31,100.00
+                not-a-number,Ivan Ivanov,4111111111115678,2099-12-31,100.00
+                1,Ivan Ivanov,4111111111111234,2099-12-31,100.00
+                2,Petr Petrov,4111111111119999,2099-12-31,100.00
+                """), ImportFormat.CSV);
+
+        assertEquals(1, response.succeeded());
+        assertEquals(4, response.failed());
+        assertEquals("cardNumber: Card number must contain 16 digits", response.results().get(1).error());
+        assertEquals("Malformed row", response.results().get(2).error());
+        assertEquals("Duplicate card number in upload", response.results().get(3).error());
+        assertEquals("User not found", response.results().get(4).error());
+    }
+
+    @Test
+    void issue_existingCardNumber_rejected() {
+        when(cardRepository.findExistingEncryptedNumbers(anyCollection()))
+                .thenReturn(List.of(CardCryptoUtil.encrypt("4111111111111234")));
+
+        BulkCardIssueResponseDto response = service.issue(input("""
+                1,Ivan Ivanov,4111111111111234,2099-12-31,100.00
+                """), ImportFormat.CSV);
+
+        assertEquals(0, response.succeeded());
+        assertEquals("Card number already exists", response.results().getFirst().error());
+    }
+
+    @Test
+    void issue_chunkRolledBack_rowsOfThatChunkFailed() {
+        service = service(1);
+        when(cardRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        BulkCardIssueResponseDto response = service.issue(input("""
+                1,Ivan Ivanov,4111111111111234,2099-12-31,100.00
+                1,Ivan Ivanov,4111111111115678,2099-12-31,100.00
+                """), ImportFormat.CSV);
+
+        assertEquals(1, response.succeeded());
+        assertEquals("Card could not be saved", response.results().getFirst().error());
+        assertTrue(response.results().get(1).success());
+    }
+
+    // ---------- NDJSON ----------
+    @Test
+    void issue_ndjson_success() {
+        BulkCardIssueResponseDto response = service.issue(input("""
+                {"userId":1,"ownerName":"Ivan Ivanov","cardNumber":"4111111111111234","expirationDate":"2099-12-31","balance":100.00}
+                {"userId":1,"ownerName":"Ivan Ivanov"
+                null
+                """), ImportFormat.NDJSON);
+
+        assertEquals(1, response.succeeded());
+        assertEquals(2, response.failed());
+        assertEquals("Malformed row", response.results().get(1).error());
+        assertEquals("Malformed row", response.results().get(2).error());
+    }
+
+    // ---------- LARGE IMPORT ----------
+    @Test
+    void issue_100kRows_insertedChunkByChunk() {
+        InputStream rows = new SequenceInputStream(Collections.enumeration(IntStream.range(0, 100_000)
+                .mapToObj(i -> (InputStream) new ByteArrayInputStream(
+                        ("1,Ivan Ivanov,4111%012d,2099-12-31,100.00\n".formatted(i)).getBytes(StandardCharsets.UTF_8)))
+                .toList()));
+
+        BulkCardIssueResponseDto response = service.issue(rows, ImportFormat.CSV);
+
+        assertEquals(100_000, response.succeeded());
+        assertEquals(0, response.failed());
+        verify(cardRepository, times(100)).saveAll(anyList());
+        verify(userRepository, times(100)).findAllById(any());
+    }
+
+    private BulkCardIssueService service(int chunkSize) {
+        return new BulkCardIssueService(
+                cardRepository,
+                userRepository,
+                referenceDataRegistry,
+                ledgerService,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                JsonMapper.builder().build(),
+                transactionManager,
+                chunkSize
+        );
+    }
+
+    private InputStream input(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.exception.ConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardLockManagerTest {
+
+    SimpleMeterRegistry meterRegistry;
+
+    CardLockManager cardLockManager;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cardLockManager = new CardLockManager(1000, 200, meterRegistry);
+    }
+
+    // ---------- STRIPE COUNT ----------
+    @Test
+    void stripeCount_roundedUpToPowerOfTwo() {
+        assertEquals(1024, cardLockManager.stripeCount());
+    }
+
+    // ---------- REENTRANT LEASE ----------
+    @Test
+    void lock_sameStripeTwice_acquiredOnce() {
+        try (CardLockManager.Lease ignored = cardLockManager.lock(List.of(1L, 1L + 1024))) {
+            assertEquals(cardLockManager.stripeOf(1L), cardLockManager.stripeOf(1L + 1024));
+        }
+
+        assertEquals(1, meterRegistry.get("card.lock.wait").timer().count());
+    }
+
+    // ---------- CONTENDED CARD TIMES OUT ----------
+    @Test
+    void lock_heldByAnotherThread_timesOut() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try {
+            Future<?> holder = executor.submit(() -> {
+                try (CardLockManager.Lease ignored = cardLockManager.lock(List.of(1L))) {
+                    locked.countDown();
+                    release.await();
+                }
+                return null;
+            });
+
+            assertTrue(locked.await(1, TimeUnit.SECONDS));
+
+            ConflictException ex = assertThrows(
+                    ConflictException.class,
+                    () -> cardLockManager.lock(List.of(1024L, 1L))
+            );
+            assertEquals("Card is busy, please retry", ex.getMessage());
+            assertEquals(1.0, meterRegistry.get("card.lock.timeouts").counter().count());
+
+            release.countDown();
+            holder.get(1, TimeUnit.SECONDS);
+
+            // stripe of card 1024 (taken first) must have been released after the timeout
+            try (CardLockManager.Lease ignored = cardLockManager.lock(List.of(1024L, 1L))) {
+                assertEquals(0.0, meterRegistry.get("card.lock.queued").gauge().value());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -9,7 +9,6 @@ import com.example.bankcards.exception.ConflictException;
 import com.example.bankcards.exception.ForbiddenException;
 import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.repository.CardRepository;
-import com.example.bankcards.repository.CardStatusRepository;
 import com.example.bankcards.util.TestDataFactory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -39,7 +38,10 @@ class CardServiceImplTest {
     CardRepository cardRepository;
 
     @Mock
-    CardStatusRepository cardStatusRepository;
+    ReferenceDataRegistry referenceDataRegistry;
+
+    @Mock
+    LedgerService ledgerService;
 
     @InjectMocks
     CardServiceImpl cardService;
@@ -60,9 +62,14 @@ class CardServiceImplTest {
                 2
         );
 
-        when(cardRepository.findAllByUser_UsernameAndStatus_StatusCodeNot(
+        CardStatus closedStatus = new CardStatus();
+        closedStatus.setId(4L);
+        closedStatus.setStatusCode(CardStatusCode.CLOSED);
+
+        when(referenceDataRegistry.cardStatus(CardStatusCode.CLOSED)).thenReturn(closedStatus);
+        when(cardRepository.findAllByUser_UsernameAndStatus_IdNot(
                 eq("user1"),
-                eq(CardStatusCode.CLOSED),
+                eq(4L),
                 any(Pageable.class)
         )).thenReturn(page);
 
@@ -73,9 +80,9 @@ class CardServiceImplTest {
         assertEquals(CardStatusCode.ACTIVE, result.getContent().get(0).status());
         assertEquals(CardStatusCode.BLOCKED, result.getContent().get(1).status());
 
-        verify(cardRepository).findAllByUser_UsernameAndStatus_StatusCodeNot(
+        verify(cardRepository).findAllByUser_UsernameAndStatus_IdNot(
                 eq("user1"),
-                eq(CardStatusCode.CLOSED),
+                eq(4L),
                 any(Pageable.class)
         );
     }
@@ -134,11 +141,12 @@ class CardServiceImplTest {
         when(auth.getName()).thenReturn("user1");
 
         Card card = TestDataFactory.card(
-                1L, "user1", CardStatusCode.ACTIVE, new BigDecimal("123.45")
+                1L, "user1", CardStatusCode.ACTIVE, new BigDecimal("100.00")
         );
 
         when(cardRepository.findByIdAndUser_UsernameAndStatus_StatusCodeNot(1L, "user1", CardStatusCode.CLOSED))
                 .thenReturn(Optional.of(card));
+        when(ledgerService.balanceOf(1L)).thenReturn(new BigDecimal("123.45"));
 
         BalanceResponseDto response =
                 cardService.getBalance(1L, auth);
@@ -177,8 +185,8 @@ class CardServiceImplTest {
 
         when(cardRepository.findByIdAndUser_UsernameAndStatus_StatusCodeNot(1L, "user1", CardStatusCode.CLOSED))
                 .thenReturn(Optional.of(card));
-        when(cardStatusRepository.findByStatusCode(CardStatusCode.BLOCKED))
-                .thenReturn(Optional.of(blockedStatus));
+        when(referenceDataRegistry.cardStatus(CardStatusCode.BLOCKED))
+                .thenReturn(blockedStatus);
 
         cardService.requestBlock(1L, auth);
 
@@ -210,7 +218,7 @@ class CardServiceImplTest {
         );
 
         assertEquals("Card is already blocked", ex.getMessage());
-        verifyNoInteractions(cardStatusRepository);
+        verifyNoInteractions(referenceDataRegistry);
     }
 
     // ---------- REQUEST BLOCK WHEN CARD WAS EXPIRED----------
@@ -240,7 +248,7 @@ class CardServiceImplTest {
         assertEquals("Expired card cannot be blocked", ex.getMessage());
 
         // 🔒 Статус не должен искаться
-        verifyNoInteractions(cardStatusRepository);
+        verifyNoInteractions(referenceDataRegistry);
     }
 
     // ---------- REQUEST BLOCK WHEN ALREADY BLOCKED----------
@@ -0,0 +1,125 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.util.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConditionalBalanceUpdateStrategyTest {
+
+    @Mock
+    CardRepository cardRepository;
+
+    @Mock
+    TransferRepository transferRepository;
+
+    @Mock
+    LedgerService ledgerService;
+
+    @Mock
+    TransferHistoryService transferHistoryService;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    ConditionalBalanceUpdateStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        strategy = new ConditionalBalanceUpdateStrategy(
+                cardRepository,
+                transferRepository,
+                ledgerService,
+                transferHistoryService,
+                new TransactionTemplate(transactionManager)
+        );
+    }
+
+    // ---------- HAPPY PATH ----------
+    @Test
+    void transfer_success_doesNotLoadCards() {
+        Card from = TestDataFactory.card(1L, "user1", CardStatusCode.ACTIVE, null);
+        Card to = TestDataFactory.card(2L, "user1", CardStatusCode.ACTIVE, null);
+
+        when(cardRepository.debitIfSufficient(1L, "user1", BigDecimal.TEN)).thenReturn(1);
+        when(cardRepository.credit(2L, "user1", BigDecimal.TEN)).thenReturn(1);
+        when(cardRepository.getReferenceById(1L)).thenReturn(from);
+        when(cardRepository.getReferenceById(2L)).thenReturn(to);
+
+        Transfer transfer = strategy.transfer(new TransferRequestDto(1L, 2L, BigDecimal.TEN), "user1");
+
+        assertEquals(1L, transfer.getFrom().getId());
+        assertEquals(2L, transfer.getTo().getId());
+        verify(cardRepository, never()).findByIdAndUserUsername(any(), any());
+        verify(transferRepository).save(any());
+    }
+
+    // ---------- UPDATE ORDER ----------
+    @Test
+    void transfer_updatesRowsInAscendingIdOrder() {
+        when(cardRepository.debitIfSufficient(2L, "user1", BigDecimal.TEN)).thenReturn(1);
+        when(cardRepository.credit(1L, "user1", BigDecimal.TEN)).thenReturn(1);
+
+        strategy.transfer(new TransferRequestDto(2L, 1L, BigDecimal.TEN), "user1");
+
+        InOrder inOrder = inOrder(cardRepository);
+        inOrder.verify(cardRepository).credit(1L, "user1", BigDecimal.TEN);
+        inOrder.verify(cardRepository).debitIfSufficient(2L, "user1", BigDecimal.TEN);
+    }
+
+    // ---------- INSUFFICIENT FUNDS ----------
+    @Test
+    void transfer_insufficientFunds() {
+        when(cardRepository.debitIfSufficient(1L, "user1", BigDecimal.TEN)).thenReturn(0);
+        when(cardRepository.findByIdAndUserUsername(1L, "user1"))
+                .thenReturn(Optional.of(TestDataFactory.card(
+                        1L, "user1", CardStatusCode.ACTIVE, BigDecimal.ONE)));
+
+        ConflictException ex = assertThrows(
+                ConflictException.class,
+                () -> strategy.transfer(new TransferRequestDto(1L, 2L, BigDecimal.TEN), "user1")
+        );
+
+        assertEquals("Insufficient balance", ex.getMessage());
+        verify(cardRepository, never()).credit(any(), any(), any());
+        verify(transferRepository, never()).save(any());
+    }
+
+    // ---------- TARGET NOT FOUND ----------
+    @Test
+    void transfer_targetCardNotFound() {
+        when(cardRepository.debitIfSufficient(1L, "user1", BigDecimal.TEN)).thenReturn(1);
+        when(cardRepository.credit(2L, "user1", BigDecimal.TEN)).thenReturn(0);
+        when(cardRepository.findByIdAndUserUsername(2L, "user1")).thenReturn(Optional.empty());
+
+        NotFoundException ex = assertThrows(
+                NotFoundException.class,
+                () -> strategy.transfer(new TransferRequestDto(1L, 2L, BigDecimal.TEN), "user1")
+        );
+
+        assertEquals("Target card not found", ex.getMessage());
+        verify(transactionManager).rollback(any());
+    }
+}
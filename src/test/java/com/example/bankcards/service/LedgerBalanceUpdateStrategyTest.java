@@ -0,0 +1,98 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.util.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerBalanceUpdateStrategyTest {
+
+    @Mock
+    CardRepository cardRepository;
+
+    @Mock
+    TransferRepository transferRepository;
+
+    @Mock
+    LedgerService ledgerService;
+
+    @Mock
+    TransferHistoryService transferHistoryService;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    LedgerBalanceUpdateStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        strategy = new LedgerBalanceUpdateStrategy(
+                cardRepository,
+                transferRepository,
+                ledgerService,
+                transferHistoryService,
+                new TransactionTemplate(transactionManager)
+        );
+    }
+
+    // ---------- HAPPY PATH ----------
+    @Test
+    void transfer_success_locksOnlySourceAndKeepsCardBalances() {
+        Card from = TestDataFactory.card(1L, "user1", CardStatusCode.ACTIVE, BigDecimal.ZERO);
+        Card to = TestDataFactory.card(2L, "user1", CardStatusCode.ACTIVE, BigDecimal.ZERO);
+
+        when(cardRepository.findWithLockByIdAndUserUsername(1L, "user1")).thenReturn(Optional.of(from));
+        when(cardRepository.findByIdAndUserUsername(2L, "user1")).thenReturn(Optional.of(to));
+        when(ledgerService.balanceOf(1L)).thenReturn(new BigDecimal("50"));
+
+        Transfer transfer = strategy.transfer(new TransferRequestDto(1L, 2L, BigDecimal.TEN), "user1");
+
+        assertEquals(BigDecimal.TEN, transfer.getAmount());
+        assertEquals(BigDecimal.ZERO, from.getBalance());
+        assertEquals(BigDecimal.ZERO, to.getBalance());
+
+        verify(cardRepository, never()).findWithLockByIdAndUserUsername(2L, "user1");
+        verify(transferRepository).save(any(Transfer.class));
+        verify(ledgerService).recordTransfer(transfer);
+    }
+
+    // ---------- INSUFFICIENT FUNDS ----------
+    @Test
+    void transfer_insufficientLedgerBalance() {
+        Card from = TestDataFactory.card(1L, "user1", CardStatusCode.ACTIVE, new BigDecimal("100"));
+        Card to = TestDataFactory.card(2L, "user1", CardStatusCode.ACTIVE, BigDecimal.ZERO);
+
+        when(cardRepository.findWithLockByIdAndUserUsername(1L, "user1")).thenReturn(Optional.of(from));
+        when(cardRepository.findByIdAndUserUsername(2L, "user1")).thenReturn(Optional.of(to));
+        when(ledgerService.balanceOf(1L)).thenReturn(BigDecimal.ONE);
+
+        ConflictException ex = assertThrows(
+                ConflictException.class,
+                () -> strategy.transfer(new TransferRequestDto(1L, 2L, BigDecimal.TEN), "user1")
+        );
+
+        assertEquals("Insufficient balance", ex.getMessage());
+        verifyNoInteractions(transferRepository);
+        verify(ledgerService, never()).recordTransfer(any());
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.CardBalanceSnapshot;
+import com.example.bankcards.entity.LedgerEntry;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.enums.BalanceUpdateMode;
+import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.repository.CardBalanceSnapshotRepository;
+import com.example.bankcards.repository.LedgerEntryRepository;
+import com.example.bankcards.util.TestDataFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LedgerServiceTest {
+
+    @Mock
+    LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    CardBalanceSnapshotRepository snapshotRepository;
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    // ---------- RECORD ----------
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordTransfer_writesDebitAndCreditEntries() {
+        Transfer transfer = new Transfer();
+        transfer.setId(7L);
+        transfer.setFrom(TestDataFactory.card(1L, "user1", CardStatusCode.ACTIVE, null));
+        transfer.setTo(TestDataFactory.card(2L, "user1", CardStatusCode.ACTIVE, null));
+        transfer.setAmount(BigDecimal.TEN);
+        transfer.setCreatedAt(Instant.now());
+
+        service(BalanceUpdateMode.PESSIMISTIC).recordTransfer(transfer);
+
+        ArgumentCaptor<List<LedgerEntry>> captor = ArgumentCaptor.forClass(List.class);
+        InOrder inOrder = inOrder(ledgerEntryRepository, jdbcTemplate);
+        inOrder.verify(ledgerEntryRepository).flush();
+        inOrder.verify(jdbcTemplate).batchUpdate(anyString(), captor.capture(), eq(2), any(ParameterizedPreparedStatementSetter.class));
+
+        List<LedgerEntry> entries = captor.getValue();
+        assertEquals(2, entries.size());
+        assertEquals(1L, entries.get(0).getCardId());
+        assertEquals(BigDecimal.TEN.negate(), entries.get(0).getAmount());
+        assertEquals(2L, entries.get(1).getCardId());
+        assertEquals(BigDecimal.TEN, entries.get(1).getAmount());
+        assertEquals(7L, entries.get(1).getTransferId());
+    }
+
+    // ---------- BALANCE ----------
+    @Test
+    void balanceOf_addsTailToSnapshot() {
+        CardBalanceSnapshot snapshot = new CardBalanceSnapshot();
+        snapshot.setCardId(1L);
+        snapshot.setBalance(new BigDecimal("100"));
+        snapshot.setLastEntryId(40L);
+
+        when(snapshotRepository.findById(1L)).thenReturn(Optional.of(snapshot));
+        when(ledgerEntryRepository.sumAfter(1L, 40L)).thenReturn(new BigDecimal("-30"));
+
+        assertEquals(new BigDecimal("70"), service(BalanceUpdateMode.LEDGER).balanceOf(1L));
+    }
+
+    @Test
+    void balanceOf_withoutSnapshot_sumsWholeJournal() {
+        when(snapshotRepository.findById(1L)).thenReturn(Optional.empty());
+        when(ledgerEntryRepository.sumAfter(1L, 0L)).thenReturn(new BigDecimal("15"));
+
+        assertEquals(new BigDecimal("15"), service(BalanceUpdateMode.LEDGER).balanceOf(1L));
+    }
+
+    // ---------- OPENING BALANCES ----------
+    @Test
+    void recordOpeningBalances_usesApplicationClock() {
+        Instant before = Instant.now();
+
+        service(BalanceUpdateMode.PESSIMISTIC).recordOpeningBalances(List.of(
+                TestDataFactory.card(1L, "user1", CardStatusCode.ACTIVE, BigDecimal.TEN)
+        ));
+
+        verify(ledgerEntryRepository).insertOpeningBalances(
+                eq(List.of(1L)), argThat(createdAt -> !createdAt.isBefore(before))
+        );
+    }
+
+    // ---------- SNAPSHOTS ----------
+    @Test
+    void refreshSnapshots_foldsEntriesAfterWatermark() {
+        bound(25L, "900");
+        finished("900", true);
+        when(snapshotRepository.findWatermark()).thenReturn(10L);
+
+        service(BalanceUpdateMode.LEDGER).refreshSnapshots();
+
+        verify(snapshotRepository).foldEntries(10L, 25L);
+        verify(snapshotRepository).copyBalancesToCards(10L);
+    }
+
+    @Test
+    void refreshSnapshots_columnMode_doesNotCopyBalances() {
+        bound(25L, "900");
+        finished("900", true);
+        when(snapshotRepository.findWatermark()).thenReturn(10L);
+
+        service(BalanceUpdateMode.PESSIMISTIC).refreshSnapshots();
+
+        verify(snapshotRepository).foldEntries(10L, 25L);
+        verify(snapshotRepository, never()).copyBalancesToCards(anyLong());
+    }
+
+    @Test
+    void refreshSnapshots_nothingNew() {
+        bound(25L, "900");
+        finished("900", true);
+        when(snapshotRepository.findWatermark()).thenReturn(25L);
+
+        service(BalanceUpdateMode.LEDGER).refreshSnapshots();
+
+        verify(snapshotRepository, never()).foldEntries(anyLong(), anyLong());
+    }
+
+    @Test
+    void refreshSnapshots_waitsForTransactionsRunningAtBound() {
+        bound(25L, "900");
+        when(jdbcTemplate.queryForObject(LedgerService.VISIBLE_QUERY, Boolean.class, "900"))
+                .thenReturn(false, false, true);
+        when(snapshotRepository.findWatermark()).thenReturn(10L);
+
+        service(BalanceUpdateMode.PESSIMISTIC).refreshSnapshots();
+
+        verify(jdbcTemplate, times(3)).queryForObject(LedgerService.VISIBLE_QUERY, Boolean.class, "900");
+        verify(snapshotRepository).foldEntries(10L, 25L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void refreshSnapshots_boundNotYetSafe_keepsItForNextRun() {
+        bound(25L, "900");
+        when(jdbcTemplate.queryForObject(LedgerService.VISIBLE_QUERY, Boolean.class, "900"))
+                .thenReturn(false, true);
+        when(snapshotRepository.findWatermark()).thenReturn(10L);
+
+        LedgerService service = new LedgerService(
+                ledgerEntryRepository, snapshotRepository, jdbcTemplate, transactionManager, BalanceUpdateMode.PESSIMISTIC, 0
+        );
+
+        service.refreshSnapshots();
+        verify(snapshotRepository, never()).foldEntries(anyLong(), anyLong());
+
+        service.refreshSnapshots();
+        verify(jdbcTemplate, times(1)).queryForObject(eq(LedgerService.BOUND_QUERY), any(RowMapper.class));
+        verify(snapshotRepository).foldEntries(10L, 25L);
+    }
+
+    private LedgerService service(BalanceUpdateMode mode) {
+        return new LedgerService(ledgerEntryRepository, snapshotRepository, jdbcTemplate, transactionManager, mode, 10_000);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void bound(long lastEntryId, String xmax) {
+        when(jdbcTemplate.queryForObject(eq(LedgerService.BOUND_QUERY), any(RowMapper.class)))
+                .thenReturn(new LedgerService.SnapshotBound(lastEntryId, xmax));
+    }
+
+    private void finished(String xmax, boolean finished) {
+        when(jdbcTemplate.queryForObject(LedgerService.VISIBLE_QUERY, Boolean.class, xmax)).thenReturn(finished);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.util.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticBalanceUpdateStrategyTest {
+
+    @Mock
+    CardRepository cardRepository;
+
+    @Mock
+    TransferRepository transferRepository;
+
+    @Mock
+    LedgerService ledgerService;
+
+    @Mock
+    TransferHistoryService transferHistoryService;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    OptimisticBalanceUpdateStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        strategy = new OptimisticBalanceUpdateStrategy(
+                cardRepository,
+                transferRepository,
+                ledgerService,
+                transferHistoryService,
+                new TransactionTemplate(transactionManager),
+                3
+        );
+    }
+
+    // ---------- RETRY AFTER CONFLICT ----------
+    @Test
+    void transfer_retriesAfterOptimisticLockFailure() {
+        when(cardRepository.findByIdAndUserUsername(1L, "user1"))
+                .thenAnswer(inv -> Optional.of(TestDataFactory.card(
+                        1L, "user1", CardStatusCode.ACTIVE, new BigDecimal("100.00"))));
+        when(cardRepository.findByIdAndUserUsername(2L, "user1"))
+                .thenAnswer(inv -> Optional.of(TestDataFactory.card(
+                        2L, "user1", CardStatusCode.ACTIVE, new BigDecimal("50.00"))));
+
+        doThrow(new ObjectOptimisticLockingFailureException(Card.class, 1L))
+                .doNothing()
+                .when(transactionManager).commit(any());
+
+        strategy.transfer(new TransferRequestDto(1L, 2L, BigDecimal.TEN), "user1");
+
+        verify(transferRepository, times(2)).save(any());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    // ---------- RETRIES EXHAUSTED ----------
+    @Test
+    void transfer_retriesExhausted_throwsConflict() {
+        when(cardRepository.findByIdAndUserUsername(1L, "user1"))
+                .thenAnswer(inv -> Optional.of(TestDataFactory.card(
+                        1L, "user1", CardStatusCode.ACTIVE, new BigDecimal("100.00"))));
+        when(cardRepository.findByIdAndUserUsername(2L, "user1"))
+                .thenAnswer(inv -> Optional.of(TestDataFactory.card(
+                        2L, "user1", CardStatusCode.ACTIVE, new BigDecimal("50.00"))));
+
+        doThrow(new ObjectOptimisticLockingFailureException(Card.class, 1L))
+                .when(transactionManager).commit(any());
+
+        ConflictException ex = assertThrows(
+                ConflictException.class,
+                () -> strategy.transfer(new TransferRequestDto(1L, 2L, BigDecimal.TEN), "user1")
+        );
+
+        assertEquals("Card balance was changed concurrently, please retry", ex.getMessage());
+        verify(transactionManager, times(3)).commit(any());
+    }
+
+    // ---------- INSUFFICIENT FUNDS IS NOT RETRIED ----------
+    @Test
+    void transfer_insufficientFunds_notRetried() {
+        when(cardRepository.findByIdAndUserUsername(1L, "user1"))
+                .thenReturn(Optional.of(TestDataFactory.card(
+                        1L, "user1", CardStatusCode.ACTIVE, BigDecimal.ONE)));
+        when(cardRepository.findByIdAndUserUsername(2L, "user1"))
+                .thenReturn(Optional.of(TestDataFactory.card(
+                        2L, "user1", CardStatusCode.ACTIVE, BigDecimal.ONE)));
+
+        ConflictException ex = assertThrows(
+                ConflictException.class,
+                () -> strategy.transfer(new TransferRequestDto(1L, 2L, BigDecimal.TEN), "user1")
+        );
+
+        assertEquals("Insufficient balance", ex.getMessage());
+        verify(cardRepository, times(1)).findByIdAndUserUsername(1L, "user1");
+        verify(transferRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.repository.CardStatusRepository;
+import com.example.bankcards.repository.RoleRepository;
+import com.example.bankcards.util.TestDataFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataRegistryTest {
+
+    @Mock
+    CardStatusRepository cardStatusRepository;
+
+    @Mock
+    RoleRepository roleRepository;
+
+    @InjectMocks
+    ReferenceDataRegistry referenceDataRegistry;
+
+    // ---------- LOAD ----------
+    @Test
+    void load_readsReferenceTablesOnce() {
+        List<CardStatus> statuses = Arrays.stream(CardStatusCode.values())
+                .map(TestDataFactory::cardStatus)
+                .toList();
+        when(cardStatusRepository.findAll()).thenReturn(statuses);
+
+        referenceDataRegistry.load();
+
+        for (CardStatusCode code : CardStatusCode.values()) {
+            assertEquals(code, referenceDataRegistry.cardStatus(code).getStatusCode());
+        }
+        assertSame(referenceDataRegistry.cardStatus(CardStatusCode.BLOCKED), referenceDataRegistry.cardStatus(CardStatusCode.BLOCKED));
+        verify(cardStatusRepository, times(1)).findAll();
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void load_missingStatus_fails() {
+        when(cardStatusRepository.findAll())
+                .thenReturn(List.of(TestDataFactory.cardStatus(CardStatusCode.ACTIVE)));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> referenceDataRegistry.load());
+
+        assertEquals("BLOCKED status not found", ex.getMessage());
+    }
+}
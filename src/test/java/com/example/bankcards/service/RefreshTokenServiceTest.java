@@ -0,0 +1,172 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.RefreshToken;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.ForbiddenException;
+import com.example.bankcards.exception.UnauthorizedException;
+import com.example.bankcards.repository.RefreshTokenRepository;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RefreshTokenService(refreshTokenRepository, userRepository, 60_000, 2);
+    }
+
+    // ---------- ISSUE ----------
+    @Test
+    void issue_storesHashOnly() {
+        User user = user(true);
+        when(userRepository.getReferenceById(1L)).thenReturn(user);
+
+        String raw = service.issue(1L);
+
+        RefreshToken saved = saved();
+        assertNotEquals(raw, saved.getTokenHash());
+        assertEquals(RefreshTokenService.hash(raw), saved.getTokenHash());
+        assertSame(user, saved.getUser());
+        assertNotNull(saved.getFamilyId());
+        assertTrue(saved.getExpiresAt().isAfter(saved.getCreatedAt()));
+    }
+
+    // ---------- ROTATE ----------
+    @Test
+    void rotate_success_replacesTokenInSameFamily() {
+        RefreshToken current = token("raw-1", user(true), Instant.now().plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("raw-1")))
+                .thenReturn(Optional.of(current));
+
+        RefreshTokenService.Rotation rotation = service.rotate("raw-1");
+
+        assertNotNull(current.getReplacedAt());
+        assertEquals(1L, rotation.user().getId());
+        assertEquals("user1", rotation.user().getUsername());
+        assertEquals(4, rotation.user().getTokenVersion());
+
+        RefreshToken next = saved();
+        assertEquals("family-1", next.getFamilyId());
+        assertEquals(RefreshTokenService.hash(rotation.refreshToken()), next.getTokenHash());
+        assertNotEquals("raw-1", rotation.refreshToken());
+    }
+
+    @Test
+    void rotate_reusedToken_revokesFamily() {
+        RefreshToken reused = token("raw-1", user(true), Instant.now().plusSeconds(60));
+        reused.setReplacedAt(Instant.now());
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(reused));
+
+        UnauthorizedException ex = assertThrows(UnauthorizedException.class, () -> service.rotate("raw-1"));
+
+        assertEquals("Invalid refresh token", ex.getMessage());
+        verify(refreshTokenRepository).deleteByFamilyId("family-1");
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_expiredToken_unauthorized() {
+        RefreshToken expired = token("raw-1", user(true), Instant.now().minusSeconds(1));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(expired));
+
+        UnauthorizedException ex = assertThrows(UnauthorizedException.class, () -> service.rotate("raw-1"));
+
+        assertEquals("Refresh token expired", ex.getMessage());
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_blockedUser_forbidden() {
+        RefreshToken token = token("raw-1", user(false), Instant.now().plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.of(token));
+
+        assertThrows(ForbiddenException.class, () -> service.rotate("raw-1"));
+
+        assertNull(token.getReplacedAt());
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_unknownToken_unauthorized() {
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(UnauthorizedException.class, () -> service.rotate("unknown"));
+    }
+
+    // ---------- REVOKE ----------
+    @Test
+    void revoke_deletesFamily() {
+        RefreshToken token = token("raw-1", user(true), Instant.now().plusSeconds(60));
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("raw-1")))
+                .thenReturn(Optional.of(token));
+
+        service.revoke("raw-1");
+
+        verify(refreshTokenRepository).deleteByFamilyId("family-1");
+    }
+
+    // ---------- CLEANUP ----------
+    @Test
+    void purgeExpired_deletesInBatches() {
+        when(refreshTokenRepository.deleteExpiredBatch(any(Instant.class), eq(2)))
+                .thenReturn(2, 2, 1);
+
+        service.purgeExpired();
+
+        verify(refreshTokenRepository, times(3)).deleteExpiredBatch(any(Instant.class), eq(2));
+    }
+
+    private RefreshToken saved() {
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private static RefreshToken token(String raw, User user, Instant expiresAt) {
+        RefreshToken token = new RefreshToken();
+        token.setUser(user);
+        token.setTokenHash(RefreshTokenService.hash(raw));
+        token.setFamilyId("family-1");
+        token.setCreatedAt(Instant.now());
+        token.setExpiresAt(expiresAt);
+        return token;
+    }
+
+    private static User user(boolean enabled) {
+        Role role = new Role();
+        role.setTitle("USER");
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("user1");
+        user.setPassword("hash");
+        user.setEnabled(enabled);
+        user.setTokenVersion(4);
+        user.setRole(role);
+        return user;
+    }
+}
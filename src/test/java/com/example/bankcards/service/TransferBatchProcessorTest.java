@@ -0,0 +1,170 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.exception.NotFoundException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.util.TestDataFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferBatchProcessorTest {
+
+    @Mock
+    CardRepository cardRepository;
+
+    @Mock
+    TransferRepository transferRepository;
+
+    @Mock
+    LedgerService ledgerService;
+
+    @Mock
+    TransferHistoryService transferHistoryService;
+
+    @InjectMocks
+    TransferBatchProcessor transferBatchProcessor;
+
+    // ---------- HAPPY PATH ----------
+    @Test
+    void apply_appliesTransfersInOrder() {
+        Card card1 = TestDataFactory.card(1L, "user1", CardStatusCode.ACTIVE, new BigDecimal("10"));
+        Card card2 = TestDataFactory.card(2L, "user1", CardStatusCode.ACTIVE, new BigDecimal("0"));
+
+        when(cardRepository.findAllForUpdate(anyCollection(), eq("user1"))).thenReturn(List.of(card1, card2));
+
+        List<TransferBatchOutcome> outcomes = transferBatchProcessor.apply(List.of(
+                item(1L, 2L, "10"),
+                item(2L, 1L, "4")
+        ), true);
+
+        assertTrue(outcomes.stream().allMatch(TransferBatchOutcome::success));
+        assertEquals(new BigDecimal("4"), card1.getBalance());
+        assertEquals(new BigDecimal("6"), card2.getBalance());
+
+        verify(cardRepository, times(1)).findAllForUpdate(anyCollection(), eq("user1"));
+        verify(transferRepository).saveAll(argThat((List<Transfer> transfers) -> transfers.size() == 2));
+        verify(ledgerService).recordTransfers(argThat((List<Transfer> transfers) -> transfers.size() == 2));
+        verify(transferHistoryService).recordTransfers(argThat((List<Transfer> transfers) -> transfers.size() == 2));
+    }
+
+    // ---------- ALL OR NOTHING ----------
+    @Test
+    void apply_allOrNothing_reportsIndexOfFirstError() {
+        Card card1 = TestDataFactory.card(1L, "user1", CardStatusCode.ACTIVE, new BigDecimal("5"));
+        Card card2 = TestDataFactory.card(2L, "user1", CardStatusCode.ACTIVE, new BigDecimal("0"));
+
+        when(cardRepository.findAllForUpdate(anyCollection(), eq("user1"))).thenReturn(List.of(card1, card2));
+
+        TransferBatchRejectedException ex = assertThrows(
+                TransferBatchRejectedException.class,
+                () -> transferBatchProcessor.apply(List.of(
+                        item(1L, 2L, "5"),
+                        item(1L, 2L, "1")
+                ), true)
+        );
+
+        assertEquals(1, ex.getIndex());
+        assertInstanceOf(ConflictException.class, ex.getError());
+        assertEquals("Insufficient balance", ex.getError().getMessage());
+        verify(transferRepository, never()).saveAll(any());
+    }
+
+    // ---------- PER ITEM ----------
+    @Test
+    void apply_perItem_collectsErrorsAndContinues() {
+        Card card1 = TestDataFactory.card(1L, "user1", CardStatusCode.ACTIVE, new BigDecimal("5"));
+        Card card2 = TestDataFactory.card(2L, "user1", CardStatusCode.ACTIVE, new BigDecimal("0"));
+        Card foreign = TestDataFactory.card(3L, "user2", CardStatusCode.ACTIVE, new BigDecimal("100"));
+
+        when(cardRepository.findAllForUpdate(anyCollection(), eq("user1"))).thenReturn(List.of(card1, card2));
+
+        List<TransferBatchOutcome> outcomes = transferBatchProcessor.apply(List.of(
+                item(3L, 1L, "50"),
+                item(1L, 2L, "10"),
+                item(1L, 2L, "5")
+        ), false);
+
+        assertInstanceOf(NotFoundException.class, outcomes.get(0).error());
+        assertEquals("Source card not found", outcomes.get(0).error().getMessage());
+        assertEquals("Insufficient balance", outcomes.get(1).error().getMessage());
+        assertTrue(outcomes.get(2).success());
+
+        assertEquals(new BigDecimal("0"), card1.getBalance());
+        assertEquals(new BigDecimal("5"), card2.getBalance());
+        assertEquals(new BigDecimal("100"), foreign.getBalance());
+    }
+
+    // ---------- LOCKING ----------
+    @Test
+    void apply_locksOnlyCardsOfEachUser() {
+        Card card1 = TestDataFactory.card(1L, "user1", CardStatusCode.ACTIVE, new BigDecimal("5"));
+        Card card2 = TestDataFactory.card(2L, "user1", CardStatusCode.ACTIVE, new BigDecimal("0"));
+        Card card3 = TestDataFactory.card(3L, "user2", CardStatusCode.ACTIVE, new BigDecimal("5"));
+        Card card4 = TestDataFactory.card(4L, "user2", CardStatusCode.ACTIVE, new BigDecimal("0"));
+
+        when(cardRepository.findAllForUpdate(Set.of(1L, 2L), "user1")).thenReturn(List.of(card1, card2));
+        when(cardRepository.findAllForUpdate(Set.of(3L, 4L, 1L), "user2")).thenReturn(List.of(card3, card4));
+
+        List<TransferBatchOutcome> outcomes = transferBatchProcessor.apply(List.of(
+                new TransferBatchItem(new TransferRequestDto(3L, 4L, BigDecimal.ONE), "user2"),
+                item(1L, 2L, "1"),
+                new TransferBatchItem(new TransferRequestDto(3L, 1L, BigDecimal.ONE), "user2")
+        ), false);
+
+        assertTrue(outcomes.get(0).success());
+        assertTrue(outcomes.get(1).success());
+        assertEquals("Target card not found", outcomes.get(2).error().getMessage());
+
+        InOrder inOrder = inOrder(cardRepository);
+        inOrder.verify(cardRepository).findAllForUpdate(Set.of(1L, 2L), "user1");
+        inOrder.verify(cardRepository).findAllForUpdate(Set.of(3L, 4L, 1L), "user2");
+    }
+
+    // ---------- LEDGER MODE ----------
+    @Test
+    void apply_ledgerMode_usesLedgerBalancesAndKeepsCardColumns() {
+        Card card1 = TestDataFactory.card(1L, "user1", CardStatusCode.ACTIVE, new BigDecimal("0"));
+        Card card2 = TestDataFactory.card(2L, "user1", CardStatusCode.ACTIVE, new BigDecimal("0"));
+
+        when(cardRepository.findAllForUpdate(anyCollection(), eq("user1"))).thenReturn(List.of(card1, card2));
+        when(ledgerService.isLedgerMode()).thenReturn(true);
+        when(ledgerService.balanceOf(1L)).thenReturn(new BigDecimal("10"));
+        when(ledgerService.balanceOf(2L)).thenReturn(new BigDecimal("0"));
+
+        List<TransferBatchOutcome> outcomes = transferBatchProcessor.apply(List.of(
+                item(1L, 2L, "7"),
+                item(1L, 2L, "7")
+        ), false);
+
+        assertTrue(outcomes.get(0).success());
+        assertEquals("Insufficient balance", outcomes.get(1).error().getMessage());
+
+        assertEquals(new BigDecimal("0"), card1.getBalance());
+        assertEquals(new BigDecimal("0"), card2.getBalance());
+        verify(ledgerService).recordTransfers(argThat((List<Transfer> transfers) -> transfers.size() == 1));
+    }
+
+    private TransferBatchItem item(Long from, Long to, String amount) {
+        return new TransferBatchItem(new TransferRequestDto(from, to, new BigDecimal(amount)), "user1");
+    }
+}
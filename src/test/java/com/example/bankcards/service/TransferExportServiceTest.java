@@ -0,0 +1,126 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferHistoryFilterDto;
+import com.example.bankcards.enums.ExportFormat;
+import com.example.bankcards.enums.TransferDirection;
+import com.example.bankcards.repository.TransferHistoryRepository;
+import com.example.bankcards.repository.TransferView;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferExportServiceTest {
+
+    @Mock
+    TransferHistoryRepository transferHistoryRepository;
+
+    @InjectMocks
+    TransferExportService transferExportService;
+
+    // ---------- NDJSON ----------
+    @Test
+    void export_ndjson() {
+        when(transferHistoryRepository.streamByUser("user1", Instant.EPOCH, Instant.parse("9999-12-31T00:00:00Z"), true, true))
+                .thenReturn(Stream.of(row(1L, TransferDirection.OUTGOING)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = transferExportService.export(
+                "user1", new TransferHistoryFilterDto(null, null, null), ExportFormat.NDJSON, out
+        );
+
+        assertEquals(1, count);
+        assertEquals(
+                "{\"id\":1,\"fromCardId\":10,\"toCardId\":20,\"amount\":12.50,"
+                        + "\"createdAt\":\"2026-01-20T00:00:00Z\",\"direction\":\"OUTGOING\"}\n",
+                out.toString(StandardCharsets.UTF_8)
+        );
+    }
+
+    // ---------- CSV ----------
+    @Test
+    void export_csvWithDirectionFilter_closesStream() {
+        Instant from = Instant.parse("2026-01-01T00:00:00Z");
+        Instant to = Instant.parse("2026-02-01T00:00:00Z");
+        AtomicBoolean closed = new AtomicBoolean();
+
+        when(transferHistoryRepository.streamByUser("user1", from, to, false, true))
+                .thenReturn(Stream.of(row(2L, TransferDirection.INCOMING)).onClose(() -> closed.set(true)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        transferExportService.export(
+                "user1", new TransferHistoryFilterDto(from, to, TransferDirection.INCOMING), ExportFormat.CSV, out
+        );
+
+        assertEquals(
+                "id,fromCardId,toCardId,amount,createdAt,direction\n"
+                        + "2,10,20,12.50,2026-01-20T00:00:00Z,INCOMING\n",
+                out.toString(StandardCharsets.UTF_8)
+        );
+        assertTrue(closed.get());
+    }
+
+    // ---------- LARGE EXPORT ----------
+    @Test
+    void write_millionRows_isStreamedWithoutBuffering() {
+        CountingOutputStream out = new CountingOutputStream();
+
+        long count = transferExportService.write(
+                LongStream.rangeClosed(1, 1_000_000).mapToObj(id -> row(id, TransferDirection.OUTGOING)),
+                ExportFormat.CSV,
+                out
+        );
+
+        assertEquals(1_000_000, count);
+        assertEquals(1_000_001, out.lines);
+    }
+
+    private TransferView row(long id, TransferDirection direction) {
+        return new Row(id, 10L, 20L, new BigDecimal("12.50"), Instant.parse("2026-01-20T00:00:00Z"), direction);
+    }
+
+    private record Row(
+            Long getId,
+            Long getFromCardId,
+            Long getToCardId,
+            BigDecimal getAmount,
+            Instant getCreatedAt,
+            TransferDirection getDirection
+    ) implements TransferView {}
+
+    /**
+     * Считает строки и отбрасывает данные, чтобы тест не хранил выгрузку в памяти.
+     */
+    private static class CountingOutputStream extends OutputStream {
+
+        long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.config.ReadYourWritesTracker;
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.repository.CardRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TransferGroupCommitterTest {
+
+    @Mock
+    TransferBatchProcessor transferBatchProcessor;
+
+    @Mock
+    BalanceUpdateStrategy balanceUpdateStrategy;
+
+    @Mock
+    CardRepository cardRepository;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    TransactionStatus transactionStatus;
+
+    @Mock
+    ObjectProvider<ReadYourWritesTracker> readYourWritesProvider;
+
+    ReadYourWritesTracker readYourWrites = new ReadYourWritesTracker(60_000, 100);
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    TransferGroupCommitter groupCommitter;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(readYourWritesProvider.getIfAvailable()).thenReturn(readYourWrites);
+    }
+
+    @AfterEach
+    void tearDown() {
+        groupCommitter.stop();
+    }
+
+    // ---------- BATCHING ----------
+    @Test
+    void submit_itemsWithinWindow_appliedAsOneAggregatedGroup() throws Exception {
+        Transfer first = new Transfer();
+        Transfer second = new Transfer();
+
+        when(transferBatchProcessor.apply(List.of(item(1L, 3L), item(2L, 3L)), false)).thenReturn(List.of(
+                new TransferBatchOutcome(first, null),
+                new TransferBatchOutcome(second, null)
+        ));
+
+        groupCommitter = committer(1000, 2);
+        groupCommitter.start();
+
+        CompletableFuture<TransferBatchOutcome> f1 = groupCommitter.submit(item(1L, 3L));
+        CompletableFuture<TransferBatchOutcome> f2 = groupCommitter.submit(item(2L, 3L));
+
+        assertSame(first, f1.get(5, TimeUnit.SECONDS).transfer());
+        assertSame(second, f2.get(5, TimeUnit.SECONDS).transfer());
+
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager, times(1)).commit(transactionStatus);
+        verify(transactionStatus, never()).createSavepoint();
+        verifyNoInteractions(balanceUpdateStrategy);
+        assertTrue(readYourWrites.hasRecentWrite("user1"));
+        assertEquals(2.0, meterRegistry.get("transfer.group-commit.batch.size").summary().totalAmount());
+        assertEquals(0.0, meterRegistry.get("transfer.group-commit.fallback").counter().count());
+    }
+
+    // ---------- PER ITEM ERROR ----------
+    @Test
+    void submit_rejectedItem_doesNotAffectOthers() throws Exception {
+        Transfer second = new Transfer();
+
+        when(transferBatchProcessor.apply(List.of(item(1L, 2L), item(3L, 4L)), false)).thenReturn(List.of(
+                new TransferBatchOutcome(null, new ConflictException("Insufficient balance")),
+                new TransferBatchOutcome(second, null)
+        ));
+
+        groupCommitter = committer(1000, 2);
+        groupCommitter.start();
+
+        CompletableFuture<TransferBatchOutcome> f1 = groupCommitter.submit(item(1L, 2L));
+        CompletableFuture<TransferBatchOutcome> f2 = groupCommitter.submit(item(3L, 4L));
+
+        assertEquals("Insufficient balance", f1.get(5, TimeUnit.SECONDS).error().getMessage());
+        assertSame(second, f2.get(5, TimeUnit.SECONDS).transfer());
+
+        verify(transactionManager).commit(transactionStatus);
+    }
+
+    @Test
+    void transfer_failedItem_throwsItsOwnError() {
+        when(transferBatchProcessor.apply(List.of(item(1L, 2L)), false)).thenReturn(List.of(
+                new TransferBatchOutcome(null, new ConflictException("Insufficient balance"))
+        ));
+
+        groupCommitter = committer(1, 100);
+        groupCommitter.start();
+
+        ConflictException ex = assertThrows(
+                ConflictException.class,
+                () -> groupCommitter.transfer(item(1L, 2L))
+        );
+
+        assertEquals("Insufficient balance", ex.getMessage());
+        assertFalse(readYourWrites.hasRecentWrite("user1"));
+    }
+
+    // ---------- STATEMENT FAILURE ----------
+    @Test
+    void submit_failedAggregatedGroup_reappliedWithSavepoints() throws Exception {
+        Transfer second = new Transfer();
+
+        when(transferBatchProcessor.apply(anyList(), eq(false)))
+                .thenThrow(new DataIntegrityViolationException("check constraint"));
+        when(balanceUpdateStrategy.apply(item(1L, 2L).request(), "user1"))
+                .thenThrow(new ConflictException("Insufficient balance"));
+        when(balanceUpdateStrategy.apply(item(3L, 4L).request(), "user1")).thenReturn(second);
+
+        groupCommitter = committer(1000, 2);
+        groupCommitter.start();
+
+        CompletableFuture<TransferBatchOutcome> f1 = groupCommitter.submit(item(1L, 2L));
+        CompletableFuture<TransferBatchOutcome> f2 = groupCommitter.submit(item(3L, 4L));
+
+        assertEquals("Insufficient balance", f1.get(5, TimeUnit.SECONDS).error().getMessage());
+        assertSame(second, f2.get(5, TimeUnit.SECONDS).transfer());
+
+        verify(transactionManager).rollback(transactionStatus);
+        verify(transactionManager).commit(transactionStatus);
+        verify(transactionStatus, times(2)).createSavepoint();
+        verify(transactionStatus, times(1)).rollbackToSavepoint(any());
+        verify(entityManager).clear();
+        assertEquals(1.0, meterRegistry.get("transfer.group-commit.fallback").counter().count());
+    }
+
+    @Test
+    void submit_failedSavepointGroup_reappliesTransfersOneByOne() throws Exception {
+        Transfer second = new Transfer();
+
+        when(transferBatchProcessor.apply(anyList(), eq(false)))
+                .thenThrow(new DataIntegrityViolationException("check constraint"));
+        when(balanceUpdateStrategy.apply(item(1L, 2L).request(), "user1"))
+                .thenThrow(new DataIntegrityViolationException("check constraint"));
+        when(balanceUpdateStrategy.transfer(item(1L, 2L).request(), "user1"))
+                .thenThrow(new DataIntegrityViolationException("check constraint"));
+        when(balanceUpdateStrategy.transfer(item(3L, 4L).request(), "user1")).thenReturn(second);
+
+        groupCommitter = committer(1000, 2);
+        groupCommitter.start();
+
+        CompletableFuture<TransferBatchOutcome> f1 = groupCommitter.submit(item(1L, 2L));
+        CompletableFuture<TransferBatchOutcome> f2 = groupCommitter.submit(item(3L, 4L));
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> f1.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(DataIntegrityViolationException.class, ex.getCause());
+        assertSame(second, f2.get(5, TimeUnit.SECONDS).transfer());
+
+        verify(transactionManager, times(2)).rollback(transactionStatus);
+        assertEquals(1.0, meterRegistry.get("transfer.group-commit.fallback").counter().count());
+    }
+
+    private TransferGroupCommitter committer(long window, int maxBatchSize) {
+        return new TransferGroupCommitter(
+                transferBatchProcessor,
+                balanceUpdateStrategy,
+                cardRepository,
+                entityManager,
+                transactionManager,
+                new CardLockManager(16, 1000, meterRegistry),
+                readYourWritesProvider,
+                true,
+                window,
+                maxBatchSize,
+                2,
+                100,
+                meterRegistry
+        );
+    }
+
+    private TransferBatchItem item(Long from, Long to) {
+        return new TransferBatchItem(new TransferRequestDto(from, to, BigDecimal.ONE), "user1");
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.TransferHistoryBackfill;
+import com.example.bankcards.repository.TransferHistoryBackfillRepository;
+import com.example.bankcards.repository.TransferHistoryRepository;
+import com.example.bankcards.repository.TransferRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferHistoryServiceTest {
+
+    @Mock
+    TransferHistoryRepository transferHistoryRepository;
+
+    @Mock
+    TransferRepository transferRepository;
+
+    @Mock
+    TransferHistoryBackfillRepository backfillRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    }
+
+    // ---------- RECORD ----------
+    @Test
+    void recordTransfers_appendsRowsForTransferIds() {
+        Transfer first = new Transfer();
+        first.setId(7L);
+        first.setCreatedAt(Instant.parse("2026-10-18T10:00:01Z"));
+        Transfer second = new Transfer();
+        second.setId(8L);
+        second.setCreatedAt(Instant.parse("2026-10-18T10:00:00Z"));
+
+        service(true, 100).recordTransfers(List.of(first, second));
+
+        verify(transferHistoryRepository).appendForTransfers(
+                List.of(7L, 8L), Instant.parse("2026-10-18T10:00:00Z"), Instant.parse("2026-10-18T10:00:01Z")
+        );
+    }
+
+    @Test
+    void recordTransfers_empty_doesNothing() {
+        service(true, 100).recordTransfers(List.of());
+
+        verifyNoInteractions(transferHistoryRepository);
+    }
+
+    // ---------- BACKFILL ----------
+    @Test
+    void backfill_copiesChunksUpToMaxIdAtStart() {
+        TransferHistoryBackfill progress = progress(0L, null);
+        when(backfillRepository.findWithLockById(TransferHistoryBackfill.ID)).thenReturn(Optional.of(progress));
+        when(transferRepository.findMaxId()).thenReturn(250L);
+        TransferHistoryService service = service(true, 100);
+
+        service.backfillNextChunk();
+        service.backfillNextChunk();
+        service.backfillNextChunk();
+        assertFalse(service.isBackfillComplete());
+        service.backfillNextChunk();
+        assertTrue(service.isBackfillComplete());
+        service.backfillNextChunk();
+
+        verify(transferRepository, times(1)).findMaxId();
+        verify(backfillRepository, times(4)).findWithLockById(TransferHistoryBackfill.ID);
+        verify(transferHistoryRepository).backfillRange(0L, 100L);
+        verify(transferHistoryRepository).backfillRange(100L, 200L);
+        verify(transferHistoryRepository).backfillRange(200L, 250L);
+        verifyNoMoreInteractions(transferHistoryRepository);
+        assertEquals(250L, progress.getTargetId());
+        assertEquals(250L, progress.getBackfilledUpTo());
+    }
+
+    @Test
+    void backfill_afterRestart_resumesFromStoredProgress() {
+        when(backfillRepository.findWithLockById(TransferHistoryBackfill.ID))
+                .thenReturn(Optional.of(progress(200L, 250L)));
+
+        service(true, 100).backfillNextChunk();
+
+        verify(transferHistoryRepository).backfillRange(200L, 250L);
+        verifyNoInteractions(transferRepository);
+    }
+
+    @Test
+    void backfill_emptyTransfers_completesImmediately() {
+        when(backfillRepository.findWithLockById(TransferHistoryBackfill.ID)).thenReturn(Optional.of(progress(0L, null)));
+        when(transferRepository.findMaxId()).thenReturn(0L);
+        TransferHistoryService service = service(true, 100);
+
+        service.backfillNextChunk();
+        service.backfillNextChunk();
+
+        assertTrue(service.isBackfillComplete());
+        verify(backfillRepository, times(1)).findWithLockById(TransferHistoryBackfill.ID);
+        verifyNoInteractions(transferHistoryRepository);
+    }
+
+    @Test
+    void backfill_disabled_doesNothing() {
+        service(false, 100).backfillNextChunk();
+
+        verifyNoInteractions(transferRepository, transferHistoryRepository, backfillRepository, transactionManager);
+    }
+
+    private TransferHistoryBackfill progress(Long backfilledUpTo, Long targetId) {
+        TransferHistoryBackfill progress = new TransferHistoryBackfill();
+        progress.setId(TransferHistoryBackfill.ID);
+        progress.setBackfilledUpTo(backfilledUpTo);
+        progress.setTargetId(targetId);
+        progress.setUpdatedAt(Instant.EPOCH);
+        return progress;
+    }
+
+    private TransferHistoryService service(boolean backfillEnabled, int chunkSize) {
+        return new TransferHistoryService(
+                transferHistoryRepository,
+                transferRepository,
+                backfillRepository,
+                transactionManager,
+                backfillEnabled,
+                chunkSize
+        );
+    }
+}
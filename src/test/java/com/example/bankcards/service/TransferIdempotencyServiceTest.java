@@ -0,0 +1,147 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.dto.TransferRequestDto;
+import com.example.bankcards.dto.TransferResponseDto;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.entity.TransferIdempotencyKey;
+import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.exception.BadRequestException;
+import com.example.bankcards.exception.ConflictException;
+import com.example.bankcards.repository.TransferIdempotencyKeyRepository;
+import com.example.bankcards.util.TestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferIdempotencyServiceTest {
+
+    private static final long TTL = 86_400_000L;
+
+    @Mock
+    TransferIdempotencyKeyRepository repository;
+
+    TransferIdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new TransferIdempotencyService(repository, 100, TTL, 2);
+    }
+
+    // ---------- FOUND IN DATABASE, THEN SERVED FROM CACHE ----------
+    @Test
+    void find_storedKey_cachedAfterFirstLookup() {
+        TransferRequestDto request = new TransferRequestDto(1L, 2L, new BigDecimal("10.00"));
+
+        when(repository.findByUsernameAndIdempotencyKey("user1", "key-1"))
+                .thenReturn(Optional.of(storedKey(Instant.now())));
+
+        Optional<TransferResponseDto> first = idempotencyService.find("user1", "key-1", request);
+        Optional<TransferResponseDto> second = idempotencyService.find("user1", "key-1", request);
+
+        assertTrue(first.isPresent());
+        assertEquals(100L, first.get().id());
+        assertEquals(first, second);
+        verify(repository, times(1)).findByUsernameAndIdempotencyKey("user1", "key-1");
+    }
+
+    // ---------- UNKNOWN KEY ----------
+    @Test
+    void find_unknownKey_returnsEmpty() {
+        when(repository.findByUsernameAndIdempotencyKey("user1", "key-1"))
+                .thenReturn(Optional.empty());
+
+        assertTrue(idempotencyService.find(
+                "user1", "key-1", new TransferRequestDto(1L, 2L, BigDecimal.TEN)
+        ).isEmpty());
+    }
+
+    // ---------- EXPIRED KEY ----------
+    @Test
+    void find_expiredKey_returnsEmpty() {
+        when(repository.findByUsernameAndIdempotencyKey("user1", "key-1"))
+                .thenReturn(Optional.of(storedKey(Instant.now().minus(2, ChronoUnit.DAYS))));
+
+        assertTrue(idempotencyService.find(
+                "user1", "key-1", new TransferRequestDto(1L, 2L, new BigDecimal("10.00"))
+        ).isEmpty());
+    }
+
+    // ---------- KEY REUSED FOR ANOTHER TRANSFER ----------
+    @Test
+    void find_keyReusedWithDifferentPayload_throwsConflict() {
+        when(repository.findByUsernameAndIdempotencyKey("user1", "key-1"))
+                .thenReturn(Optional.of(storedKey(Instant.now())));
+
+        assertThrows(
+                ConflictException.class,
+                () -> idempotencyService.find(
+                        "user1", "key-1", new TransferRequestDto(1L, 2L, new BigDecimal("99.00"))
+                )
+        );
+    }
+
+    // ---------- KEY VALIDATION ----------
+    @Test
+    void validateKey_tooLong_throwsBadRequest() {
+        assertThrows(
+                BadRequestException.class,
+                () -> idempotencyService.validateKey("k".repeat(256))
+        );
+    }
+
+    // ---------- EXPIRED KEY REUSED ----------
+    @Test
+    void register_replacesExpiredKeyBeforeInsert() {
+        Transfer transfer = new Transfer();
+        transfer.setId(200L);
+        transfer.setFrom(TestDataFactory.card(1L, "user1", CardStatusCode.ACTIVE, null));
+        transfer.setTo(TestDataFactory.card(2L, "user1", CardStatusCode.ACTIVE, null));
+        transfer.setAmount(BigDecimal.TEN);
+        transfer.setCreatedAt(Instant.now());
+
+        idempotencyService.register("user1", "key-1", transfer);
+
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).deleteExpired(
+                eq("user1"), eq("key-1"), argThat(cutoff -> cutoff.isBefore(Instant.now().minusMillis(TTL - 60_000)))
+        );
+        inOrder.verify(repository).saveAndFlush(argThat(key -> key.getTransferId().equals(200L)));
+    }
+
+    // ---------- CLEANUP ----------
+    @Test
+    void purgeExpired_deletesInBatchesUntilExhausted() {
+        when(repository.deleteExpiredBatch(any(), eq(2)))
+                .thenReturn(2, 2, 1);
+
+        idempotencyService.purgeExpired();
+
+        verify(repository, times(3)).deleteExpiredBatch(any(), eq(2));
+    }
+
+    private TransferIdempotencyKey storedKey(Instant createdAt) {
+        TransferIdempotencyKey key = new TransferIdempotencyKey();
+        key.setUsername("user1");
+        key.setIdempotencyKey("key-1");
+        key.setTransferId(100L);
+        key.setFromCardId(1L);
+        key.setToCardId(2L);
+        key.setAmount(new BigDecimal("10.00"));
+        key.setCreatedAt(createdAt);
+        return key;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.bankcards.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransferPartitionServiceTest {
+
+    static final YearMonth CURRENT = YearMonth.of(2026, 10);
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path archiveDir;
+
+    TransferPartitionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TransferPartitionService(jdbcTemplate, transactionManager, true, 2, 12, archiveDir);
+    }
+
+    // ---------- CREATE ----------
+    @Test
+    void maintain_createsMissingFuturePartitions() {
+        existing("transfers_default", "transfers_p202610");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(Object[].class))).thenReturn(false);
+
+        service.maintain(CURRENT);
+
+        verify(jdbcTemplate, never()).execute(contains("create table transfers_p202610"));
+        verify(jdbcTemplate).execute("create table transfers_p202611 (like transfers including defaults including constraints)");
+        verify(jdbcTemplate).update(contains("insert into transfers_p202611"),
+                eq(LocalDateTime.of(2026, 11, 1, 0, 0)), eq(LocalDateTime.of(2026, 12, 1, 0, 0)));
+        verify(jdbcTemplate).execute("alter table transfers attach partition transfers_p202611"
+                + " for values from ('2026-11-01 00:00:00') to ('2026-12-01 00:00:00')");
+        verify(jdbcTemplate).execute("alter table transfers attach partition transfers_p202612"
+                + " for values from ('2026-12-01 00:00:00') to ('2027-01-01 00:00:00')");
+    }
+
+    @Test
+    void maintain_partitionCreatedByAnotherInstance_skipped() {
+        existing("transfers_p202610");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(Object[].class))).thenReturn(true);
+
+        service.maintain(CURRENT);
+
+        verify(jdbcTemplate, never()).execute(startsWith("create table"));
+        verify(jdbcTemplate, never()).execute(startsWith("alter table"));
+    }
+
+    // ---------- ARCHIVE ----------
+    @Test
+    void maintain_partitionOlderThanRetention_archivedAndDropped() throws Exception {
+        existing("transfers_p202609", "transfers_p202610", "transfers_p202611", "transfers_p202612");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(Object[].class))).thenReturn(true);
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(7L);
+        when(rs.getLong(2)).thenReturn(1L);
+        when(rs.getLong(3)).thenReturn(2L);
+        when(rs.getBigDecimal(4)).thenReturn(new BigDecimal("10.50"));
+        when(rs.getObject(5, LocalDateTime.class)).thenReturn(LocalDateTime.of(2025, 9, 15, 12, 30));
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+        when(jdbcTemplate.queryForObject(contains("card_balance_snapshots"), eq(Long.class))).thenReturn(0L);
+
+        service.maintain(CURRENT.plusMonths(12));
+
+        verify(jdbcTemplate).update("delete from transfer_history where transfer_id in (select id from transfers_p202609)");
+        verify(jdbcTemplate).update("delete from ledger_entries where transfer_id in (select id from transfers_p202609)");
+        verify(jdbcTemplate).execute("alter table transfers detach partition transfers_p202609");
+        verify(jdbcTemplate).execute("drop table transfers_p202609");
+        verify(jdbcTemplate, never()).execute("drop table transfers_p202610");
+        assertEquals(List.of("id,from_card_id,to_card_id,amount,created_at", "7,1,2,10.50,2025-09-15T12:30"),
+                readArchive(archiveDir.resolve("transfers_p202609.csv.gz")));
+        assertEquals(List.of("id,card_id,transfer_id,amount,created_at", "7,1,2,10.50,2025-09-15T12:30"),
+                readArchive(archiveDir.resolve("transfers_p202609_ledger.csv.gz")));
+    }
+
+    @Test
+    void maintain_ledgerEntriesNotInSnapshots_partitionKept() {
+        existing("transfers_p202509", "transfers_p202610", "transfers_p202611", "transfers_p202612");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(Object[].class))).thenReturn(true);
+        when(jdbcTemplate.queryForObject(contains("card_balance_snapshots"), eq(Long.class))).thenReturn(3L);
+
+        service.maintain(CURRENT);
+
+        verify(jdbcTemplate, never()).update(startsWith("delete from"));
+        verify(jdbcTemplate, never()).execute(startsWith("alter table transfers detach"));
+        verify(jdbcTemplate, never()).execute(startsWith("drop table"));
+    }
+
+    @Test
+    void maintain_archiveFailed_partitionKept() {
+        existing("transfers_p202509", "transfers_p202610", "transfers_p202611", "transfers_p202612");
+        doThrow(new IllegalStateException("boom"))
+                .when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        service.maintain(CURRENT);
+
+        verify(jdbcTemplate, never()).execute(startsWith("alter table transfers detach"));
+        verify(jdbcTemplate, never()).update(startsWith("delete from"));
+        assertFalse(Files.exists(archiveDir.resolve("transfers_p202509.csv.gz")));
+    }
+
+    private void existing(String... partitions) {
+        when(jdbcTemplate.queryForList(TransferPartitionService.LIST_PARTITIONS, String.class))
+                .thenReturn(List.of(partitions));
+    }
+
+    private List<String> readArchive(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+}
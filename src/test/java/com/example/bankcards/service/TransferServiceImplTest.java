@@ -1,28 +1,49 @@
 package com.example.bankcards.service;
 
+import com.example.bankcards.dto.BatchTransferRequestDto;
+import com.example.bankcards.dto.BatchTransferResponseDto;
+import com.example.bankcards.dto.CursorPageDto;
+import com.example.bankcards.dto.TransferHistoryFilterDto;
 import com.example.bankcards.dto.TransferRequestDto;
 import com.example.bankcards.dto.TransferResponseDto;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.Transfer;
+import com.example.bankcards.enums.BatchTransferMode;
 import com.example.bankcards.enums.CardStatusCode;
+import com.example.bankcards.enums.TransferDirection;
 import com.example.bankcards.exception.BadRequestException;
 import com.example.bankcards.exception.ConflictException;
 import com.example.bankcards.exception.NotFoundException;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.TransferHistoryRepository;
 import com.example.bankcards.repository.TransferRepository;
+import com.example.bankcards.repository.TransferView;
+import com.example.bankcards.util.CursorUtil;
 import com.example.bankcards.util.TestDataFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.Authentication;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
+import static com.example.bankcards.enums.TransferDirection.INCOMING;
 import static com.example.bankcards.enums.TransferDirection.OUTGOING;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,9 +55,47 @@ class TransferServiceImplTest {
     @Mock
     TransferRepository transferRepository;
 
-    @InjectMocks
+    @Mock
+    TransferHistoryRepository transferHistoryRepository;
+
+    @Mock
+    LedgerService ledgerService;
+
+    @Mock
+    TransferHistoryService transferHistoryService;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    TransferBatchProcessor transferBatchProcessor;
+
+    @Mock
+    TransferIdempotencyService idempotencyService;
+
+    @Mock
+    TransferGroupCommitter groupCommitter;
+
     TransferServiceImpl transferService;
 
+    @BeforeEach
+    void setUp() {
+        transferService = new TransferServiceImpl(
+                transferHistoryRepository,
+                new PessimisticBalanceUpdateStrategy(
+                        cardRepository,
+                        transferRepository,
+                        ledgerService,
+                        transferHistoryService,
+                        new TransactionTemplate(transactionManager)
+                ),
+                transferBatchProcessor,
+                idempotencyService,
+                new CardLockManager(16, 1000, new SimpleMeterRegistry()),
+                groupCommitter
+        );
+    }
+
     // ---------- HAPPY PATH ----------
     @Test
     void transfer_success() {
@@ -50,16 +109,16 @@ class TransferServiceImplTest {
                 2L, "user1", CardStatusCode.ACTIVE, new BigDecimal("50.00")
         );
 
-        when(cardRepository.findByIdAndUserUsername(1L, "user1"))
+        when(cardRepository.findWithLockByIdAndUserUsername(1L, "user1"))
                 .thenReturn(Optional.of(from));
-        when(cardRepository.findByIdAndUserUsername(2L, "user1"))
+        when(cardRepository.findWithLockByIdAndUserUsername(2L, "user1"))
                 .thenReturn(Optional.of(to));
 
         TransferRequestDto dto =
                 new TransferRequestDto(1L, 2L, new BigDecimal("30.00"));
 
         TransferResponseDto response =
-                transferService.transfer(dto, auth);
+                transferService.transfer(dto, null, auth);
 
         assertEquals(OUTGOING, response.direction());
         assertEquals(new BigDecimal("70.00"), from.getBalance());
@@ -78,7 +137,7 @@ class TransferServiceImplTest {
 
         BadRequestException ex = assertThrows(
                 BadRequestException.class,
-                () -> transferService.transfer(dto, auth)
+                () -> transferService.transfer(dto, null, auth)
         );
 
         assertEquals("Cannot transfer money to the same card", ex.getMessage());
@@ -90,7 +149,7 @@ class TransferServiceImplTest {
         Authentication auth = mock(Authentication.class);
         when(auth.getName()).thenReturn("user1");
 
-        when(cardRepository.findByIdAndUserUsername(1L, "user1"))
+        when(cardRepository.findWithLockByIdAndUserUsername(1L, "user1"))
                 .thenReturn(Optional.empty());
 
         TransferRequestDto dto =
@@ -98,7 +157,7 @@ class TransferServiceImplTest {
 
         NotFoundException ex = assertThrows(
                 NotFoundException.class,
-                () -> transferService.transfer(dto, auth)
+                () -> transferService.transfer(dto, null, auth)
         );
 
         assertEquals("Source card not found", ex.getMessage());
@@ -114,9 +173,9 @@ class TransferServiceImplTest {
                 1L, "user1", CardStatusCode.ACTIVE, BigDecimal.TEN
         );
 
-        when(cardRepository.findByIdAndUserUsername(1L, "user1"))
+        when(cardRepository.findWithLockByIdAndUserUsername(1L, "user1"))
                 .thenReturn(Optional.of(from));
-        when(cardRepository.findByIdAndUserUsername(2L, "user1"))
+        when(cardRepository.findWithLockByIdAndUserUsername(2L, "user1"))
                 .thenReturn(Optional.empty());
 
         TransferRequestDto dto =
@@ -124,7 +183,7 @@ class TransferServiceImplTest {
 
         NotFoundException ex = assertThrows(
                 NotFoundException.class,
-                () -> transferService.transfer(dto, auth)
+                () -> transferService.transfer(dto, null, auth)
         );
 
         assertEquals("Target card not found", ex.getMessage());
@@ -143,9 +202,9 @@ class TransferServiceImplTest {
                 2L, "user1", CardStatusCode.ACTIVE, BigDecimal.TEN
         );
 
-        when(cardRepository.findByIdAndUserUsername(1L, "user1"))
+        when(cardRepository.findWithLockByIdAndUserUsername(1L, "user1"))
                 .thenReturn(Optional.of(from));
-        when(cardRepository.findByIdAndUserUsername(2L, "user1"))
+        when(cardRepository.findWithLockByIdAndUserUsername(2L, "user1"))
                 .thenReturn(Optional.of(to));
 
         TransferRequestDto dto =
@@ -153,7 +212,7 @@ class TransferServiceImplTest {
 
         ConflictException ex = assertThrows(
                 ConflictException.class,
-                () -> transferService.transfer(dto, auth)
+                () -> transferService.transfer(dto, null, auth)
         );
 
         assertEquals("Only ACTIVE cards can be used for transfer", ex.getMessage());
@@ -172,9 +231,9 @@ class TransferServiceImplTest {
                 2L, "user1", CardStatusCode.ACTIVE, BigDecimal.TEN
         );
 
-        when(cardRepository.findByIdAndUserUsername(1L, "user1"))
+        when(cardRepository.findWithLockByIdAndUserUsername(1L, "user1"))
                 .thenReturn(Optional.of(from));
-        when(cardRepository.findByIdAndUserUsername(2L, "user1"))
+        when(cardRepository.findWithLockByIdAndUserUsername(2L, "user1"))
                 .thenReturn(Optional.of(to));
 
         TransferRequestDto dto =
@@ -182,9 +241,248 @@ class TransferServiceImplTest {
 
         ConflictException ex = assertThrows(
                 ConflictException.class,
-                () -> transferService.transfer(dto, auth)
+                () -> transferService.transfer(dto, null, auth)
         );
 
         assertEquals("Insufficient balance", ex.getMessage());
     }
-}
\ No newline at end of file
+
+    // ---------- LOCK ORDER ----------
+    @Test
+    void transfer_locksCardsInAscendingIdOrder() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("user1");
+
+        Card from = TestDataFactory.card(
+                2L, "user1", CardStatusCode.ACTIVE, BigDecimal.TEN
+        );
+        Card to = TestDataFactory.card(
+                1L, "user1", CardStatusCode.ACTIVE, BigDecimal.TEN
+        );
+
+        when(cardRepository.findWithLockByIdAndUserUsername(2L, "user1"))
+                .thenReturn(Optional.of(from));
+        when(cardRepository.findWithLockByIdAndUserUsername(1L, "user1"))
+                .thenReturn(Optional.of(to));
+
+        transferService.transfer(new TransferRequestDto(2L, 1L, BigDecimal.ONE), null, auth);
+
+        InOrder inOrder = inOrder(cardRepository);
+        inOrder.verify(cardRepository).findWithLockByIdAndUserUsername(1L, "user1");
+        inOrder.verify(cardRepository).findWithLockByIdAndUserUsername(2L, "user1");
+
+        assertEquals(new BigDecimal("9"), from.getBalance());
+        assertEquals(new BigDecimal("11"), to.getBalance());
+    }
+
+    // ---------- IDEMPOTENT REPLAY ----------
+    @Test
+    void transfer_repeatedIdempotencyKey_returnsOriginalResponse() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("user1");
+
+        TransferRequestDto dto =
+                new TransferRequestDto(1L, 2L, BigDecimal.TEN);
+        TransferResponseDto original = new TransferResponseDto(
+                100L, 1L, 2L, BigDecimal.TEN, Instant.now(), OUTGOING
+        );
+
+        when(idempotencyService.find("user1", "key-1", dto))
+                .thenReturn(Optional.of(original));
+
+        TransferResponseDto response = transferService.transfer(dto, "key-1", auth);
+
+        assertEquals(original, response);
+        verifyNoInteractions(cardRepository, transferRepository);
+    }
+
+    // ---------- IDEMPOTENCY KEY REGISTERED ----------
+    @Test
+    void transfer_newIdempotencyKey_registeredInTransaction() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("user1");
+
+        Card from = TestDataFactory.card(
+                1L, "user1", CardStatusCode.ACTIVE, BigDecimal.TEN
+        );
+        Card to = TestDataFactory.card(
+                2L, "user1", CardStatusCode.ACTIVE, BigDecimal.TEN
+        );
+
+        when(cardRepository.findWithLockByIdAndUserUsername(1L, "user1"))
+                .thenReturn(Optional.of(from));
+        when(cardRepository.findWithLockByIdAndUserUsername(2L, "user1"))
+                .thenReturn(Optional.of(to));
+
+        TransferRequestDto dto =
+                new TransferRequestDto(1L, 2L, BigDecimal.ONE);
+
+        when(idempotencyService.find("user1", "key-1", dto))
+                .thenReturn(Optional.empty());
+
+        TransferResponseDto response = transferService.transfer(dto, "key-1", auth);
+
+        verify(idempotencyService).register(eq("user1"), eq("key-1"), any());
+        verify(idempotencyService).cache("user1", "key-1", response);
+    }
+
+    // ---------- IDEMPOTENCY KEY CONFLICT ----------
+    @Test
+    void transfer_uniqueViolationWithoutStoredResponse_throwsConflict() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("user1");
+
+        Card from = TestDataFactory.card(1L, "user1", CardStatusCode.ACTIVE, BigDecimal.TEN);
+        Card to = TestDataFactory.card(2L, "user1", CardStatusCode.ACTIVE, BigDecimal.TEN);
+
+        when(cardRepository.findWithLockByIdAndUserUsername(1L, "user1")).thenReturn(Optional.of(from));
+        when(cardRepository.findWithLockByIdAndUserUsername(2L, "user1")).thenReturn(Optional.of(to));
+
+        TransferRequestDto dto = new TransferRequestDto(1L, 2L, BigDecimal.ONE);
+
+        when(idempotencyService.find("user1", "key-1", dto)).thenReturn(Optional.empty());
+        doThrow(new DataIntegrityViolationException("uq_transfer_idempotency_keys_username_key"))
+                .when(idempotencyService).register(eq("user1"), eq("key-1"), any());
+
+        ConflictException ex = assertThrows(
+                ConflictException.class,
+                () -> transferService.transfer(dto, "key-1", auth)
+        );
+
+        assertEquals("Idempotency-Key is being used by a concurrent request, please retry", ex.getMessage());
+    }
+
+    // ---------- GROUP COMMIT ----------
+    @Test
+    void transfer_groupCommitEnabled_routesThroughCommitter() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("user1");
+
+        Transfer transfer = new Transfer();
+        transfer.setId(100L);
+        transfer.setFrom(TestDataFactory.card(1L, "user1", CardStatusCode.ACTIVE, null));
+        transfer.setTo(TestDataFactory.card(2L, "user1", CardStatusCode.ACTIVE, null));
+        transfer.setAmount(BigDecimal.ONE);
+
+        TransferRequestDto dto = new TransferRequestDto(1L, 2L, BigDecimal.ONE);
+
+        when(groupCommitter.isEnabled()).thenReturn(true);
+        when(groupCommitter.transfer(new TransferBatchItem(dto, "user1"))).thenReturn(transfer);
+
+        TransferResponseDto response = transferService.transfer(dto, null, auth);
+
+        assertEquals(100L, response.id());
+        assertEquals(OUTGOING, response.direction());
+        verifyNoInteractions(cardRepository, transferRepository);
+    }
+
+    // ---------- BATCH ALL OR NOTHING ----------
+    @Test
+    void transferBatch_allOrNothingRejected_reportsFailingIndex() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("user1");
+
+        BatchTransferRequestDto request = new BatchTransferRequestDto(BatchTransferMode.ALL_OR_NOTHING, List.of(
+                new TransferRequestDto(1L, 2L, BigDecimal.ONE),
+                new TransferRequestDto(1L, 2L, BigDecimal.TEN),
+                new TransferRequestDto(2L, 1L, BigDecimal.ONE)
+        ));
+
+        when(transferBatchProcessor.apply(anyList(), eq(true)))
+                .thenThrow(new TransferBatchRejectedException(1, new ConflictException("Insufficient balance")));
+
+        BatchTransferResponseDto response = transferService.transferBatch(request, auth);
+
+        assertEquals(0, response.succeeded());
+        assertEquals(3, response.failed());
+        assertEquals("Insufficient balance", response.results().get(1).error());
+        assertEquals("Not applied: transfer 1 was rejected", response.results().get(0).error());
+        assertEquals("Not applied: transfer 1 was rejected", response.results().get(2).error());
+    }
+
+    // ---------- HISTORY ----------
+    @Test
+    void getUserTransfers_returnsPageWithNextCursor() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("user1");
+
+        Instant t1 = Instant.parse("2026-01-20T02:00:00Z");
+        Instant t2 = Instant.parse("2026-01-20T01:00:00Z");
+
+        when(transferHistoryRepository.findPageByUser(
+                eq("user1"), eq(Instant.EPOCH), any(), eq(Long.MAX_VALUE), eq(true), eq(true), eq(2)
+        )).thenReturn(List.of(
+                view(11L, t1, OUTGOING),
+                view(10L, t2, INCOMING)
+        ));
+
+        CursorPageDto<TransferResponseDto> page = transferService.getUserTransfers(
+                auth, new TransferHistoryFilterDto(null, null, null), null, 1
+        );
+
+        assertEquals(1, page.items().size());
+        assertEquals(11L, page.items().get(0).id());
+        assertEquals(CursorUtil.encode(t1, 11L), page.nextCursor());
+    }
+
+    @Test
+    void getUserTransfers_continuesFromCursorWithDirectionFilter() {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn("user1");
+
+        Instant position = Instant.parse("2026-01-20T01:00:00.123456Z");
+        Instant from = Instant.parse("2026-01-01T00:00:00Z");
+
+        when(transferHistoryRepository.findPageByUser(
+                "user1", from, position, 10L, false, true, 21
+        )).thenReturn(List.of(view(9L, from, INCOMING)));
+
+        CursorPageDto<TransferResponseDto> page = transferService.getUserTransfers(
+                auth,
+                new TransferHistoryFilterDto(from, null, INCOMING),
+                CursorUtil.encode(position, 10L),
+                20
+        );
+
+        assertEquals(1, page.items().size());
+        assertEquals(INCOMING, page.items().get(0).direction());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getUserTransfers_invalidCursor() {
+        Authentication auth = mock(Authentication.class);
+
+        BadRequestException ex = assertThrows(
+                BadRequestException.class,
+                () -> transferService.getUserTransfers(
+                        auth, new TransferHistoryFilterDto(null, null, null), "not-a-cursor", 20
+                )
+        );
+
+        assertEquals("Invalid cursor", ex.getMessage());
+        verifyNoInteractions(transferHistoryRepository);
+    }
+
+    @Test
+    void getUserTransfers_pageSizeTooLarge() {
+        Authentication auth = mock(Authentication.class);
+
+        assertThrows(
+                BadRequestException.class,
+                () -> transferService.getUserTransfers(
+                        auth, new TransferHistoryFilterDto(null, null, null), null, 1000
+                )
+        );
+
+        verifyNoInteractions(transferHistoryRepository);
+    }
+
+    private TransferView view(Long id, Instant createdAt, TransferDirection direction) {
+        TransferView view = mock(TransferView.class);
+        lenient().when(view.getId()).thenReturn(id);
+        lenient().when(view.getCreatedAt()).thenReturn(createdAt);
+        lenient().when(view.getDirection()).thenReturn(direction);
+        return view;
+    }
+}